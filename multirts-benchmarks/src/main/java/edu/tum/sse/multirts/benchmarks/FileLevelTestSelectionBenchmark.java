@@ -0,0 +1,157 @@
+package edu.tum.sse.multirts.benchmarks;
+
+import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.index.SelectionIndex;
+import edu.tum.sse.multirts.index.TestSelectionIndex;
+import edu.tum.sse.multirts.rts.FileLevelTestSelection;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+import edu.tum.sse.multirts.vcs.ChangeSetItem;
+import edu.tum.sse.multirts.vcs.ChangeType;
+import edu.tum.sse.multirts.vcs.GitClient;
+import org.eclipse.jgit.api.Git;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selecting tests for a change set of modified Java and resource files with {@link FileLevelTestSelection#execute(Set, Set)}.
+ * The selection index is built once per trial, and old file contents are cached by the git client after the first invocation,
+ * so this measures the analysis of the change set and the selection itself (as in a warm selection daemon).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileLevelTestSelectionBenchmark {
+
+    private static final String TARGET_BRANCH = "main";
+    private static final String SOURCE_BRANCH = "feature";
+    private static final int COVERED_CLASSES_PER_SUITE = 20;
+    private static final int OPENED_FILES_PER_SUITE = 3;
+
+    /**
+     * Number of test suites in the test report (each of which has its own class under test).
+     */
+    @Param({"1000", "10000", "40000"})
+    public int testSuites;
+
+    /**
+     * Number of changed files, half of which are Java files and half of which are resource files.
+     */
+    @Param({"10", "100"})
+    public int changedFiles;
+
+    /**
+     * Number of threads for analyzing the change set and checking test suites.
+     */
+    @Param({"1", "4"})
+    public int threads;
+
+    private Path root;
+    private Git repo;
+    private GitClient gitClient;
+    private SelectionIndex selectionIndex;
+    private Set<ChangeSetItem> changeSet;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Random random = new Random(42);
+        final int resourceFiles = Math.max(1, testSuites / 10);
+        List<TestSuite> suites = new ArrayList<>(testSuites);
+        for (int i = 0; i < testSuites; i++) {
+            Set<String> coveredEntities = new HashSet<>();
+            coveredEntities.add(getClassName(i));
+            coveredEntities.add(getClassName(i) + "Test");
+            for (int j = 0; j < COVERED_CLASSES_PER_SUITE; j++) {
+                // Skew towards low class numbers, so some classes are covered by many test suites (e.g., utilities).
+                int classNumber = (int) (testSuites * Math.pow(random.nextDouble(), 3));
+                coveredEntities.add(getClassName(classNumber));
+            }
+            Set<String> openedFiles = new HashSet<>();
+            for (int j = 0; j < OPENED_FILES_PER_SUITE; j++) {
+                openedFiles.add("/workspace/" + getResourcePath(random.nextInt(resourceFiles)));
+            }
+            TestSuite testSuite = new TestSuite();
+            testSuite.setTestId(getClassName(i) + "Test");
+            testSuite.setCoveredEntities(coveredEntities);
+            testSuite.setOpenedFiles(openedFiles);
+            suites.add(testSuite);
+        }
+        selectionIndex = TestSelectionIndex.fromReport(new TestReport("benchmark", 0, 0, suites));
+
+        // Only the changed Java files need to exist in the repository, as their old and new contents are parsed.
+        root = Files.createTempDirectory("multirts-selection-benchmark");
+        List<Integer> changedClasses = new ArrayList<>();
+        for (int i = 0; i < changedFiles / 2; i++) {
+            changedClasses.add(random.nextInt(testSuites));
+        }
+        for (final int classNumber : changedClasses) {
+            SyntheticInputs.write(root.resolve(getSourcePath(classNumber)), SyntheticInputs.javaClass(getPackageName(classNumber), "Class" + classNumber, 2, 5));
+        }
+        repo = SyntheticInputs.initRepository(root, TARGET_BRANCH);
+        SyntheticInputs.checkoutNewBranch(repo, SOURCE_BRANCH);
+        changeSet = new HashSet<>();
+        for (final int classNumber : changedClasses) {
+            SyntheticInputs.write(root.resolve(getSourcePath(classNumber)), SyntheticInputs.javaClass(getPackageName(classNumber), "Class" + classNumber, 2, 6));
+            changeSet.add(new ChangeSetItem(ChangeType.MODIFIED, getSourcePath(classNumber)));
+        }
+        SyntheticInputs.commitAll(repo);
+        for (int i = 0; i < changedFiles - changedFiles / 2; i++) {
+            changeSet.add(new ChangeSetItem(ChangeType.MODIFIED, Paths.get(getResourcePath(random.nextInt(resourceFiles)))));
+        }
+        gitClient = new GitClient(repo);
+    }
+
+    private static String getPackageName(final int classNumber) {
+        return "edu.tum.sse.benchmark.pkg" + classNumber % 100;
+    }
+
+    private static String getClassName(final int classNumber) {
+        return getPackageName(classNumber) + ".Class" + classNumber;
+    }
+
+    private static Path getSourcePath(final int classNumber) {
+        return Paths.get("module" + classNumber % 10, "src", "main", "java", getPackageName(classNumber).replace('.', '/'), "Class" + classNumber + ".java");
+    }
+
+    private static String getResourcePath(final int fileNumber) {
+        return "module" + fileNumber % 10 + "/src/main/resources/data" + fileNumber + ".xml";
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        gitClient.close();
+        repo.getRepository().close();
+        SyntheticInputs.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public TestSelectionResult execute() {
+        FileLevelTestSelection testSelection = new FileLevelTestSelection(selectionIndex, gitClient, TARGET_BRANCH, Collections.emptyMap(), threads, threads);
+        return testSelection.execute(changeSet, Collections.emptySet());
+    }
+}
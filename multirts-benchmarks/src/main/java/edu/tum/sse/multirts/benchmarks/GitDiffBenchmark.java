@@ -0,0 +1,131 @@
+package edu.tum.sse.multirts.benchmarks;
+
+import edu.tum.sse.multirts.vcs.ChangeSetItem;
+import edu.tum.sse.multirts.vcs.GitClient;
+import org.eclipse.jgit.api.Git;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computing the change set of a revision range (see {@link GitClient#getDiff(String, String)}),
+ * both in-process with JGit and by parsing the output of the "git diff" command (see {@link GitClient#parseDiffOutput(List)}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GitDiffBenchmark {
+
+    private static final String TARGET_BRANCH = "main";
+    private static final String SOURCE_BRANCH = "feature";
+
+    /**
+     * Number of changed files, a fifth of which is added and another fifth is deleted.
+     */
+    @Param({"10", "100", "1000"})
+    public int changedFiles;
+
+    /**
+     * Number of unchanged files in the repository per changed file.
+     */
+    @Param({"10"})
+    public int unchangedFilesPerChange;
+
+    private Path root;
+    private Git repo;
+    private GitClient gitClient;
+    private List<String> diffLines;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("multirts-diff-benchmark");
+        for (int i = 0; i < changedFiles * (unchangedFilesPerChange + 1); i++) {
+            SyntheticInputs.write(getFile(i), SyntheticInputs.javaClass("pkg" + i % 100, "Type" + i, 0, 5));
+        }
+        repo = SyntheticInputs.initRepository(root, TARGET_BRANCH);
+        SyntheticInputs.checkoutNewBranch(repo, SOURCE_BRANCH);
+        for (int i = 0; i < changedFiles; i++) {
+            Path file = getFile(i * (unchangedFilesPerChange + 1));
+            switch (i % 5) {
+                case 0:
+                    SyntheticInputs.write(root.resolve("added").resolve(file.getFileName()), "added " + i);
+                    break;
+                case 1:
+                    Files.delete(file);
+                    break;
+                default:
+                    SyntheticInputs.write(file, SyntheticInputs.javaClass("pkg" + i % 100, "Type" + i, 0, 6));
+            }
+        }
+        SyntheticInputs.commitAll(repo);
+        gitClient = new GitClient(repo);
+        diffLines = generateDiffOutput();
+    }
+
+    private Path getFile(final int i) {
+        return root.resolve("module" + i % 10).resolve("src/main/java/pkg" + i % 100).resolve("Type" + i + ".java");
+    }
+
+    /**
+     * Generates the output of "git diff" for the same changes, with a single hunk per file.
+     */
+    private List<String> generateDiffOutput() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < changedFiles; i++) {
+            String path = root.relativize(getFile(i * (unchangedFilesPerChange + 1))).toString().replace('\\', '/');
+            lines.add("diff --git a/" + path + " b/" + path);
+            if (i % 5 == 0) {
+                lines.add("new file mode 100644");
+            } else if (i % 5 == 1) {
+                lines.add("deleted file mode 100644");
+            }
+            lines.add("index 0123456..789abcd 100644");
+            lines.add("--- a/" + path);
+            lines.add("+++ b/" + path);
+            lines.add("@@ -10,7 +10,12 @@ public class Type" + i + " {");
+            for (int line = 0; line < 12; line++) {
+                lines.add((line % 3 == 0 ? "+" : " ") + "    return value * " + line + ";");
+            }
+        }
+        return lines;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        gitClient.close();
+        repo.getRepository().close();
+        SyntheticInputs.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public Set<ChangeSetItem> jgitDiff() {
+        // The git client caches diffs by revision range, which would otherwise only be computed once.
+        gitClient.clearCaches();
+        return gitClient.getDiff(TARGET_BRANCH, SOURCE_BRANCH);
+    }
+
+    @Benchmark
+    public Set<ChangeSetItem> parseDiffOutput() {
+        return GitClient.parseDiffOutput(diffLines);
+    }
+}
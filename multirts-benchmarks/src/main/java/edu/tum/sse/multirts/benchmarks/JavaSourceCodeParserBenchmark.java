@@ -0,0 +1,53 @@
+package edu.tum.sse.multirts.benchmarks;
+
+import edu.tum.sse.multirts.parser.JavaSourceCodeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing all declared type names from a Java source file, which is done for each changed Java file and each test file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaSourceCodeParserBenchmark {
+
+    /**
+     * Number of nested types in the source file.
+     */
+    @Param({"1", "10", "100"})
+    public int nestedTypes;
+
+    /**
+     * Number of methods per type, which determines the size of the source file along with the number of nested types.
+     */
+    @Param({"5", "50"})
+    public int methods;
+
+    private String code;
+
+    @Setup
+    public void setUp() {
+        code = SyntheticInputs.javaClass("edu.tum.sse.benchmark", "Generated", nestedTypes, methods);
+    }
+
+    @Benchmark
+    public Set<String> getAllFullyQualifiedTypeNames() {
+        return JavaSourceCodeParser.getAllFullyQualifiedTypeNames(code);
+    }
+}
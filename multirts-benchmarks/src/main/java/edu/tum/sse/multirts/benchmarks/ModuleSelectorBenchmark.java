@@ -0,0 +1,163 @@
+package edu.tum.sse.multirts.benchmarks;
+
+import edu.tum.sse.multirts.benchmarks.generator.SyntheticModule;
+import edu.tum.sse.multirts.benchmarks.generator.SyntheticProjectGenerator;
+import edu.tum.sse.multirts.ext.ModuleSelector;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selecting the modules to build for changed modules with {@link ModuleSelector#selectTransitiveProjects(List)}
+ * in the reactor of a synthetic project (see {@link SyntheticProjectGenerator}),
+ * both with the reactor dependency index of the session already computed (as for all but the first selection in a session)
+ * and with the index computed from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleSelectorBenchmark {
+
+    /**
+     * Size of the reactor relative to the sample project (see {@link SyntheticProjectGenerator}), i.e., 4 modules per unit.
+     */
+    @Param({"10", "100", "1000"})
+    public int scale;
+
+    /**
+     * Number of changed modules.
+     */
+    @Param({"1", "10"})
+    public int changedModules;
+
+    private List<MavenProject> projects;
+    private Map<MavenProject, List<MavenProject>> upstreamProjects;
+    private Map<MavenProject, List<MavenProject>> downstreamProjects;
+    private MavenSession session;
+    private List<Path> changedProjectPaths;
+
+    @Setup
+    public void setUp() {
+        final Path root = Paths.get("/workspace").toAbsolutePath();
+        final List<SyntheticModule> modules = new SyntheticProjectGenerator(42, scale).generateModules();
+        final Map<SyntheticModule, MavenProject> projectsByModule = new IdentityHashMap<>();
+        projects = new ArrayList<>(modules.size());
+        upstreamProjects = new IdentityHashMap<>();
+        downstreamProjects = new IdentityHashMap<>();
+        for (final SyntheticModule module : modules) {
+            MavenProject project = new MavenProject();
+            project.setGroupId("a.b.c");
+            project.setArtifactId(module.getArtifactId());
+            project.setVersion("1.0-SNAPSHOT");
+            project.setFile(new File(root.resolve(module.getDirectory()).toFile(), "pom.xml"));
+            projectsByModule.put(module, project);
+            projects.add(project);
+            upstreamProjects.put(project, new ArrayList<>());
+            downstreamProjects.put(project, new ArrayList<>());
+            // Modules only depend on modules declared before them.
+            for (final SyntheticModule dependency : module.getDependencies()) {
+                upstreamProjects.get(project).add(projectsByModule.get(dependency));
+                downstreamProjects.get(projectsByModule.get(dependency)).add(project);
+            }
+        }
+        session = createSession();
+        session.setProjects(projects);
+        session.setAllProjects(projects);
+        session.setProjectDependencyGraph(new SyntheticDependencyGraph());
+        final Random random = new Random(42);
+        changedProjectPaths = new ArrayList<>();
+        for (int i = 0; i < changedModules; i++) {
+            changedProjectPaths.add(projects.get(random.nextInt(projects.size())).getBasedir().toPath());
+        }
+    }
+
+    /**
+     * All constructors of {@link MavenSession} in Maven 3.8 are deprecated in favor of one without a container,
+     * which only exists as of Maven 3.9 (the extension supports Maven 3.6.3 and later).
+     * The container is not needed for module selection.
+     */
+    @SuppressWarnings("deprecation")
+    private static MavenSession createSession() {
+        return new MavenSession(null, new DefaultRepositorySystemSession(), new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+    }
+
+    @Benchmark
+    public Set<MavenProject> selectTransitiveProjects() {
+        ModuleSelector moduleSelector = new ModuleSelector(session);
+        moduleSelector.selectTransitiveProjects(changedProjectPaths);
+        return moduleSelector.getSelectedProjects();
+    }
+
+    @Benchmark
+    public Set<MavenProject> selectTransitiveProjectsWithNewIndex() {
+        // The index is cached per dependency graph, so a new graph (sharing the same dependencies) requires a new index.
+        session.setProjectDependencyGraph(new SyntheticDependencyGraph());
+        return selectTransitiveProjects();
+    }
+
+    private final class SyntheticDependencyGraph implements ProjectDependencyGraph {
+
+        public List<MavenProject> getAllProjects() {
+            return projects;
+        }
+
+        @Override
+        public List<MavenProject> getSortedProjects() {
+            // Modules only depend on modules declared before them.
+            return projects;
+        }
+
+        @Override
+        public List<MavenProject> getDownstreamProjects(final MavenProject project, final boolean transitive) {
+            return transitive ? collectTransitively(project, downstreamProjects) : downstreamProjects.get(project);
+        }
+
+        @Override
+        public List<MavenProject> getUpstreamProjects(final MavenProject project, final boolean transitive) {
+            return transitive ? collectTransitively(project, upstreamProjects) : upstreamProjects.get(project);
+        }
+
+        private List<MavenProject> collectTransitively(final MavenProject project, final Map<MavenProject, List<MavenProject>> edges) {
+            Set<MavenProject> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            Deque<MavenProject> queue = new ArrayDeque<>(edges.get(project));
+            while (!queue.isEmpty()) {
+                MavenProject current = queue.poll();
+                if (visited.add(current)) {
+                    queue.addAll(edges.get(current));
+                }
+            }
+            return new ArrayList<>(visited);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package edu.tum.sse.multirts.benchmarks;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Helpers for generating the synthetic inputs of the benchmarks (Java sources, file trees, and git repositories).
+ * All inputs are generated deterministically from the benchmark parameters, so results are comparable across runs.
+ */
+public final class SyntheticInputs {
+
+    private SyntheticInputs() {
+    }
+
+    /**
+     * Generates a Java class with nested types, each of which declares a few fields and methods.
+     *
+     * @param packageName package of the class
+     * @param className   simple name of the class
+     * @param nestedTypes number of (recursively) nested types
+     * @param methods     number of methods per type
+     * @return source code of the class
+     */
+    public static String javaClass(final String packageName, final String className, final int nestedTypes, final int methods) {
+        StringBuilder code = new StringBuilder();
+        code.append("package ").append(packageName).append(";\n\n");
+        code.append("import java.util.List;\nimport java.util.Map;\n\n");
+        code.append("/**\n * Generated class ").append(className).append(".\n */\n");
+        code.append("public class ").append(className).append(" {\n");
+        appendMembers(code, className, methods, "    ");
+        for (int i = 0; i < nestedTypes; i++) {
+            // Alternate between nested classes, interfaces, and enums, every third type is nested one level deeper.
+            String indent = i % 3 == 2 ? "        " : "    ";
+            if (i % 3 == 1) {
+                code.append(indent).append("interface Nested").append(i).append(" {\n");
+                code.append(indent).append("    void run(String argument);\n");
+                code.append(indent).append("}\n");
+            } else if (i % 3 == 2) {
+                code.append("    static class Outer").append(i).append(" {\n");
+                code.append(indent).append("enum Nested").append(i).append(" { A, B, C }\n");
+                code.append("    }\n");
+            } else {
+                code.append(indent).append("static class Nested").append(i).append(" {\n");
+                appendMembers(code, "Nested" + i, methods, indent + "    ");
+                code.append(indent).append("}\n");
+            }
+        }
+        code.append("}\n");
+        return code.toString();
+    }
+
+    private static void appendMembers(final StringBuilder code, final String typeName, final int methods, final String indent) {
+        code.append(indent).append("private final Map<String, List<Integer>> values = null; // {").append(typeName).append("}\n");
+        for (int i = 0; i < methods; i++) {
+            code.append(indent).append("public int method").append(i).append("(final int value) {\n");
+            code.append(indent).append("    String text = \"class ").append(typeName).append(" { \\\"").append(i).append("\\\" }\";\n");
+            code.append(indent).append("    /* return new ").append(typeName).append("(); */\n");
+            code.append(indent).append("    return value * ").append(i).append(" + text.length();\n");
+            code.append(indent).append("}\n");
+        }
+    }
+
+    public static void write(final Path file, final String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param root    directory to initialize the repository in
+     * @param branch  name of the initial branch
+     * @return repository with everything in {@code root} committed to the initial branch
+     */
+    public static Git initRepository(final Path root, final String branch) throws GitAPIException {
+        Git repo = Git.init().setDirectory(root.toFile()).setInitialBranch(branch).call();
+        commitAll(repo);
+        return repo;
+    }
+
+    public static void commitAll(final Git repo) throws GitAPIException {
+        repo.add().addFilepattern(".").call();
+        repo.commit().setAuthor("benchmark", "benchmark@multirts").setMessage("commit").setSign(false).call();
+    }
+
+    public static void checkoutNewBranch(final Git repo, final String branch) throws GitAPIException {
+        repo.checkout().setCreateBranch(true).setName(branch).call();
+    }
+
+    public static void deleteRecursively(final Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package edu.tum.sse.multirts.benchmarks;
+
+import edu.tum.sse.multirts.benchmarks.generator.SyntheticProject;
+import edu.tum.sse.multirts.benchmarks.generator.SyntheticProjectGenerator;
+import edu.tum.sse.multirts.index.SelectionIndex;
+import edu.tum.sse.multirts.index.StreamingReportReader;
+import edu.tum.sse.multirts.rts.FileLevelTestSelection;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+import edu.tum.sse.multirts.rts.TestSuiteFileMap;
+import edu.tum.sse.multirts.vcs.ChangeSetItem;
+import edu.tum.sse.multirts.vcs.GitClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test selection steps for all changes of a synthetic project (see {@link SyntheticProjectGenerator}),
+ * i.e., computing the change set from its git history, reading its test report, selecting tests, and mapping test suites to files.
+ * Generating the project at 1000 times the size of the sample project takes a few minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyntheticProjectBenchmark {
+
+    /**
+     * Size of the project relative to the sample project.
+     */
+    @Param({"10", "100", "1000"})
+    public int scale;
+
+    private Path root;
+    private SyntheticProject project;
+    private GitClient gitClient;
+    private SelectionIndex selectionIndex;
+    private Set<ChangeSetItem> changeSet;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("multirts-synthetic-benchmark");
+        project = new SyntheticProjectGenerator(42, scale).generate(root);
+        gitClient = new GitClient(project.getRepository());
+        selectionIndex = StreamingReportReader.readIndex(project.getTestReportFile());
+        changeSet = gitClient.getDiff(SyntheticProject.TARGET_REVISION, SyntheticProject.SOURCE_REVISION);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        gitClient.close();
+        project.close();
+        SyntheticInputs.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public Set<ChangeSetItem> getDiff() {
+        // The git client caches diffs, so each invocation requires a new client.
+        return new GitClient(project.getRepository()).getDiff(SyntheticProject.TARGET_REVISION, SyntheticProject.SOURCE_REVISION);
+    }
+
+    @Benchmark
+    public SelectionIndex readTestReport() throws IOException {
+        return StreamingReportReader.readIndex(project.getTestReportFile());
+    }
+
+    @Benchmark
+    public TestSelectionResult selectTests() {
+        FileLevelTestSelection testSelection = new FileLevelTestSelection(selectionIndex, gitClient, SyntheticProject.TARGET_REVISION, Collections.emptyMap());
+        return testSelection.execute(changeSet, Collections.emptySet());
+    }
+
+    @Benchmark
+    public TestSuiteFileMap mapTestSuiteFiles() {
+        return new TestSuiteFileMap(root, true);
+    }
+}
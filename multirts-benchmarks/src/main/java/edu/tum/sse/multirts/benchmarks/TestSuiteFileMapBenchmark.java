@@ -0,0 +1,70 @@
+package edu.tum.sse.multirts.benchmarks;
+
+import edu.tum.sse.multirts.rts.TestSuiteFileMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the test suite to file mapping from scratch, i.e., walking a source tree and (optionally) parsing the package of all test files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestSuiteFileMapBenchmark {
+
+    /**
+     * Number of test files, which are accompanied by the same number of non-test source files.
+     */
+    @Param({"100", "1000", "10000"})
+    public int testFiles;
+
+    /**
+     * If true, the package of every test file is parsed.
+     */
+    @Param({"false", "true"})
+    public boolean useFullIdentifier;
+
+    private Path root;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("multirts-file-map-benchmark");
+        for (int i = 0; i < testFiles; i++) {
+            String packageName = "edu.tum.sse.benchmark.pkg" + i % 100;
+            Path module = root.resolve("module" + i % 50);
+            String packageDirectory = packageName.replace('.', '/');
+            SyntheticInputs.write(module.resolve("src/test/java").resolve(packageDirectory).resolve("Class" + i + "Test.java"),
+                    SyntheticInputs.javaClass(packageName, "Class" + i + "Test", 0, 5));
+            SyntheticInputs.write(module.resolve("src/main/java").resolve(packageDirectory).resolve("Class" + i + ".java"),
+                    SyntheticInputs.javaClass(packageName, "Class" + i, 0, 5));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticInputs.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public TestSuiteFileMap construct() {
+        return new TestSuiteFileMap(root, useFullIdentifier);
+    }
+}
@@ -0,0 +1,168 @@
+package edu.tum.sse.multirts.benchmarks.generator;
+
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a line of commits directly into the object database of a repository, without touching its index or working tree.
+ * Trees are kept in memory, and only the trees along changed paths are written again,
+ * so the cost of a commit does not depend on the size of the project
+ * (as opposed to committing through the index, which writes the whole index and all trees for every commit).
+ */
+final class SyntheticHistoryWriter implements AutoCloseable {
+
+    private final Repository repository;
+    private final ObjectInserter inserter;
+    private final TreeNode rootTree = new TreeNode();
+    /**
+     * Contents of all files written so far, other files are read from the working tree.
+     */
+    private final Map<String, byte[]> contents = new HashMap<>();
+    private ObjectId head;
+
+    /**
+     * @param repository repository whose working tree contains the files of the parent commit
+     * @param parent     commit to add commits on top of
+     */
+    SyntheticHistoryWriter(final Repository repository, final ObjectId parent) throws IOException {
+        this.repository = repository;
+        this.inserter = repository.newObjectInserter();
+        this.head = parent;
+        try (RevWalk revWalk = new RevWalk(repository);
+             TreeWalk treeWalk = new TreeWalk(repository)) {
+            treeWalk.addTree(revWalk.parseCommit(parent).getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                rootTree.put(treeWalk.getPathString().split("/"), 0, treeWalk.getObjectId(0));
+            }
+        }
+    }
+
+    /**
+     * @param path file path relative to the repository root, separated by "/"
+     * @return current content of the file
+     */
+    byte[] read(final String path) throws IOException {
+        byte[] content = contents.get(path);
+        return content != null ? content : Files.readAllBytes(repository.getWorkTree().toPath().resolve(path));
+    }
+
+    void write(final String path, final byte[] content) throws IOException {
+        contents.put(path, content);
+        rootTree.put(path.split("/"), 0, inserter.insert(Constants.OBJ_BLOB, content));
+    }
+
+    void delete(final String path) {
+        contents.remove(path);
+        rootTree.remove(path.split("/"), 0);
+    }
+
+    /**
+     * Commits all writes and deletions since the previous commit.
+     *
+     * @return id of the new commit
+     */
+    ObjectId commit(final PersonIdent ident, final String message) throws IOException {
+        CommitBuilder commit = new CommitBuilder();
+        commit.setTreeId(rootTree.write(inserter));
+        commit.setParentId(head);
+        commit.setAuthor(ident);
+        commit.setCommitter(ident);
+        commit.setMessage(message);
+        head = inserter.insert(commit);
+        return head;
+    }
+
+    /**
+     * Points a (new) branch to the latest commit.
+     */
+    void updateBranch(final String branch) throws IOException {
+        inserter.flush();
+        RefUpdate refUpdate = repository.updateRef(Constants.R_HEADS + branch);
+        refUpdate.setNewObjectId(head);
+        RefUpdate.Result result = refUpdate.forceUpdate();
+        if (result != RefUpdate.Result.NEW && result != RefUpdate.Result.FORCED && result != RefUpdate.Result.NO_CHANGE) {
+            throw new IOException("Failed to update branch " + branch + ": " + result);
+        }
+    }
+
+    @Override
+    public void close() {
+        inserter.close();
+    }
+
+    private static final class TreeNode {
+        final Map<String, TreeNode> trees = new HashMap<>();
+        final Map<String, ObjectId> blobs = new HashMap<>();
+        /**
+         * Id of the written tree, {@code null} if the tree changed since it has been written.
+         */
+        ObjectId id;
+
+        void put(final String[] segments, final int index, final ObjectId blobId) {
+            id = null;
+            if (index == segments.length - 1) {
+                blobs.put(segments[index], blobId);
+            } else {
+                trees.computeIfAbsent(segments[index], name -> new TreeNode()).put(segments, index + 1, blobId);
+            }
+        }
+
+        void remove(final String[] segments, final int index) {
+            id = null;
+            if (index == segments.length - 1) {
+                blobs.remove(segments[index]);
+            } else if (trees.containsKey(segments[index])) {
+                trees.get(segments[index]).remove(segments, index + 1);
+            }
+        }
+
+        /**
+         * @return id of the tree, {@code null} if the tree is empty (as git does not track empty directories)
+         */
+        ObjectId write(final ObjectInserter inserter) throws IOException {
+            if (id != null) {
+                return id;
+            }
+            // Git sorts tree entries by name, where names of subtrees are compared as if they ended with "/".
+            List<String> names = new ArrayList<>(blobs.keySet());
+            for (final String name : trees.keySet()) {
+                names.add(name + "/");
+            }
+            names.sort(null);
+            TreeFormatter formatter = new TreeFormatter();
+            boolean empty = true;
+            for (final String name : names) {
+                if (name.endsWith("/")) {
+                    String treeName = name.substring(0, name.length() - 1);
+                    ObjectId treeId = trees.get(treeName).write(inserter);
+                    if (treeId != null) {
+                        formatter.append(treeName, FileMode.TREE, treeId);
+                        empty = false;
+                    }
+                } else {
+                    formatter.append(name, FileMode.REGULAR_FILE, blobs.get(name));
+                    empty = false;
+                }
+            }
+            id = empty ? null : inserter.insert(formatter);
+            return id;
+        }
+    }
+}
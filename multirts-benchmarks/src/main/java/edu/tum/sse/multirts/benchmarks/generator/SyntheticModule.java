@@ -0,0 +1,96 @@
+package edu.tum.sse.multirts.benchmarks.generator;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maven module of a {@link SyntheticProject}, which is either an aggregator (packaging "pom") or a leaf module with sources and tests.
+ */
+public final class SyntheticModule {
+
+    private final String artifactId;
+    private final Path directory;
+    private final boolean aggregator;
+    private final List<SyntheticModule> dependencies = new ArrayList<>();
+    private final List<String> classNames = new ArrayList<>();
+    private final List<String> testSuiteNames = new ArrayList<>();
+    private final List<Path> resources = new ArrayList<>();
+
+    SyntheticModule(final String artifactId, final Path directory, final boolean aggregator) {
+        this.artifactId = artifactId;
+        this.directory = directory;
+        this.aggregator = aggregator;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * @return module directory relative to the project root
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public boolean isAggregator() {
+        return aggregator;
+    }
+
+    /**
+     * @return modules this module directly depends on, which are always declared before this module
+     */
+    public List<SyntheticModule> getDependencies() {
+        return Collections.unmodifiableList(dependencies);
+    }
+
+    /**
+     * @return fully qualified names of all main classes
+     */
+    public List<String> getClassNames() {
+        return Collections.unmodifiableList(classNames);
+    }
+
+    /**
+     * @return fully qualified names of all test suites
+     */
+    public List<String> getTestSuiteNames() {
+        return Collections.unmodifiableList(testSuiteNames);
+    }
+
+    /**
+     * @return test resource files relative to the project root
+     */
+    public List<Path> getResources() {
+        return Collections.unmodifiableList(resources);
+    }
+
+    String getPackageName() {
+        return "a.b.c." + artifactId.replace("-", "");
+    }
+
+    void addDependency(final SyntheticModule dependency) {
+        if (!dependencies.contains(dependency)) {
+            dependencies.add(dependency);
+        }
+    }
+
+    void addClassName(final String className) {
+        classNames.add(className);
+    }
+
+    void addTestSuiteName(final String testSuiteName) {
+        testSuiteNames.add(testSuiteName);
+    }
+
+    void addResource(final Path resource) {
+        resources.add(resource);
+    }
+
+    @Override
+    public String toString() {
+        return artifactId;
+    }
+}
@@ -0,0 +1,88 @@
+package edu.tum.sse.multirts.benchmarks.generator;
+
+import edu.tum.sse.jtec.reporting.TestReport;
+import org.eclipse.jgit.api.Git;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi-module Maven project generated by the {@link SyntheticProjectGenerator}, along with its test report and git history.
+ * The project is versioned in a git repository, where the target revision contains the initial state of the project,
+ * and the source revision contains all change commits on top of it.
+ */
+public final class SyntheticProject implements AutoCloseable {
+
+    public static final String TARGET_REVISION = "main";
+    public static final String SOURCE_REVISION = "feature";
+
+    private final Path root;
+    private final Git repo;
+    private final List<SyntheticModule> modules;
+    private final TestReport testReport;
+    private final Path testReportFile;
+    private final List<String> changeCommits;
+
+    SyntheticProject(final Path root, final Git repo, final List<SyntheticModule> modules, final TestReport testReport,
+                     final Path testReportFile, final List<String> changeCommits) {
+        this.root = root;
+        this.repo = repo;
+        this.modules = modules;
+        this.testReport = testReport;
+        this.testReportFile = testReportFile;
+        this.changeCommits = changeCommits;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Git getRepository() {
+        return repo;
+    }
+
+    /**
+     * @return all modules (except for the root module) in reactor order, i.e., dependencies before dependent modules
+     */
+    public List<SyntheticModule> getModules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    public List<SyntheticModule> getLeafModules() {
+        List<SyntheticModule> leafModules = new ArrayList<>();
+        for (final SyntheticModule module : modules) {
+            if (!module.isAggregator()) {
+                leafModules.add(module);
+            }
+        }
+        return leafModules;
+    }
+
+    /**
+     * @return test report for the target revision, as collected with JTeC (i.e., with class-level coverage and opened files)
+     */
+    public TestReport getTestReport() {
+        return testReport;
+    }
+
+    /**
+     * @return JSON file of the test report, which is not versioned
+     */
+    public Path getTestReportFile() {
+        return testReportFile;
+    }
+
+    /**
+     * @return ids of all change commits from the target revision to the source revision, oldest first
+     */
+    public List<String> getChangeCommits() {
+        return Collections.unmodifiableList(changeCommits);
+    }
+
+    @Override
+    public void close() {
+        repo.getRepository().close();
+    }
+}
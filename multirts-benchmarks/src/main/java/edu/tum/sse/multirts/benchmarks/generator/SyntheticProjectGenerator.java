@@ -0,0 +1,434 @@
+package edu.tum.sse.multirts.benchmarks.generator;
+
+import com.google.gson.Gson;
+import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.benchmarks.SyntheticInputs;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Generates multi-module Maven projects that are {@code scale} times the size of the sample project (see multirts-sample-project),
+ * i.e., with {@code scale} times as many aggregator and leaf modules, classes, test suites, test resources, and change commits.
+ * Along with the project, a JTeC test report with class-level coverage and opened files is generated,
+ * and the project is versioned in a git repository with a history of change commits (see {@link SyntheticProject}).
+ * <p>
+ * The generated project is fully determined by the seed and the scale, including the commit ids:
+ * <ul>
+ *     <li>Leaf modules depend on one of a few core modules (e.g., utilities) and on up to {@value #MAX_LOCAL_DEPENDENCIES} modules declared shortly before,
+ *     so the dependency graph has a few hubs and otherwise mostly local edges.</li>
+ *     <li>Test suites cover their own module's classes and the classes of their direct dependencies,
+ *     and the classes of transitive dependencies with a probability decaying by the dependency distance,
+ *     so core classes are covered by most test suites while most other classes are covered by few.</li>
+ *     <li>Test suites open the resources of their own module and, rarely, a resource of another module.</li>
+ *     <li>Change commits cycle through the changes of the sample project's patches:
+ *     a modified class, a modified POM, an added test suite, and a removed resource.</li>
+ * </ul>
+ */
+public final class SyntheticProjectGenerator {
+
+    /**
+     * Size of the sample project: "baz" is an aggregator, "foo", "bar", and "baz/foobar" are leaf modules,
+     * which contain three classes, five test suites, and a single test resource, and there are four sample patches.
+     */
+    static final int SAMPLE_AGGREGATOR_MODULES = 1;
+    static final int SAMPLE_LEAF_MODULES = 3;
+    static final int SAMPLE_CLASSES = 3;
+    static final int SAMPLE_TEST_SUITES = 5;
+    static final int SAMPLE_RESOURCES = 1;
+    static final int SAMPLE_CHANGES = 4;
+
+    static final String GROUP_ID = "a.b.c";
+    static final String VERSION = "1.0-SNAPSHOT";
+
+    private static final int MAX_LOCAL_DEPENDENCIES = 2;
+    /**
+     * Number of preceding modules that local dependencies are chosen from.
+     */
+    private static final int LOCAL_DEPENDENCY_WINDOW = 20;
+    private static final double CORE_MODULE_RATIO = 0.02;
+    /**
+     * Probability that a test suite covers a transitive dependency is multiplied by this factor for each additional step.
+     */
+    private static final double TRANSITIVE_COVERAGE_DECAY = 0.7;
+    private static final double FOREIGN_RESOURCE_PROBABILITY = 0.05;
+    /**
+     * Test suite durations are log-normally distributed with a median of about 665ms.
+     */
+    private static final double LOG_DURATION_MEAN = 6.5;
+    /**
+     * Fixed commit time (2022-01-01), so commit ids only depend on the seed and the scale.
+     */
+    private static final long COMMIT_TIME = 1640995200000L;
+    private static final long COMMIT_INTERVAL = 60_000L;
+
+    private final long seed;
+    private final int scale;
+
+    /**
+     * @param seed  seed for all random choices
+     * @param scale size of the project relative to the sample project (at least 1)
+     */
+    public SyntheticProjectGenerator(final long seed, final int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("Scale has to be at least 1, but is " + scale);
+        }
+        this.seed = seed;
+        this.scale = scale;
+    }
+
+    /**
+     * @param root empty or non-existing directory to generate the project in
+     */
+    public SyntheticProject generate(final Path root) throws IOException, GitAPIException {
+        final Random random = new Random(seed);
+        final List<SyntheticModule> modules = generateModules(random);
+        final List<SyntheticModule> leafModules = new ArrayList<>();
+        for (final SyntheticModule module : modules) {
+            if (!module.isAggregator()) {
+                leafModules.add(module);
+            }
+        }
+        writeProject(root, modules);
+        SyntheticInputs.write(root.resolve(".gitignore"), "target/\n");
+        final Git repo = Git.init().setDirectory(root.toFile()).setInitialBranch(SyntheticProject.TARGET_REVISION).call();
+        repo.add().addFilepattern(".").call();
+        final PersonIdent initialIdent = getIdent(0);
+        final ObjectId initialCommit = repo.commit().setAuthor(initialIdent).setCommitter(initialIdent).setMessage("Initial commit").setSign(false).call();
+
+        final TestReport testReport = generateTestReport(root, leafModules, random);
+        final Path testReportFile = root.resolve("target").resolve("jtec").resolve("test-report.json");
+        Files.createDirectories(testReportFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(testReportFile, StandardCharsets.UTF_8)) {
+            new Gson().toJson(testReport, writer);
+        }
+
+        final List<String> changeCommits;
+        try (SyntheticHistoryWriter history = new SyntheticHistoryWriter(repo.getRepository(), initialCommit)) {
+            changeCommits = generateChanges(root, history, leafModules, random);
+            history.updateBranch(SyntheticProject.SOURCE_REVISION);
+        }
+        repo.checkout().setName(SyntheticProject.SOURCE_REVISION).call();
+        return new SyntheticProject(root, repo, modules, testReport, testReportFile, changeCommits);
+    }
+
+    /**
+     * @return modules of the project (as for {@link #generate(Path)}), without writing anything
+     */
+    public List<SyntheticModule> generateModules() {
+        return generateModules(new Random(seed));
+    }
+
+    private List<SyntheticModule> generateModules(final Random random) {
+        final int aggregatorModules = SAMPLE_AGGREGATOR_MODULES * scale;
+        final int leafModulesPerAggregator = SAMPLE_LEAF_MODULES / SAMPLE_AGGREGATOR_MODULES;
+        final int coreModules = Math.max(1, (int) (SAMPLE_LEAF_MODULES * scale * CORE_MODULE_RATIO));
+        final List<SyntheticModule> modules = new ArrayList<>();
+        final List<SyntheticModule> leafModules = new ArrayList<>();
+        for (int aggregatorId = 0; aggregatorId < aggregatorModules; aggregatorId++) {
+            SyntheticModule aggregator = new SyntheticModule("group" + aggregatorId, Paths.get("group" + aggregatorId), true);
+            modules.add(aggregator);
+            for (int i = 0; i < leafModulesPerAggregator; i++) {
+                final int moduleId = leafModules.size();
+                SyntheticModule module = new SyntheticModule("module" + moduleId, aggregator.getDirectory().resolve("module" + moduleId), false);
+                if (moduleId >= coreModules) {
+                    module.addDependency(leafModules.get(random.nextInt(coreModules)));
+                    final int localDependencies = random.nextInt(MAX_LOCAL_DEPENDENCIES + 1);
+                    for (int j = 0; j < localDependencies; j++) {
+                        module.addDependency(leafModules.get(moduleId - 1 - random.nextInt(Math.min(moduleId, LOCAL_DEPENDENCY_WINDOW))));
+                    }
+                } else if (moduleId > 0) {
+                    // Core modules form a chain (e.g., a utility module required by all others).
+                    module.addDependency(leafModules.get(moduleId - 1));
+                }
+                modules.add(module);
+                leafModules.add(module);
+            }
+        }
+        final int leafModuleCount = leafModules.size();
+        for (int classId = 0; classId < SAMPLE_CLASSES * scale; classId++) {
+            SyntheticModule module = leafModules.get(classId % leafModuleCount);
+            module.addClassName(module.getPackageName() + ".Class" + classId);
+        }
+        for (int testId = 0; testId < SAMPLE_TEST_SUITES * scale; testId++) {
+            // Tests are named after the first class of their module, with alternating naming conventions (e.g., "FooTest" and "FooTestCase").
+            SyntheticModule module = leafModules.get(testId % leafModuleCount);
+            String suffix = testId < leafModuleCount ? "Test" : "TestCase";
+            module.addTestSuiteName(module.getClassNames().get(0) + suffix);
+        }
+        for (int resourceId = 0; resourceId < SAMPLE_RESOURCES * scale; resourceId++) {
+            // Like "baz/foobar", the last leaf module of each aggregator has a test resource.
+            SyntheticModule module = leafModules.get((resourceId * leafModulesPerAggregator + leafModulesPerAggregator - 1) % leafModuleCount);
+            module.addResource(module.getDirectory().resolve("src/test/resources/data" + resourceId + ".txt"));
+        }
+        return modules;
+    }
+
+    private void writeProject(final Path root, final List<SyntheticModule> modules) throws IOException {
+        final Map<Path, List<SyntheticModule>> aggregatedModules = new LinkedHashMap<>();
+        aggregatedModules.put(Paths.get(""), new ArrayList<>());
+        for (final SyntheticModule module : modules) {
+            Path parent = module.getDirectory().getParent();
+            aggregatedModules.get(parent == null ? Paths.get("") : parent).add(module);
+            if (module.isAggregator()) {
+                aggregatedModules.put(module.getDirectory(), new ArrayList<>());
+            }
+        }
+        SyntheticInputs.write(root.resolve("pom.xml"), generatePom("parent", null, "pom", aggregatedModules.get(Paths.get("")), null, -1));
+        for (final SyntheticModule module : modules) {
+            if (module.isAggregator()) {
+                SyntheticInputs.write(root.resolve(module.getDirectory()).resolve("pom.xml"),
+                        generatePom(module.getArtifactId(), "parent", "pom", aggregatedModules.get(module.getDirectory()), null, -1));
+                continue;
+            }
+            SyntheticInputs.write(root.resolve(module.getDirectory()).resolve("pom.xml"), generateLeafPom(module, -1));
+            for (final String className : module.getClassNames()) {
+                SyntheticInputs.write(getSourceFile(root, module, className, "main"), generateClass(module, className));
+            }
+            for (final String testSuiteName : module.getTestSuiteNames()) {
+                SyntheticInputs.write(getSourceFile(root, module, testSuiteName, "test"), generateTestSuite(module, testSuiteName));
+            }
+            for (final Path resource : module.getResources()) {
+                SyntheticInputs.write(root.resolve(resource), module.getArtifactId() + "\n");
+            }
+        }
+    }
+
+    /**
+     * @param revision index of the change commit which changed the POM, -1 for an unchanged POM
+     */
+    private static String generateLeafPom(final SyntheticModule module, final int revision) {
+        // Leaf modules are always located in their aggregator's directory, which is named after the aggregator.
+        String aggregatorArtifactId = module.getDirectory().getParent().getFileName().toString();
+        return generatePom(module.getArtifactId(), aggregatorArtifactId, "jar", null, module.getDependencies(), revision);
+    }
+
+    /**
+     * @param revision index of the change commit which changed the POM, -1 for an unchanged POM
+     */
+    private static String generatePom(final String artifactId, final String parentArtifactId, final String packaging,
+                                      final List<SyntheticModule> modules, final List<SyntheticModule> dependencies, final int revision) {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\"?>\n");
+        pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"\n");
+        pom.append("         xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n");
+        pom.append("         xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\">\n");
+        pom.append("    <modelVersion>4.0.0</modelVersion>\n");
+        if (parentArtifactId != null) {
+            pom.append("    <parent>\n");
+            pom.append("        <groupId>").append(GROUP_ID).append("</groupId>\n");
+            pom.append("        <artifactId>").append(parentArtifactId).append("</artifactId>\n");
+            pom.append("        <version>").append(VERSION).append("</version>\n");
+            pom.append("    </parent>\n");
+        } else {
+            pom.append("    <groupId>").append(GROUP_ID).append("</groupId>\n");
+            pom.append("    <version>").append(VERSION).append("</version>\n");
+        }
+        pom.append("    <artifactId>").append(artifactId).append("</artifactId>\n");
+        pom.append("    <packaging>").append(packaging).append("</packaging>\n");
+        if (revision >= 0) {
+            pom.append("    <properties>\n");
+            pom.append("        <synthetic.revision>").append(revision).append("</synthetic.revision>\n");
+            pom.append("    </properties>\n");
+        }
+        if (modules != null && !modules.isEmpty()) {
+            pom.append("    <modules>\n");
+            for (final SyntheticModule module : modules) {
+                pom.append("        <module>").append(module.getDirectory().getFileName()).append("</module>\n");
+            }
+            pom.append("    </modules>\n");
+        }
+        if (dependencies != null && !dependencies.isEmpty()) {
+            pom.append("    <dependencies>\n");
+            for (final SyntheticModule dependency : dependencies) {
+                pom.append("        <dependency>\n");
+                pom.append("            <groupId>").append(GROUP_ID).append("</groupId>\n");
+                pom.append("            <artifactId>").append(dependency.getArtifactId()).append("</artifactId>\n");
+                pom.append("            <version>").append(VERSION).append("</version>\n");
+                pom.append("        </dependency>\n");
+            }
+            pom.append("    </dependencies>\n");
+        }
+        pom.append("</project>\n");
+        return pom.toString();
+    }
+
+    private static Path getSourceFile(final Path root, final SyntheticModule module, final String className, final String sourceSet) {
+        return root.resolve(module.getDirectory()).resolve("src").resolve(sourceSet).resolve("java")
+                .resolve(className.replace('.', '/') + ".java");
+    }
+
+    private static String getSimpleName(final String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String generateClass(final SyntheticModule module, final String className) {
+        StringBuilder code = new StringBuilder();
+        code.append("package ").append(module.getPackageName()).append(";\n\n");
+        for (final SyntheticModule dependency : module.getDependencies()) {
+            code.append("import ").append(dependency.getClassNames().get(0)).append(";\n");
+        }
+        code.append("\npublic class ").append(getSimpleName(className)).append(" {\n\n");
+        code.append("    public static int compute(final int value) {\n");
+        code.append("        int result = value;\n");
+        for (final SyntheticModule dependency : module.getDependencies()) {
+            code.append("        result += ").append(getSimpleName(dependency.getClassNames().get(0))).append(".compute(value);\n");
+        }
+        code.append("        return result;\n");
+        code.append("    }\n");
+        code.append("}\n");
+        return code.toString();
+    }
+
+    private static String generateTestSuite(final SyntheticModule module, final String testSuiteName) {
+        final String testedClass = getSimpleName(module.getClassNames().get(0));
+        StringBuilder code = new StringBuilder();
+        code.append("package ").append(module.getPackageName()).append(";\n\n");
+        code.append("import org.junit.jupiter.api.Test;\n\n");
+        code.append("import static org.junit.jupiter.api.Assertions.assertEquals;\n\n");
+        code.append("public class ").append(getSimpleName(testSuiteName)).append(" {\n\n");
+        code.append("    @Test\n");
+        code.append("    void shouldCompute() {\n");
+        code.append("        assertEquals(").append(testedClass).append(".compute(0), ").append(testedClass).append(".compute(0));\n");
+        code.append("    }\n");
+        code.append("}\n");
+        return code.toString();
+    }
+
+    private TestReport generateTestReport(final Path root, final List<SyntheticModule> leafModules, final Random random) {
+        final List<Path> allResources = new ArrayList<>();
+        for (final SyntheticModule module : leafModules) {
+            allResources.addAll(module.getResources());
+        }
+        final List<TestSuite> testSuites = new ArrayList<>();
+        long timestamp = COMMIT_TIME;
+        for (final SyntheticModule module : leafModules) {
+            for (final String testSuiteName : module.getTestSuiteNames()) {
+                Set<String> coveredEntities = new LinkedHashSet<>();
+                coveredEntities.add(testSuiteName);
+                coveredEntities.addAll(module.getClassNames());
+                for (final Map.Entry<SyntheticModule, Integer> upstream : getUpstreamDistances(module).entrySet()) {
+                    if (random.nextDouble() < Math.pow(TRANSITIVE_COVERAGE_DECAY, upstream.getValue() - 1)) {
+                        coveredEntities.addAll(upstream.getKey().getClassNames());
+                    }
+                }
+                Set<String> openedFiles = new LinkedHashSet<>();
+                for (final Path resource : module.getResources()) {
+                    openedFiles.add(root.resolve(resource).toString());
+                }
+                if (!allResources.isEmpty() && random.nextDouble() < FOREIGN_RESOURCE_PROBABILITY) {
+                    openedFiles.add(root.resolve(allResources.get(random.nextInt(allResources.size()))).toString());
+                }
+                final long duration = Math.round(Math.exp(LOG_DURATION_MEAN + random.nextGaussian()));
+                TestSuite testSuite = new TestSuite();
+                testSuite.setTestId(testSuiteName);
+                testSuite.setStartTimestamp(timestamp);
+                testSuite.setEndTimestamp(timestamp + duration);
+                testSuite.setRunCount(1);
+                testSuite.setFailureCount(0);
+                testSuite.setCoveredEntities(coveredEntities);
+                testSuite.setOpenedFiles(openedFiles);
+                testSuites.add(testSuite);
+                timestamp += duration;
+            }
+        }
+        return new TestReport("synthetic-" + seed + "-" + scale, COMMIT_TIME, timestamp, testSuites);
+    }
+
+    /**
+     * @return all transitive upstream modules with their shortest dependency distance (1 for direct dependencies)
+     */
+    private static Map<SyntheticModule, Integer> getUpstreamDistances(final SyntheticModule module) {
+        final Map<SyntheticModule, Integer> distances = new LinkedHashMap<>();
+        final Deque<SyntheticModule> queue = new ArrayDeque<>();
+        queue.add(module);
+        distances.put(module, 0);
+        while (!queue.isEmpty()) {
+            SyntheticModule current = queue.poll();
+            for (final SyntheticModule dependency : current.getDependencies()) {
+                if (!distances.containsKey(dependency)) {
+                    distances.put(dependency, distances.get(current) + 1);
+                    queue.add(dependency);
+                }
+            }
+        }
+        distances.remove(module);
+        return distances;
+    }
+
+    private List<String> generateChanges(final Path root, final SyntheticHistoryWriter history, final List<SyntheticModule> leafModules, final Random random)
+            throws IOException {
+        final List<Path> remainingResources = new ArrayList<>();
+        for (final SyntheticModule module : leafModules) {
+            remainingResources.addAll(module.getResources());
+        }
+        final List<String> changeCommits = new ArrayList<>();
+        for (int change = 0; change < SAMPLE_CHANGES * scale; change++) {
+            final SyntheticModule module = leafModules.get(random.nextInt(leafModules.size()));
+            final String message;
+            int kind = change % SAMPLE_CHANGES;
+            if (kind == 3 && remainingResources.isEmpty()) {
+                kind = 0;
+            }
+            switch (kind) {
+                case 1: {
+                    history.write(toGitPath(module.getDirectory().resolve("pom.xml")), generateLeafPom(module, change).getBytes(StandardCharsets.UTF_8));
+                    message = "pom-change";
+                    break;
+                }
+                case 2: {
+                    String testSuiteName = module.getClassNames().get(0) + "Change" + change + "Test";
+                    history.write(toGitPath(root.relativize(getSourceFile(root, module, testSuiteName, "test"))),
+                            generateTestSuite(module, testSuiteName).getBytes(StandardCharsets.UTF_8));
+                    message = "add-test";
+                    break;
+                }
+                case 3: {
+                    history.delete(toGitPath(remainingResources.remove(random.nextInt(remainingResources.size()))));
+                    message = "file-remove";
+                    break;
+                }
+                default: {
+                    String className = module.getClassNames().get(random.nextInt(module.getClassNames().size()));
+                    String classFile = toGitPath(root.relativize(getSourceFile(root, module, className, "main")));
+                    String code = new String(history.read(classFile), StandardCharsets.UTF_8);
+                    int end = code.lastIndexOf('}');
+                    code = code.substring(0, end) + "\n    public static int change" + change + "() {\n        return " + change + ";\n    }\n}\n";
+                    history.write(classFile, code.getBytes(StandardCharsets.UTF_8));
+                    message = "simple-change";
+                }
+            }
+            String commitMessage = String.format("%02d-%s (%s)", change + 1, message, module.getArtifactId());
+            changeCommits.add(history.commit(getIdent(change + 1), commitMessage).getName());
+        }
+        return changeCommits;
+    }
+
+    private static String toGitPath(final Path relativePath) {
+        return relativePath.toString().replace('\\', '/');
+    }
+
+    private static PersonIdent getIdent(final int commitNumber) {
+        return new PersonIdent("synthetic", "synthetic@multirts", new Date(COMMIT_TIME + commitNumber * COMMIT_INTERVAL), TimeZone.getTimeZone("UTC"));
+    }
+}
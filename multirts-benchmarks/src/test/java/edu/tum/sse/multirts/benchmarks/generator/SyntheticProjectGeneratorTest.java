@@ -0,0 +1,138 @@
+package edu.tum.sse.multirts.benchmarks.generator;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.benchmarks.SyntheticInputs;
+import edu.tum.sse.multirts.index.StreamingReportReader;
+import edu.tum.sse.multirts.parser.JavaSourceCodeParser;
+import edu.tum.sse.multirts.rts.FileLevelTestSelection;
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+import edu.tum.sse.multirts.vcs.ChangeSetItem;
+import edu.tum.sse.multirts.vcs.ChangeType;
+import edu.tum.sse.multirts.vcs.GitClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticProjectGeneratorTest {
+
+    Path tmpDir;
+
+    /**
+     * Scales of the scale tests, which only run at 10 times the size of the sample project by default
+     * (e.g., "-Dmultirts.scales=10,100,1000" runs them at all scales).
+     */
+    static IntStream scales() {
+        return Arrays.stream(System.getProperty("multirts.scales", "10").split(",")).mapToInt(scale -> Integer.parseInt(scale.trim()));
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("tmpDirPrefix").toAbsolutePath();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        SyntheticInputs.deleteRecursively(tmpDir);
+    }
+
+    @Test
+    void shouldGenerateIdenticalProjectsForSameSeed() throws Exception {
+        // given
+        SyntheticProjectGenerator generator = new SyntheticProjectGenerator(42, 2);
+
+        // when
+        try (SyntheticProject first = generator.generate(tmpDir.resolve("first"));
+             SyntheticProject second = generator.generate(tmpDir.resolve("second"));
+             SyntheticProject other = new SyntheticProjectGenerator(43, 2).generate(tmpDir.resolve("other"))) {
+
+            // then
+            assertEquals(first.getChangeCommits(), second.getChangeCommits());
+            assertNotEquals(first.getChangeCommits(), other.getChangeCommits());
+            assertEquals(first.getTestReport().getTestSuites().size(), second.getTestReport().getTestSuites().size());
+            for (int i = 0; i < first.getTestReport().getTestSuites().size(); i++) {
+                assertEquals(first.getTestReport().getTestSuites().get(i).getCoveredEntities(),
+                        second.getTestReport().getTestSuites().get(i).getCoveredEntities());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("scales")
+    void shouldGenerateProjectScaledFromSampleProject(final int scale) throws Exception {
+        // given
+        SyntheticProjectGenerator generator = new SyntheticProjectGenerator(42, scale);
+
+        // when
+        try (SyntheticProject project = generator.generate(tmpDir)) {
+
+            // then
+            assertEquals(4 * scale, project.getModules().size());
+            assertEquals(3 * scale, project.getLeafModules().size());
+            assertEquals(5 * scale, project.getTestReport().getTestSuites().size());
+            assertEquals(4 * scale, project.getChangeCommits().size());
+            // Every fourth change commit adds a test suite to the source revision, which is checked out.
+            assertEquals(5 * scale + scale, JavaSourceCodeParser.findAllJavaTestFiles(tmpDir).size());
+            for (final SyntheticModule module : project.getModules()) {
+                assertTrue(Files.isRegularFile(tmpDir.resolve(module.getDirectory()).resolve("pom.xml")));
+            }
+            for (final TestSuite testSuite : project.getTestReport().getTestSuites()) {
+                assertTrue(testSuite.getCoveredEntities().contains(testSuite.getTestId()));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("scales")
+    void shouldSelectTestsForChangesOfScaledProject(final int scale) throws Exception {
+        // given
+        try (SyntheticProject project = new SyntheticProjectGenerator(42, scale).generate(tmpDir);
+             GitClient gitClient = new GitClient(project.getRepository())) {
+
+            // when
+            Set<ChangeSetItem> changeSet = gitClient.getDiff(SyntheticProject.TARGET_REVISION, SyntheticProject.SOURCE_REVISION);
+            FileLevelTestSelection testSelection = new FileLevelTestSelection(StreamingReportReader.readIndex(project.getTestReportFile()),
+                    gitClient, SyntheticProject.TARGET_REVISION, Collections.emptyMap());
+            TestSelectionResult result = testSelection.execute(changeSet, Collections.emptySet());
+
+            // then
+            Set<String> selectedTestSuites = new HashSet<>();
+            for (final SelectedTestSuite selectedTestSuite : result.getSelectedTestSuites()) {
+                selectedTestSuites.add(selectedTestSuite.getTestSuite().getTestId());
+            }
+            assertFalse(selectedTestSuites.isEmpty());
+            for (final ChangeSetItem item : changeSet) {
+                if (!JavaSourceCodeParser.isJavaFile(item.getPath())) {
+                    continue;
+                }
+                String typeName = JavaSourceCodeParser.getFullyQualifiedTypeName(tmpDir.resolve(item.getPath()));
+                if (JavaSourceCodeParser.isTestFile(item.getPath())) {
+                    assertEquals(ChangeType.ADDED, item.getChangeType());
+                    assertTrue(selectedTestSuites.contains(typeName));
+                    continue;
+                }
+                for (final TestSuite testSuite : project.getTestReport().getTestSuites()) {
+                    if (testSuite.getCoveredEntities().contains(typeName)) {
+                        assertTrue(selectedTestSuites.contains(testSuite.getTestId()), testSuite.getTestId() + " covers changed " + typeName);
+                    }
+                }
+            }
+        }
+    }
+}
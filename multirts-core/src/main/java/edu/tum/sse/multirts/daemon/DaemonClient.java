@@ -0,0 +1,117 @@
+package edu.tum.sse.multirts.daemon;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Client for a {@link SelectionDaemon} running on the local machine, which is found through its daemon file.
+ */
+public final class DaemonClient {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final int READ_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    private static final Gson gson = new Gson();
+
+    private final int port;
+    private final String token;
+
+    DaemonClient(final int port, final String token) {
+        this.port = port;
+        this.token = token;
+    }
+
+    /**
+     * @param daemonFile daemon file written by a running daemon
+     * @return client for the daemon, empty if no daemon has announced itself in the daemon file
+     */
+    public static Optional<DaemonClient> find(final Path daemonFile) {
+        if (!Files.isRegularFile(daemonFile)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(daemonFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            return Optional.of(new DaemonClient(
+                    Integer.parseInt(properties.getProperty(SelectionDaemon.PORT_PROPERTY)),
+                    properties.getProperty(SelectionDaemon.TOKEN_PROPERTY)
+            ));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring invalid daemon file " + daemonFile + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return test selection result computed by the daemon
+     * @throws IOException if the daemon is not reachable or failed to select tests
+     */
+    public TestSelectionResult select(final SelectionRequest request) throws IOException {
+        HttpURLConnection connection = openConnection(SelectionDaemon.SELECT_PATH);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+        try {
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(gson.toJson(request).getBytes(StandardCharsets.UTF_8));
+            }
+            int status = connection.getResponseCode();
+            SelectionResponse response = readResponse(status == 200 ? connection.getInputStream() : connection.getErrorStream());
+            if (status != 200 || response == null || response.error != null) {
+                throw new IOException("Daemon failed to select tests (HTTP " + status + "): " + (response == null ? "no response" : response.error));
+            }
+            return response.toResult();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * @return true if the daemon is reachable and accepts the token
+     */
+    public boolean isAlive() {
+        try {
+            HttpURLConnection connection = openConnection(SelectionDaemon.STATUS_PATH);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private HttpURLConnection openConnection(final String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "127.0.0.1", port, path).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+        connection.setRequestProperty(SelectionDaemon.TOKEN_HEADER, token);
+        return connection;
+    }
+
+    private static SelectionResponse readResponse(final InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, SelectionResponse.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid response from daemon: " + e.getMessage());
+        }
+    }
+}
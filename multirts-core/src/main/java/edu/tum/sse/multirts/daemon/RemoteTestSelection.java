@@ -0,0 +1,43 @@
+package edu.tum.sse.multirts.daemon;
+
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+import edu.tum.sse.multirts.rts.TestSelectionStrategy;
+import edu.tum.sse.multirts.vcs.ChangeSetItem;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Test selection which delegates to a running {@link SelectionDaemon}.
+ * If the daemon is not reachable or fails, the selection falls back to an in-process strategy,
+ * which is only created in that case (as creating it usually requires loading the test report).
+ */
+public class RemoteTestSelection implements TestSelectionStrategy {
+
+    private final DaemonClient daemonClient;
+    private final SelectionRequest request;
+    private final Supplier<TestSelectionStrategy> fallback;
+
+    /**
+     * @param daemonClient client for the daemon
+     * @param request      selection configuration, which has to match the fallback strategy
+     * @param fallback     creates the in-process strategy
+     */
+    public RemoteTestSelection(final DaemonClient daemonClient, final SelectionRequest request, final Supplier<TestSelectionStrategy> fallback) {
+        this.daemonClient = daemonClient;
+        this.request = request;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public TestSelectionResult execute(final Set<ChangeSetItem> changeSet, final Set<SelectedTestSuite> preSelectedTestSuites) {
+        try {
+            return daemonClient.select(request.withChanges(changeSet, preSelectedTestSuites));
+        } catch (IOException e) {
+            System.err.println("Failed to select tests with daemon, falling back to in-process selection: " + e.getMessage());
+            return fallback.get().execute(changeSet, preSelectedTestSuites);
+        }
+    }
+}
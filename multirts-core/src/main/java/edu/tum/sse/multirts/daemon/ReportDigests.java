@@ -0,0 +1,66 @@
+package edu.tum.sse.multirts.daemon;
+
+import edu.tum.sse.multirts.index.SelectionIndexCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content digests of test reports (see {@link SelectionIndexCache#getDigest(Path)}), which are only recomputed if a report's file has changed.
+ * A file counts as changed if its file key (e.g., inode), size, modification time, or status change time differ.
+ * Unlike the modification time, the status change time cannot be set by users and changes on every write (including restoring timestamps),
+ * so reports which are replaced with the same size and modification time are still hashed again.
+ */
+final class ReportDigests {
+
+    private final Map<Path, StampedDigest> digests = new ConcurrentHashMap<>();
+
+    /**
+     * @param report test report
+     * @return digest of the report content
+     */
+    String get(final Path report) throws IOException {
+        final Path key = report.toAbsolutePath().normalize();
+        final String stamp = getStamp(key);
+        StampedDigest digest = digests.get(key);
+        if (digest == null || !digest.stamp.equals(stamp)) {
+            digest = new StampedDigest(stamp, SelectionIndexCache.getDigest(key));
+            digests.put(key, digest);
+        }
+        return digest.digest;
+    }
+
+    private static String getStamp(final Path report) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(report, BasicFileAttributes.class);
+        return Objects.toString(attributes.fileKey()) + "|" + attributes.size() + "|"
+                + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS) + "|" + getChangeTime(report);
+    }
+
+    /**
+     * @return status change time in nanoseconds, or -1 if the file system does not provide it (e.g., on Windows)
+     */
+    private static long getChangeTime(final Path report) throws IOException {
+        try {
+            return ((FileTime) Files.getAttribute(report, "unix:ctime")).to(TimeUnit.NANOSECONDS);
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static final class StampedDigest {
+        final String stamp;
+        final String digest;
+
+        StampedDigest(final String stamp, final String digest) {
+            this.stamp = stamp;
+            this.digest = digest;
+        }
+    }
+}
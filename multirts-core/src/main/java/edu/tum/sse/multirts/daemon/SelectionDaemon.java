@@ -0,0 +1,300 @@
+package edu.tum.sse.multirts.daemon;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.tum.sse.multirts.index.MappedSelectionIndex;
+import edu.tum.sse.multirts.index.SelectionIndex;
+import edu.tum.sse.multirts.index.SelectionIndexCache;
+import edu.tum.sse.multirts.index.StreamingReportReader;
+import edu.tum.sse.multirts.rts.FileLevelTestSelection;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+import edu.tum.sse.multirts.vcs.GitClient;
+import edu.tum.sse.multirts.vcs.GitObjectCache;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running local test selection service, which keeps selection indices and git clients (including their long-lived git processes)
+ * in memory across builds, so that a selection request neither has to load the test report nor to start a new JVM.
+ * The daemon listens on the loopback interface only and announces its port in a daemon file (see {@link DaemonClient}),
+ * together with a random token every request has to present, so only users who can read the daemon file can use it.
+ * Requests are served concurrently.
+ */
+public final class SelectionDaemon implements AutoCloseable {
+
+    static final String SELECT_PATH = "/select";
+    static final String STATUS_PATH = "/status";
+    static final String TOKEN_HEADER = "X-MultiRTS-Token";
+    static final String PORT_PROPERTY = "port";
+    static final String TOKEN_PROPERTY = "token";
+
+    private static final Gson gson = new Gson();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Path daemonFile;
+    private final String token;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Map<String, LoadedIndex> selectionIndices = new ConcurrentHashMap<>();
+    private final Map<String, SharedGitClient> gitClients = new ConcurrentHashMap<>();
+    private final ReportDigests reportDigests = new ReportDigests();
+
+    private SelectionDaemon(final Path daemonFile, final int port, final int threads) throws IOException {
+        this.daemonFile = daemonFile;
+        this.token = generateToken();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "multirts-daemon");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(SELECT_PATH, this::handleSelect);
+        server.createContext(STATUS_PATH, this::handleStatus);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts the daemon and announces it in the daemon file.
+     *
+     * @param daemonFile file to write the port and token to
+     * @param port       port to listen on, 0 for any free port
+     * @param threads    number of concurrently served requests
+     */
+    public static SelectionDaemon start(final Path daemonFile, final int port, final int threads) throws IOException {
+        SelectionDaemon daemon = new SelectionDaemon(daemonFile, port, threads);
+        daemon.server.start();
+        daemon.writeDaemonFile();
+        return daemon;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Blocks until the daemon is closed.
+     */
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    private static String generateToken() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private void writeDaemonFile() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(PORT_PROPERTY, String.valueOf(getPort()));
+        properties.setProperty(TOKEN_PROPERTY, token);
+        Files.createDirectories(daemonFile.toAbsolutePath().getParent());
+        Files.deleteIfExists(daemonFile);
+        Files.createFile(daemonFile);
+        try {
+            Files.setPosixFilePermissions(daemonFile, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Non-POSIX file systems rely on the permissions of the enclosing directory.
+        }
+        try (Writer writer = Files.newBufferedWriter(daemonFile, StandardCharsets.UTF_8)) {
+            properties.store(writer, "MultiRTS selection daemon");
+        }
+    }
+
+    /**
+     * Selects tests with the same strategy as an in-process selection, but reuses indices and git clients from previous requests.
+     */
+    TestSelectionResult select(final SelectionRequest request) throws IOException {
+        SelectionIndex selectionIndex = getSelectionIndex(request);
+        SharedGitClient sharedGitClient = getGitClient(request);
+        GitClient gitClient = sharedGitClient.acquire();
+        try {
+            FileLevelTestSelection testSelection = new FileLevelTestSelection(selectionIndex, gitClient, request.targetRevision,
+                    request.additionalFileMapping, request.selectionThreads, request.analysisThreads);
+            return testSelection.execute(request.getChangeSet(), request.getPreSelectedTestSuites());
+        } finally {
+            sharedGitClient.release();
+        }
+    }
+
+    private SelectionIndex getSelectionIndex(final SelectionRequest request) throws IOException {
+        final Path report = Paths.get(request.testReport);
+        // Size and modification time do not reliably identify a report (e.g., if restored with preserved timestamps), hence the content digest,
+        // which is only computed again if the report file has changed.
+        final String digest = reportDigests.get(report);
+        final String key = request.testReport + "|" + request.indexCacheDirectory;
+        try {
+            return selectionIndices.compute(key, (ignored, loaded) -> {
+                if (loaded != null && loaded.digest.equals(digest)) {
+                    return loaded;
+                }
+                try {
+                    return new LoadedIndex(digest, loadSelectionIndex(report, digest, request.indexCacheDirectory));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).selectionIndex;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static SelectionIndex loadSelectionIndex(final Path report, final String digest, final String indexCacheDirectory) throws IOException {
+        if (indexCacheDirectory != null) {
+            return new SelectionIndexCache(Paths.get(indexCacheDirectory)).load(report, digest);
+        } else if (MappedSelectionIndex.isBinaryReport(report)) {
+            return MappedSelectionIndex.open(report);
+        }
+        return StreamingReportReader.readIndex(report);
+    }
+
+    private SharedGitClient getGitClient(final SelectionRequest request) {
+        final String key = request.gitRepositoryRoot + "|" + request.gitProcesses + "|" + request.gitCacheDirectory + "|" + request.gitCacheSize;
+        return gitClients.computeIfAbsent(key, ignored -> {
+            GitClient gitClient = new GitClient(Paths.get(request.gitRepositoryRoot), request.gitProcesses);
+            if (request.gitCacheDirectory != null) {
+                gitClient.setObjectCache(new GitObjectCache(Paths.get(request.gitCacheDirectory), request.gitCacheSize));
+            }
+            return new SharedGitClient(gitClient);
+        });
+    }
+
+    private boolean isAuthorized(final HttpExchange exchange) throws IOException {
+        if (token.equals(exchange.getRequestHeaders().getFirst(TOKEN_HEADER))) {
+            return true;
+        }
+        sendResponse(exchange, 403, SelectionResponse.fromError("Invalid token"));
+        return false;
+    }
+
+    private void handleSelect(final HttpExchange exchange) throws IOException {
+        try {
+            if (!isAuthorized(exchange)) {
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendResponse(exchange, 405, SelectionResponse.fromError("Expected POST request"));
+                return;
+            }
+            SelectionRequest request;
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                request = gson.fromJson(reader, SelectionRequest.class);
+            }
+            SelectionResponse response;
+            int status = 200;
+            try {
+                response = SelectionResponse.fromResult(select(request));
+            } catch (Exception e) {
+                e.printStackTrace();
+                response = SelectionResponse.fromError(e.getClass().getSimpleName() + ": " + e.getMessage());
+                status = 500;
+            }
+            sendResponse(exchange, status, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStatus(final HttpExchange exchange) throws IOException {
+        try {
+            if (!isAuthorized(exchange)) {
+                return;
+            }
+            Map<String, Integer> status = new HashMap<>();
+            status.put("selectionIndices", selectionIndices.size());
+            status.put("gitClients", gitClients.size());
+            sendResponse(exchange, 200, status);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendResponse(final HttpExchange exchange, final int status, final Object body) throws IOException {
+        byte[] json = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(json);
+        }
+    }
+
+    /**
+     * Stops the daemon, removes the daemon file, and closes all git clients.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            Files.deleteIfExists(daemonFile);
+        } catch (IOException e) {
+            System.err.println("Failed to delete daemon file " + daemonFile + ": " + e.getMessage());
+        }
+        for (SharedGitClient sharedGitClient : gitClients.values()) {
+            sharedGitClient.gitClient.close();
+        }
+        gitClients.clear();
+        selectionIndices.clear();
+        stopped.countDown();
+    }
+
+    /**
+     * Git client shared by concurrent requests for the same repository.
+     * Cached git query results are keyed by revision names, which may have moved until the next request,
+     * so the caches are cleared once no request uses the client anymore (and never while another request still relies on them).
+     */
+    private static final class SharedGitClient {
+        final GitClient gitClient;
+        private int requests;
+
+        SharedGitClient(final GitClient gitClient) {
+            this.gitClient = gitClient;
+        }
+
+        synchronized GitClient acquire() {
+            requests++;
+            return gitClient;
+        }
+
+        synchronized void release() {
+            if (--requests == 0) {
+                gitClient.clearCaches();
+            }
+        }
+    }
+
+    private static final class LoadedIndex {
+        final String digest;
+        final SelectionIndex selectionIndex;
+
+        LoadedIndex(final String digest, final SelectionIndex selectionIndex) {
+            this.digest = digest;
+            this.selectionIndex = selectionIndex;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package edu.tum.sse.multirts.daemon;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.SelectionCause;
+import edu.tum.sse.multirts.vcs.ChangeSetItem;
+import edu.tum.sse.multirts.vcs.ChangeType;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Request to the {@link SelectionDaemon} to select tests for a change set, serialized as JSON.
+ * Besides the change set, it contains the configuration of the in-process test selection, which is used as key for the daemon's in-memory state
+ * (i.e., loaded selection indices and git clients).
+ * All paths are absolute, as the daemon may run in a different working directory.
+ */
+public final class SelectionRequest {
+
+    String testReport;
+    String indexCacheDirectory;
+    String gitRepositoryRoot;
+    String gitCacheDirectory;
+    long gitCacheSize;
+    int gitProcesses;
+    String targetRevision;
+    Map<String, Set<String>> additionalFileMapping = new HashMap<>();
+    int selectionThreads = 1;
+    int analysisThreads = 1;
+    List<ChangeSetEntry> changeSet = new ArrayList<>();
+    List<TestSuiteEntry> preSelectedTestSuites = new ArrayList<>();
+
+    private SelectionRequest() {
+    }
+
+    /**
+     * @return copy of this request for the given change set and pre-selected test suites
+     */
+    public SelectionRequest withChanges(final Set<ChangeSetItem> changeSetItems, final Set<SelectedTestSuite> selectedTestSuites) {
+        SelectionRequest request = new SelectionRequest();
+        request.testReport = testReport;
+        request.indexCacheDirectory = indexCacheDirectory;
+        request.gitRepositoryRoot = gitRepositoryRoot;
+        request.gitCacheDirectory = gitCacheDirectory;
+        request.gitCacheSize = gitCacheSize;
+        request.gitProcesses = gitProcesses;
+        request.targetRevision = targetRevision;
+        request.additionalFileMapping = additionalFileMapping;
+        request.selectionThreads = selectionThreads;
+        request.analysisThreads = analysisThreads;
+        for (ChangeSetItem item : changeSetItems) {
+            request.changeSet.add(new ChangeSetEntry(item.getChangeType().name(), item.getPath().toString()));
+        }
+        for (SelectedTestSuite testSuite : selectedTestSuites) {
+            request.preSelectedTestSuites.add(new TestSuiteEntry(testSuite));
+        }
+        return request;
+    }
+
+    Set<ChangeSetItem> getChangeSet() {
+        Set<ChangeSetItem> changeSetItems = new HashSet<>();
+        for (ChangeSetEntry entry : changeSet) {
+            changeSetItems.add(new ChangeSetItem(ChangeType.valueOf(entry.changeType), Paths.get(entry.path)));
+        }
+        return changeSetItems;
+    }
+
+    Set<SelectedTestSuite> getPreSelectedTestSuites() {
+        Set<SelectedTestSuite> selectedTestSuites = new HashSet<>();
+        for (TestSuiteEntry entry : preSelectedTestSuites) {
+            selectedTestSuites.add(entry.toSelectedTestSuite());
+        }
+        return selectedTestSuites;
+    }
+
+    public static final class Builder {
+        private final SelectionRequest request = new SelectionRequest();
+
+        /**
+         * @param testReport          test report in JTeC JSON format (optionally gzip-compressed) or binary format
+         * @param gitRepositoryRoot   git repository root
+         * @param targetRevision      target revision of the change set
+         */
+        public Builder(final Path testReport, final Path gitRepositoryRoot, final String targetRevision) {
+            request.testReport = testReport.toAbsolutePath().toString();
+            request.gitRepositoryRoot = gitRepositoryRoot.toAbsolutePath().toString();
+            request.targetRevision = targetRevision;
+        }
+
+        /**
+         * @param indexCacheDirectory directory of the persistent selection index cache, {@code null} to disable it
+         */
+        public Builder indexCache(final Path indexCacheDirectory) {
+            request.indexCacheDirectory = indexCacheDirectory == null ? null : indexCacheDirectory.toAbsolutePath().toString();
+            return this;
+        }
+
+        /**
+         * @param gitCacheDirectory directory of the persistent git object cache, {@code null} to disable it
+         * @param gitCacheSize      maximum size of the git object cache in bytes
+         */
+        public Builder gitCache(final Path gitCacheDirectory, final long gitCacheSize) {
+            request.gitCacheDirectory = gitCacheDirectory == null ? null : gitCacheDirectory.toAbsolutePath().toString();
+            request.gitCacheSize = gitCacheSize;
+            return this;
+        }
+
+        public Builder gitProcesses(final int gitProcesses) {
+            request.gitProcesses = gitProcesses;
+            return this;
+        }
+
+        public Builder additionalFileMapping(final Map<String, Set<String>> additionalFileMapping) {
+            request.additionalFileMapping = additionalFileMapping;
+            return this;
+        }
+
+        public Builder threads(final int selectionThreads, final int analysisThreads) {
+            request.selectionThreads = selectionThreads;
+            request.analysisThreads = analysisThreads;
+            return this;
+        }
+
+        public SelectionRequest build() {
+            return request.withChanges(new HashSet<>(), new HashSet<>());
+        }
+    }
+
+    static final class ChangeSetEntry {
+        String changeType;
+        String path;
+
+        ChangeSetEntry(final String changeType, final String path) {
+            this.changeType = changeType;
+            this.path = path;
+        }
+    }
+
+    static final class TestSuiteEntry {
+        String testId;
+        String selectionCause;
+        String reason;
+        // Recorded timestamps are kept, as they are used for prioritizing tests by duration.
+        long startTimestamp;
+        long endTimestamp;
+
+        TestSuiteEntry(final SelectedTestSuite selectedTestSuite) {
+            this.testId = selectedTestSuite.getTestSuite().getTestId();
+            this.selectionCause = selectedTestSuite.getSelectionCause().name();
+            this.reason = selectedTestSuite.getReason();
+            this.startTimestamp = selectedTestSuite.getTestSuite().getStartTimestamp();
+            this.endTimestamp = selectedTestSuite.getTestSuite().getEndTimestamp();
+        }
+
+        SelectedTestSuite toSelectedTestSuite() {
+            TestSuite testSuite = new TestSuite();
+            testSuite.setTestId(testId);
+            testSuite.setStartTimestamp(startTimestamp);
+            testSuite.setEndTimestamp(endTimestamp);
+            return new SelectedTestSuite(SelectionCause.valueOf(selectionCause), reason, testSuite);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.tum.sse.multirts.daemon;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response of the {@link SelectionDaemon}, serialized as JSON.
+ * Test suites are only transferred by their identifiers, which is all the selection result is used for.
+ */
+final class SelectionResponse {
+
+    List<SelectionRequest.TestSuiteEntry> selectedTestSuites = new ArrayList<>();
+    List<String> excludedTestSuites = new ArrayList<>();
+    /**
+     * Error message if the selection failed, {@code null} otherwise.
+     */
+    String error;
+
+    static SelectionResponse fromResult(final TestSelectionResult result) {
+        SelectionResponse response = new SelectionResponse();
+        for (SelectedTestSuite testSuite : result.getSelectedTestSuites()) {
+            response.selectedTestSuites.add(new SelectionRequest.TestSuiteEntry(testSuite));
+        }
+        for (TestSuite testSuite : result.getExcludedTestSuites()) {
+            response.excludedTestSuites.add(testSuite.getTestId());
+        }
+        return response;
+    }
+
+    static SelectionResponse fromError(final String error) {
+        SelectionResponse response = new SelectionResponse();
+        response.error = error;
+        return response;
+    }
+
+    TestSelectionResult toResult() {
+        List<SelectedTestSuite> selected = new ArrayList<>(selectedTestSuites.size());
+        for (SelectionRequest.TestSuiteEntry entry : selectedTestSuites) {
+            selected.add(entry.toSelectedTestSuite());
+        }
+        List<TestSuite> excluded = new ArrayList<>(excludedTestSuites.size());
+        for (String testId : excludedTestSuites) {
+            TestSuite testSuite = new TestSuite();
+            testSuite.setTestId(testId);
+            excluded.add(testSuite);
+        }
+        return new TestSelectionResult(selected, excluded);
+    }
+}
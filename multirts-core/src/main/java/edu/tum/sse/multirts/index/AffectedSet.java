@@ -0,0 +1,15 @@
+package edu.tum.sse.multirts.index;
+
+/**
+ * Affected files and entities resolved against a {@link SelectionIndex}, which can be checked for each test suite independently.
+ * Implementations must support concurrent calls.
+ */
+@FunctionalInterface
+public interface AffectedSet {
+
+    /**
+     * @param suiteId position of the test suite in the report
+     * @return the affected file or entity the test suite is affected by, {@code null} if the test suite is not affected
+     */
+    String getSelectionReason(int suiteId);
+}
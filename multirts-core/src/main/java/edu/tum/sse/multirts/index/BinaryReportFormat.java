@@ -0,0 +1,80 @@
+package edu.tum.sse.multirts.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Compact binary representation of a JTeC test report, which can be queried without deserializing it.
+ * All numbers are stored as big-endian and all offsets are absolute byte positions in the file.
+ * <pre>
+ * Header (12 ints):
+ *   MAGIC, VERSION, suiteCount, entityCount, fileCount,
+ *   offsets of the sections: suites, testIds, entities, entityPostings, suiteEntities, files, filePostings
+ * Sections:
+ *   suites:         suiteCount x (long startTimestamp, long endTimestamp, int runCount, int failureCount)
+ *   testIds:        string table with the test id of each test suite (in report order)
+ *   entities:       string table with all canonical covered entities (sorted by UTF-8 bytes)
+ *   entityPostings: int lists with the sorted ids of all test suites covering each entity
+ *   suiteEntities:  int lists with the sorted ids of all entities covered by each test suite
+ *   files:          string table with the reversed path keys of all opened files (sorted by UTF-8 bytes)
+ *   filePostings:   int lists with the sorted ids of all test suites that opened each file
+ * String table: (n + 1) int offsets into the following UTF-8 bytes, i.e., string i spans [offset[i], offset[i + 1]).
+ * Int list:     (n + 1) int offsets into the following ints, i.e., list i spans [offset[i], offset[i + 1]).
+ * </pre>
+ * Opened files are stored with reversed path components (e.g., "config.xml/foo/repo/ci/" for "/ci/repo/foo/config.xml"),
+ * so that all files ending with a path suffix form a contiguous range of keys.
+ */
+final class BinaryReportFormat {
+
+    static final int MAGIC = 0x4D525453;  // "MRTS"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 12 * Integer.BYTES;
+    static final int SUITE_RECORD_SIZE = 2 * Long.BYTES + 2 * Integer.BYTES;
+    static final char PATH_KEY_SEPARATOR = '/';
+
+    private BinaryReportFormat() {
+    }
+
+    /**
+     * Builds the reversed path key for the last {@code depth} components of a path.
+     *
+     * @param components path components (see {@link OpenedFileTrie#splitPath(String)})
+     * @param depth      number of trailing path components to include
+     * @return reversed path key, e.g., "config.xml/foo/" for components ["ci", "repo", "foo", "config.xml"] and depth 2
+     */
+    static String reversedPathKey(final List<String> components, final int depth) {
+        StringBuilder key = new StringBuilder();
+        for (int i = components.size() - 1; i >= components.size() - depth; i--) {
+            key.append(components.get(i)).append(PATH_KEY_SEPARATOR);
+        }
+        return key.toString();
+    }
+
+    static int compareUnsigned(final byte[] a, final byte[] b) {
+        for (int i = 0, length = Math.min(a.length, b.length); i < length; i++) {
+            int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Checks whether a file starts with the binary report magic number.
+     *
+     * @param path file path
+     * @return true if the file is a binary test report
+     */
+    static boolean hasMagic(final Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] header = new byte[Integer.BYTES];
+            int read = inputStream.read(header);
+            return read == Integer.BYTES
+                    && ((header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16 | (header[2] & 0xFF) << 8 | (header[3] & 0xFF)) == MAGIC;
+        }
+    }
+}
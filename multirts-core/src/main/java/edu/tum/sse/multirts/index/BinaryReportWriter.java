@@ -0,0 +1,243 @@
+package edu.tum.sse.multirts.index;
+
+import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.jtec.reporting.TestSuite;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static edu.tum.sse.multirts.index.BinaryReportFormat.*;
+
+/**
+ * Converts test suites into the {@link BinaryReportFormat}.
+ * Test suites are added one by one, so that only the (deduplicated) traces need to be kept in memory while converting.
+ */
+public final class BinaryReportWriter implements TestSuiteTraceConsumer {
+
+    private final List<String> testIds = new ArrayList<>();
+    private long[] timestamps = new long[16];
+    private int[] counts = new int[16];
+    private final Map<String, Integer> entityIds = new HashMap<>();
+    private final List<IntList> entityPostings = new ArrayList<>();
+    private final List<int[]> suiteEntities = new ArrayList<>();
+    private final Map<String, Integer> fileIds = new HashMap<>();
+    private final List<IntList> filePostings = new ArrayList<>();
+
+    public static void convert(final TestReport testReport, final Path binaryReport) throws IOException {
+        BinaryReportWriter writer = new BinaryReportWriter();
+        for (final TestSuite testSuite : testReport.getTestSuites()) {
+            writer.addTestSuite(testSuite);
+        }
+        writer.write(binaryReport);
+    }
+
+    public BinaryReportWriter addTestSuite(final TestSuite testSuite) {
+        accept(testSuite, testSuite.getCoveredEntities(), testSuite.getOpenedFiles());
+        return this;
+    }
+
+    @Override
+    public void accept(final TestSuite testSuite, final Collection<String> coveredEntities, final Collection<String> openedFiles) {
+        final int suiteId = testIds.size();
+        testIds.add(testSuite.getTestId());
+        if (2 * suiteId + 1 >= timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, timestamps.length * 2);
+            counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+        timestamps[2 * suiteId] = testSuite.getStartTimestamp();
+        timestamps[2 * suiteId + 1] = testSuite.getEndTimestamp();
+        counts[2 * suiteId] = testSuite.getRunCount();
+        counts[2 * suiteId + 1] = testSuite.getFailureCount();
+        IntList coveredEntityIds = new IntList();
+        for (final String coveredEntity : coveredEntities) {
+            int entityId = addPosting(TestSelectionIndex.canonicalizeEntity(coveredEntity), suiteId, entityIds, entityPostings);
+            coveredEntityIds.add(entityId);
+        }
+        suiteEntities.add(coveredEntityIds.toSortedSet());
+        for (final String openedFile : openedFiles) {
+            List<String> components = OpenedFileTrie.splitPath(openedFile);
+            if (!components.isEmpty()) {
+                addPosting(reversedPathKey(components, components.size()), suiteId, fileIds, filePostings);
+            }
+        }
+    }
+
+    private static int addPosting(final String key, final int suiteId, final Map<String, Integer> ids, final List<IntList> postings) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = postings.size();
+            ids.put(key, id);
+            postings.add(new IntList());
+        }
+        IntList suiteIds = postings.get(id);
+        if (suiteIds.isEmpty() || suiteIds.last() != suiteId) {
+            suiteIds.add(suiteId);
+        }
+        return id;
+    }
+
+    /**
+     * Writes the binary report, replacing any existing file atomically where supported.
+     *
+     * @param binaryReport output file path
+     */
+    public void write(final Path binaryReport) throws IOException {
+        final SortedStrings entities = new SortedStrings(entityIds);
+        final SortedStrings files = new SortedStrings(fileIds);
+        final byte[][] testIdBytes = new byte[testIds.size()][];
+        for (int i = 0; i < testIds.size(); i++) {
+            testIdBytes[i] = testIds.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        final List<int[]> sortedEntityPostings = entities.reorder(entityPostings);
+        final List<int[]> sortedSuiteEntities = new ArrayList<>(suiteEntities.size());
+        for (final int[] entityIdsOfSuite : suiteEntities) {
+            int[] remapped = new int[entityIdsOfSuite.length];
+            for (int i = 0; i < remapped.length; i++) {
+                remapped[i] = entities.newIds[entityIdsOfSuite[i]];
+            }
+            Arrays.sort(remapped);
+            sortedSuiteEntities.add(remapped);
+        }
+        final List<int[]> sortedFilePostings = files.reorder(filePostings);
+
+        final int suitesOffset = HEADER_SIZE;
+        final int testIdsOffset = suitesOffset + testIds.size() * SUITE_RECORD_SIZE;
+        final int entitiesOffset = testIdsOffset + stringTableSize(testIdBytes);
+        final int entityPostingsOffset = entitiesOffset + stringTableSize(entities.bytes);
+        final int suiteEntitiesOffset = entityPostingsOffset + intListsSize(sortedEntityPostings);
+        final int filesOffset = suiteEntitiesOffset + intListsSize(sortedSuiteEntities);
+        final int filePostingsOffset = filesOffset + stringTableSize(files.bytes);
+
+        Path parent = binaryReport.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmpFile = Files.createTempFile(parent, binaryReport.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile), 1 << 16))) {
+                for (int value : new int[]{MAGIC, VERSION, testIds.size(), entities.bytes.length, files.bytes.length,
+                        suitesOffset, testIdsOffset, entitiesOffset, entityPostingsOffset, suiteEntitiesOffset, filesOffset, filePostingsOffset}) {
+                    out.writeInt(value);
+                }
+                for (int i = 0; i < 2 * testIds.size(); i += 2) {
+                    out.writeLong(timestamps[i]);
+                    out.writeLong(timestamps[i + 1]);
+                    out.writeInt(counts[i]);
+                    out.writeInt(counts[i + 1]);
+                }
+                writeStringTable(out, testIdBytes);
+                writeStringTable(out, entities.bytes);
+                writeIntLists(out, sortedEntityPostings);
+                writeIntLists(out, sortedSuiteEntities);
+                writeStringTable(out, files.bytes);
+                writeIntLists(out, sortedFilePostings);
+            }
+            try {
+                Files.move(tmpFile, binaryReport, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(tmpFile, binaryReport, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private static int stringTableSize(final byte[][] strings) {
+        long size = (long) Integer.BYTES * (strings.length + 1);
+        for (final byte[] string : strings) {
+            size += string.length;
+        }
+        return checkedSize(size);
+    }
+
+    private static int intListsSize(final List<int[]> lists) {
+        long size = (long) Integer.BYTES * (lists.size() + 1);
+        for (final int[] list : lists) {
+            size += (long) Integer.BYTES * list.length;
+        }
+        return checkedSize(size);
+    }
+
+    private static int checkedSize(final long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Test report too large for binary report format.");
+        }
+        return (int) size;
+    }
+
+    private static void writeStringTable(final DataOutputStream out, final byte[][] strings) throws IOException {
+        int offset = 0;
+        out.writeInt(offset);
+        for (final byte[] string : strings) {
+            offset += string.length;
+            out.writeInt(offset);
+        }
+        for (final byte[] string : strings) {
+            out.write(string);
+        }
+    }
+
+    private static void writeIntLists(final DataOutputStream out, final List<int[]> lists) throws IOException {
+        int offset = 0;
+        out.writeInt(offset);
+        for (final int[] list : lists) {
+            offset += list.length;
+            out.writeInt(offset);
+        }
+        for (final int[] list : lists) {
+            for (final int value : list) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    /**
+     * Strings of a dictionary sorted by their UTF-8 bytes, which allows binary searching the string table.
+     */
+    private static final class SortedStrings {
+        final byte[][] bytes;
+        /**
+         * Maps the (insertion order) ids of the dictionary to their position in {@link #bytes}.
+         */
+        final int[] newIds;
+        final int[] oldIds;
+
+        SortedStrings(final Map<String, Integer> dictionary) {
+            byte[][] unsorted = new byte[dictionary.size()][];
+            for (final Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                unsorted[entry.getValue()] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            }
+            Integer[] order = new Integer[unsorted.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compareUnsigned(unsorted[a], unsorted[b]));
+            bytes = new byte[unsorted.length][];
+            newIds = new int[unsorted.length];
+            oldIds = new int[unsorted.length];
+            for (int i = 0; i < order.length; i++) {
+                bytes[i] = unsorted[order[i]];
+                newIds[order[i]] = i;
+                oldIds[i] = order[i];
+            }
+        }
+
+        List<int[]> reorder(final List<IntList> postings) {
+            List<int[]> reordered = new ArrayList<>(postings.size());
+            for (final int oldId : oldIds) {
+                reordered.add(postings.get(oldId).toArray());
+            }
+            return reordered;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package edu.tum.sse.multirts.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed bitmap of non-negative ints, following the container layout of Roaring bitmaps.
+ * Values are partitioned by their high 16 bits into containers, which either store the low 16 bits as sorted array
+ * (for sparse containers) or as a 2^16 bit bitmap (for dense containers).
+ * Lookups and intersections do not allocate, so they can be used in hot loops over many bitmaps.
+ */
+final class CompressedBitmap {
+
+    static final CompressedBitmap EMPTY = new CompressedBitmap(new char[0], new char[0][], new long[0][], 0);
+
+    /**
+     * Containers with more values than this are stored as bitmap (4096 chars take as much space as a 2^16 bit bitmap).
+     */
+    private static final int MAX_ARRAY_CONTAINER_SIZE = 4096;
+    private static final int BITMAP_CONTAINER_WORDS = (1 << 16) / Long.SIZE;
+
+    /**
+     * Sorted high 16 bits of all containers.
+     */
+    private final char[] keys;
+    /**
+     * Array containers (sorted low 16 bits), {@code null} where the container is stored as bitmap.
+     */
+    private final char[][] arrays;
+    /**
+     * Bitmap containers, {@code null} where the container is stored as array.
+     */
+    private final long[][] bitmaps;
+    private final int cardinality;
+
+    private CompressedBitmap(final char[] keys, final char[][] arrays, final long[][] bitmaps, final int cardinality) {
+        this.keys = keys;
+        this.arrays = arrays;
+        this.bitmaps = bitmaps;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @param sortedValues sorted, distinct, non-negative values
+     * @return compressed bitmap holding all values
+     */
+    static CompressedBitmap of(final int[] sortedValues) {
+        if (sortedValues.length == 0) {
+            return EMPTY;
+        }
+        int containerCount = 1;
+        for (int i = 1; i < sortedValues.length; i++) {
+            if (sortedValues[i] >>> 16 != sortedValues[i - 1] >>> 16) {
+                containerCount++;
+            }
+        }
+        char[] keys = new char[containerCount];
+        char[][] arrays = new char[containerCount][];
+        long[][] bitmaps = new long[containerCount][];
+        int start = 0;
+        for (int container = 0; container < containerCount; container++) {
+            final int key = sortedValues[start] >>> 16;
+            int end = start;
+            while (end < sortedValues.length && sortedValues[end] >>> 16 == key) {
+                end++;
+            }
+            keys[container] = (char) key;
+            if (end - start > MAX_ARRAY_CONTAINER_SIZE) {
+                long[] bitmap = new long[BITMAP_CONTAINER_WORDS];
+                for (int i = start; i < end; i++) {
+                    bitmap[(sortedValues[i] & 0xFFFF) >>> 6] |= 1L << sortedValues[i];
+                }
+                bitmaps[container] = bitmap;
+            } else {
+                char[] array = new char[end - start];
+                for (int i = start; i < end; i++) {
+                    array[i - start] = (char) sortedValues[i];
+                }
+                arrays[container] = array;
+            }
+            start = end;
+        }
+        return new CompressedBitmap(keys, arrays, bitmaps, sortedValues.length);
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    boolean contains(final int value) {
+        int container = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (value < 0 || container < 0) {
+            return false;
+        }
+        return containerContains(container, (char) value);
+    }
+
+    private boolean containerContains(final int container, final char low) {
+        if (arrays[container] != null) {
+            return Arrays.binarySearch(arrays[container], low) >= 0;
+        }
+        return (bitmaps[container][low >>> 6] & (1L << low)) != 0;
+    }
+
+    boolean intersects(final CompressedBitmap other) {
+        return firstIntersection(other) >= 0;
+    }
+
+    /**
+     * @param other bitmap to intersect with
+     * @return smallest value contained in both bitmaps, or -1 if they are disjoint
+     */
+    int firstIntersection(final CompressedBitmap other) {
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                int low = firstContainerIntersection(i, other, j);
+                if (low >= 0) {
+                    return keys[i] << 16 | low;
+                }
+                i++;
+                j++;
+            }
+        }
+        return -1;
+    }
+
+    private int firstContainerIntersection(final int container, final CompressedBitmap other, final int otherContainer) {
+        char[] array = arrays[container];
+        char[] otherArray = other.arrays[otherContainer];
+        if (array == null && otherArray == null) {
+            long[] bitmap = bitmaps[container];
+            long[] otherBitmap = other.bitmaps[otherContainer];
+            for (int word = 0; word < BITMAP_CONTAINER_WORDS; word++) {
+                long common = bitmap[word] & otherBitmap[word];
+                if (common != 0) {
+                    return word << 6 | Long.numberOfTrailingZeros(common);
+                }
+            }
+            return -1;
+        }
+        // Iterate the smaller (array) container in ascending order and probe the other one.
+        if (array == null || (otherArray != null && otherArray.length < array.length)) {
+            return other.firstContainerIntersection(otherContainer, this, container);
+        }
+        for (final char low : array) {
+            if (other.containerContains(otherContainer, low)) {
+                return low;
+            }
+        }
+        return -1;
+    }
+
+    void forEach(final IntConsumer consumer) {
+        for (int container = 0; container < keys.length; container++) {
+            final int high = keys[container] << 16;
+            if (arrays[container] != null) {
+                for (final char low : arrays[container]) {
+                    consumer.accept(high | low);
+                }
+            } else {
+                long[] bitmap = bitmaps[container];
+                for (int word = 0; word < BITMAP_CONTAINER_WORDS; word++) {
+                    long bits = bitmap[word];
+                    while (bits != 0) {
+                        consumer.accept(high | word << 6 | Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    int[] toArray() {
+        int[] values = new int[cardinality];
+        int[] index = {0};
+        forEach(value -> values[index[0]++] = value);
+        return values;
+    }
+}
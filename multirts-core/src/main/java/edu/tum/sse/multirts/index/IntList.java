@@ -0,0 +1,65 @@
+package edu.tum.sse.multirts.index;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive ints to avoid boxing when building index structures.
+ */
+final class IntList {
+    private int[] values = new int[4];
+    private int size = 0;
+
+    void add(final int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int get(final int index) {
+        return values[index];
+    }
+
+    int last() {
+        return values[size - 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void addAll(final IntList other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.values[i]);
+        }
+    }
+
+    void addAll(final int[] other) {
+        for (final int value : other) {
+            add(value);
+        }
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return sorted array of all distinct values
+     */
+    int[] toSortedSet() {
+        int[] array = toArray();
+        Arrays.sort(array);
+        int distinct = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (distinct == 0 || array[distinct - 1] != array[i]) {
+                array[distinct++] = array[i];
+            }
+        }
+        return distinct == array.length ? array : Arrays.copyOf(array, distinct);
+    }
+}
@@ -0,0 +1,201 @@
+package edu.tum.sse.multirts.index;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static edu.tum.sse.multirts.index.BinaryReportFormat.*;
+
+/**
+ * Selection index that queries a test report in the {@link BinaryReportFormat} through a read-only memory mapping.
+ * Opening the index only maps the file, hence start-up time and heap usage do not depend on the size of the report.
+ * Only absolute reads are used on the (shared) buffer, so the index can be queried concurrently.
+ */
+public final class MappedSelectionIndex implements SelectionIndex {
+
+    private final ByteBuffer buffer;
+    private final int suiteCount;
+    private final int entityCount;
+    private final int fileCount;
+    private final int suitesOffset;
+    private final int testIdsOffset;
+    private final int entitiesOffset;
+    private final int entityPostingsOffset;
+    private final int suiteEntitiesOffset;
+    private final int filesOffset;
+    private final int filePostingsOffset;
+
+    MappedSelectionIndex(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary test report.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary test report version " + buffer.getInt(4) + ".");
+        }
+        suiteCount = buffer.getInt(8);
+        entityCount = buffer.getInt(12);
+        fileCount = buffer.getInt(16);
+        suitesOffset = buffer.getInt(20);
+        testIdsOffset = buffer.getInt(24);
+        entitiesOffset = buffer.getInt(28);
+        entityPostingsOffset = buffer.getInt(32);
+        suiteEntitiesOffset = buffer.getInt(36);
+        filesOffset = buffer.getInt(40);
+        filePostingsOffset = buffer.getInt(44);
+    }
+
+    public static MappedSelectionIndex open(final Path binaryReport) throws IOException {
+        try (FileChannel channel = FileChannel.open(binaryReport, StandardOpenOption.READ)) {
+            // The mapping stays valid after closing the channel.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedSelectionIndex(buffer);
+        }
+    }
+
+    public static boolean isBinaryReport(final Path path) throws IOException {
+        return hasMagic(path);
+    }
+
+    @Override
+    public int size() {
+        return suiteCount;
+    }
+
+    @Override
+    public TestSuite getTestSuite(final int suiteId) {
+        final int recordOffset = suitesOffset + suiteId * SUITE_RECORD_SIZE;
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId(getTestId(suiteId));
+        testSuite.setStartTimestamp(buffer.getLong(recordOffset));
+        testSuite.setEndTimestamp(buffer.getLong(recordOffset + Long.BYTES));
+        testSuite.setRunCount(buffer.getInt(recordOffset + 2 * Long.BYTES));
+        testSuite.setFailureCount(buffer.getInt(recordOffset + 2 * Long.BYTES + Integer.BYTES));
+        return testSuite;
+    }
+
+    public String getTestId(final int suiteId) {
+        return readString(testIdsOffset, suiteCount, suiteId);
+    }
+
+    /**
+     * @param suiteId position of the test suite in the report
+     * @return canonical entities covered by the test suite
+     */
+    public String[] getCoveredEntities(final int suiteId) {
+        int[] entityIds = readIntList(suiteEntitiesOffset, suiteCount, suiteId);
+        String[] entities = new String[entityIds.length];
+        for (int i = 0; i < entityIds.length; i++) {
+            entities[i] = readString(entitiesOffset, entityCount, entityIds[i]);
+        }
+        return entities;
+    }
+
+    @Override
+    public int[] getTestSuitesCoveringEntity(final String entity) {
+        byte[] key = TestSelectionIndex.canonicalizeEntity(entity).getBytes(StandardCharsets.UTF_8);
+        int lowerBound = lowerBound(entitiesOffset, entityCount, key, 0, entityCount, false);
+        if (lowerBound < entityCount && compareString(entitiesOffset, entityCount, lowerBound, key, false) == 0) {
+            return readIntList(entityPostingsOffset, entityCount, lowerBound);
+        }
+        return new int[0];
+    }
+
+    /**
+     * Resolves an affected path with the same semantics as {@link OpenedFileTrie#getMatchingFiles(String)}.
+     * As file keys are sorted reversed paths, all files with the same file name form a contiguous range of keys.
+     */
+    @Override
+    public int[] getTestSuitesOpeningFile(final String path) {
+        List<String> components = OpenedFileTrie.splitPath(path);
+        IntList suiteIds = new IntList();
+        if (!components.isEmpty()) {
+            byte[] prefix = reversedPathKey(components, 1).getBytes(StandardCharsets.UTF_8);
+            int rangeStart = lowerBound(filesOffset, fileCount, prefix, 0, fileCount, true);
+            int rangeEnd = upperBound(filesOffset, fileCount, prefix, rangeStart, fileCount);
+            for (int fileId = rangeStart; fileId < rangeEnd; fileId++) {
+                suiteIds.addAll(readIntList(filePostingsOffset, fileCount, fileId));
+            }
+        }
+        return suiteIds.toSortedSet();
+    }
+
+    private int stringStart(final int tableOffset, final int count, final int index) {
+        return tableOffset + Integer.BYTES * (count + 1) + buffer.getInt(tableOffset + Integer.BYTES * index);
+    }
+
+    private int stringEnd(final int tableOffset, final int count, final int index) {
+        return tableOffset + Integer.BYTES * (count + 1) + buffer.getInt(tableOffset + Integer.BYTES * (index + 1));
+    }
+
+    private String readString(final int tableOffset, final int count, final int index) {
+        int start = stringStart(tableOffset, count, index);
+        byte[] bytes = new byte[stringEnd(tableOffset, count, index) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int[] readIntList(final int listsOffset, final int count, final int index) {
+        int valuesOffset = listsOffset + Integer.BYTES * (count + 1);
+        int start = buffer.getInt(listsOffset + Integer.BYTES * index);
+        int end = buffer.getInt(listsOffset + Integer.BYTES * (index + 1));
+        int[] values = new int[end - start];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt(valuesOffset + Integer.BYTES * (start + i));
+        }
+        return values;
+    }
+
+    /**
+     * Compares the stored string at {@code index} with {@code key} by their unsigned UTF-8 bytes.
+     *
+     * @param prefixMatch if true, stored strings starting with {@code key} are considered equal
+     */
+    private int compareString(final int tableOffset, final int count, final int index, final byte[] key, final boolean prefixMatch) {
+        int start = stringStart(tableOffset, count, index);
+        int length = stringEnd(tableOffset, count, index) - start;
+        for (int i = 0, common = Math.min(length, key.length); i < common; i++) {
+            int difference = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        if (prefixMatch && length >= key.length) {
+            return 0;
+        }
+        return length - key.length;
+    }
+
+    private int lowerBound(final int tableOffset, final int count, final byte[] key, int from, int to, final boolean prefixMatch) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (compareString(tableOffset, count, middle, key, prefixMatch) < 0) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    private int upperBound(final int tableOffset, final int count, final byte[] prefix, int from, int to) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (compareString(tableOffset, count, middle, prefix, true) <= 0) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+}
@@ -0,0 +1,101 @@
+package edu.tum.sse.multirts.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie over the opened files of all test suites, keyed on reversed path components.
+ * For instance, "/ci/repo/foo/config.xml" is stored as "config.xml" -> "foo" -> "repo" -> "ci".
+ * This allows resolving a (relative) affected path to all opened files with the same file name without scanning all opened files,
+ * independent of the absolute location the file has been opened from during test execution.
+ * The trie also serves as dictionary of opened files, i.e., each distinct opened file is assigned a dense "file id".
+ */
+final class OpenedFileTrie {
+
+    private final Node root = new Node();
+    private int fileCount = 0;
+
+    static List<String> splitPath(final String path) {
+        List<String> components = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/' || path.charAt(i) == '\\') {
+                if (i > start && !(i - start == 1 && path.charAt(start) == '.')) {
+                    components.add(path.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return components;
+    }
+
+    /**
+     * @param openedFile path of an opened file
+     * @return file id of the opened file, or -1 if the path is empty
+     */
+    int add(final String openedFile) {
+        List<String> components = splitPath(openedFile);
+        if (components.isEmpty()) {
+            return -1;
+        }
+        Node node = root;
+        for (int i = components.size() - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(components.get(i), key -> new Node());
+        }
+        if (node.fileId < 0) {
+            node.fileId = fileCount++;
+        }
+        return node.fileId;
+    }
+
+    int size() {
+        return fileCount;
+    }
+
+    /**
+     * Resolves an affected path to all opened files whose path suffix matches the affected path down to the file name.
+     * We deliberately do not narrow the match to the longest available path suffix, as the same file is often opened from another location
+     * than the one it has been changed in, e.g., a change to "src/main/resources/x.properties" affects tests
+     * that opened ".../target/classes/x.properties", even if other tests opened ".../src/main/resources/x.properties".
+     *
+     * @param affectedPath path of the affected file
+     * @return sorted ids of all opened files matching the affected file
+     */
+    int[] getMatchingFiles(final String affectedPath) {
+        List<String> components = splitPath(affectedPath);
+        IntList fileIds = new IntList();
+        if (!components.isEmpty()) {
+            Node node = root.children.get(components.get(components.size() - 1));
+            if (node != null) {
+                collectSubtree(node, fileIds);
+            }
+        }
+        return fileIds.toSortedSet();
+    }
+
+    private static void collectSubtree(final Node start, final IntList fileIds) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.fileId >= 0) {
+                fileIds.add(node.fileId);
+            }
+            for (Node child : node.children.values()) {
+                stack.push(child);
+            }
+        }
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>(2);
+        /**
+         * Id of the opened file whose (reversed) path ends at this node, -1 if there is none.
+         */
+        int fileId = -1;
+    }
+}
@@ -0,0 +1,70 @@
+package edu.tum.sse.multirts.index;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+
+import java.util.Collection;
+
+/**
+ * Read-only view on the test suites of a test report that supports looking up affected test suites.
+ * Test suites are identified by their position in the report (i.e., their "suite id").
+ */
+public interface SelectionIndex {
+
+    /**
+     * @return number of test suites in the report
+     */
+    int size();
+
+    /**
+     * Implementations that do not keep the full report in memory may return a test suite without traces
+     * (i.e., only its identifier and timestamps).
+     *
+     * @param suiteId position of the test suite in the report
+     * @return test suite
+     */
+    TestSuite getTestSuite(int suiteId);
+
+    /**
+     * Looks up all test suites that cover the given entity (or any of its nested and anonymous types).
+     *
+     * @param entity fully qualified type name
+     * @return sorted ids of all covering test suites (must not be modified)
+     */
+    int[] getTestSuitesCoveringEntity(String entity);
+
+    /**
+     * Looks up all test suites that opened the given file, matching on the file name regardless of the directories the file has been changed in and opened from.
+     *
+     * @param path affected file path (e.g., relative to the repository root)
+     * @return sorted ids of all test suites that opened the file (must not be modified)
+     */
+    int[] getTestSuitesOpeningFile(String path);
+
+    /**
+     * Resolves affected files and entities against the index.
+     * Affected files take precedence over affected entities as selection reason.
+     * By default, this takes the union over the inverted lists of all affected files and entities.
+     *
+     * @param affectedFiles    affected file paths, see {@link #getTestSuitesOpeningFile(String)}
+     * @param affectedEntities affected entities, see {@link #getTestSuitesCoveringEntity(String)}
+     * @return affected set to check test suites against
+     */
+    default AffectedSet resolve(final Collection<String> affectedFiles, final Collection<String> affectedEntities) {
+        final String[] reasons = new String[size()];
+        for (final String affectedFile : affectedFiles) {
+            for (final int suiteId : getTestSuitesOpeningFile(affectedFile)) {
+                if (reasons[suiteId] == null) {
+                    reasons[suiteId] = affectedFile;
+                }
+            }
+        }
+        for (final String affectedEntity : affectedEntities) {
+            for (final int suiteId : getTestSuitesCoveringEntity(affectedEntity)) {
+                if (reasons[suiteId] == null) {
+                    reasons[suiteId] = affectedEntity;
+                }
+            }
+        }
+        return suiteId -> reasons[suiteId];
+    }
+}
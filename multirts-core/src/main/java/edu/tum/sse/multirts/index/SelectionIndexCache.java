@@ -0,0 +1,149 @@
+package edu.tum.sse.multirts.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache of selection indices, keyed by the SHA-256 digest of the test report they have been built from.
+ * Cached indices are stored in the {@link BinaryReportFormat}, so loading a cached index only requires a memory mapping.
+ * The digest is computed from the report content on every run (which is much cheaper than parsing the report),
+ * as size and modification time do not identify a report reliably (e.g., for reports restored from a CI cache, which preserves timestamps).
+ */
+public final class SelectionIndexCache {
+
+    static final String INDEX_FILE_EXTENSION = ".mrts";
+
+    /**
+     * Number of cached indices to keep; older indices are evicted when a new one is built.
+     */
+    private static final int MAX_CACHED_INDICES = 3;
+
+    private final Path cacheDirectory;
+
+    public SelectionIndexCache(final Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Loads the selection index for a test report, building and caching it first in case the report has changed.
+     * Binary reports are mapped directly without caching.
+     *
+     * @param report JTeC test report (JSON, gzip-compressed JSON, or binary format)
+     * @return selection index
+     */
+    public SelectionIndex load(final Path report) throws IOException {
+        if (MappedSelectionIndex.isBinaryReport(report)) {
+            return MappedSelectionIndex.open(report);
+        }
+        return load(report, getDigest(report));
+    }
+
+    /**
+     * Loads the selection index for a test report whose digest is already known (see {@link #getDigest(Path)}).
+     *
+     * @param report JTeC test report (JSON, gzip-compressed JSON, or binary format)
+     * @param digest digest of the report content
+     * @return selection index
+     */
+    public SelectionIndex load(final Path report, final String digest) throws IOException {
+        if (MappedSelectionIndex.isBinaryReport(report)) {
+            return MappedSelectionIndex.open(report);
+        }
+        Path cachedIndex = warm(report, digest);
+        try {
+            return MappedSelectionIndex.open(cachedIndex);
+        } catch (IllegalArgumentException exception) {
+            // Cached index is corrupt or has been written with an incompatible version, therefore we rebuild it.
+            Files.deleteIfExists(cachedIndex);
+            return MappedSelectionIndex.open(warm(report, digest));
+        }
+    }
+
+    /**
+     * Builds the cached selection index for a test report, unless a cached index for the same report content already exists.
+     *
+     * @param report JTeC test report (JSON or gzip-compressed JSON)
+     * @return path to the cached index
+     */
+    public Path warm(final Path report) throws IOException {
+        return warm(report, getDigest(report));
+    }
+
+    /**
+     * Builds the cached selection index for a test report whose digest is already known (see {@link #getDigest(Path)}).
+     *
+     * @param report JTeC test report (JSON or gzip-compressed JSON)
+     * @param digest digest of the report content
+     * @return path to the cached index
+     */
+    public Path warm(final Path report, final String digest) throws IOException {
+        Files.createDirectories(cacheDirectory);
+        Path cachedIndex = cacheDirectory.resolve(digest + INDEX_FILE_EXTENSION);
+        if (Files.isRegularFile(cachedIndex)) {
+            Files.setLastModifiedTime(cachedIndex, FileTime.fromMillis(System.currentTimeMillis()));
+            return cachedIndex;
+        }
+        BinaryReportWriter writer = new BinaryReportWriter();
+        StreamingReportReader.read(report, writer);
+        writer.write(cachedIndex);
+        evictStaleIndices();
+        return cachedIndex;
+    }
+
+    /**
+     * @param report test report
+     * @return hex-encoded SHA-256 digest of the report content
+     */
+    public static String getDigest(final Path report) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream inputStream = Files.newInputStream(report)) {
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : messageDigest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private void evictStaleIndices() throws IOException {
+        Map<Path, FileTime> cachedIndices = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDirectory, "*" + INDEX_FILE_EXTENSION)) {
+            for (Path cachedIndex : stream) {
+                cachedIndices.put(cachedIndex, Files.getLastModifiedTime(cachedIndex));
+            }
+        }
+        List<Path> staleIndices = cachedIndices.keySet().stream()
+                .sorted(Comparator.comparing((Path cachedIndex) -> cachedIndices.get(cachedIndex)).reversed())
+                .skip(MAX_CACHED_INDICES)
+                .collect(Collectors.toList());
+        for (Path staleIndex : staleIndices) {
+            try {
+                Files.deleteIfExists(staleIndex);
+            } catch (IOException exception) {
+                // The index may still be mapped by another build (e.g., on Windows), we will retry next time.
+                System.err.println("Failed to evict cached selection index " + staleIndex + ": " + exception.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package edu.tum.sse.multirts.index;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import edu.tum.sse.jtec.reporting.TestSuite;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a JTeC test report token by token and passes each test suite to a {@link TestSuiteTraceConsumer}
+ * right after it has been parsed, so that the report never needs to be fully materialized as {@link edu.tum.sse.jtec.reporting.TestReport}.
+ * The test suites passed on only hold their identifier, timestamps, and counts; their traces are passed separately.
+ * Gzip-compressed reports are detected by their magic number and decompressed transparently.
+ */
+public final class StreamingReportReader {
+
+    private static final int GZIP_MAGIC = 0x1F8B;
+
+    private StreamingReportReader() {
+    }
+
+    public static TestSelectionIndex readIndex(final Path report) throws IOException {
+        TestSelectionIndex.Builder builder = new TestSelectionIndex.Builder();
+        read(report, builder);
+        return builder.build();
+    }
+
+    /**
+     * @param report   JTeC test report in JSON format (optionally gzip-compressed)
+     * @param consumer receives all test suites in report order
+     * @return number of test suites read
+     */
+    public static int read(final Path report, final TestSuiteTraceConsumer consumer) throws IOException {
+        try (InputStream inputStream = openReport(report)) {
+            return read(inputStream, consumer);
+        }
+    }
+
+    public static int read(final InputStream inputStream, final TestSuiteTraceConsumer consumer) throws IOException {
+        int testSuiteCount = 0;
+        JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("testSuites") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                // Trace collections are reused for all test suites, as consumers must not retain them.
+                List<String> coveredEntities = new ArrayList<>();
+                List<String> openedFiles = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    coveredEntities.clear();
+                    openedFiles.clear();
+                    TestSuite testSuite = readTestSuite(reader, coveredEntities, openedFiles);
+                    consumer.accept(testSuite, coveredEntities, openedFiles);
+                    testSuiteCount++;
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return testSuiteCount;
+    }
+
+    static InputStream openReport(final Path report) throws IOException {
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(report), 1 << 16);
+        inputStream.mark(2);
+        int magic = inputStream.read() << 8 | inputStream.read();
+        inputStream.reset();
+        if (magic == GZIP_MAGIC) {
+            return new GZIPInputStream(inputStream, 1 << 16);
+        }
+        return inputStream;
+    }
+
+    private static TestSuite readTestSuite(final JsonReader reader, final List<String> coveredEntities, final List<String> openedFiles) throws IOException {
+        TestSuite testSuite = new TestSuite();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "testId":
+                    testSuite.setTestId(reader.nextString());
+                    break;
+                case "startTimestamp":
+                    testSuite.setStartTimestamp(reader.nextLong());
+                    break;
+                case "endTimestamp":
+                    testSuite.setEndTimestamp(reader.nextLong());
+                    break;
+                case "runCount":
+                    testSuite.setRunCount(reader.nextInt());
+                    break;
+                case "failureCount":
+                    testSuite.setFailureCount(reader.nextInt());
+                    break;
+                case "coveredEntities":
+                    readStrings(reader, coveredEntities);
+                    break;
+                case "openedFiles":
+                    readStrings(reader, openedFiles);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return testSuite;
+    }
+
+    private static void readStrings(final JsonReader reader, final List<String> strings) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            strings.add(reader.nextString());
+        }
+        reader.endArray();
+    }
+}
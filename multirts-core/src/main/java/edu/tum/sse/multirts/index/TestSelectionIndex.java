@@ -0,0 +1,258 @@
+package edu.tum.sse.multirts.index;
+
+import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.jtec.reporting.TestSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index over the test suites of a {@link TestReport} to look up affected test suites without scanning the whole report.
+ * Test suites are identified by their position in the report (i.e., their "suite id"), so that lookups preserve report order.
+ * All covered entities and opened files are interned into dictionaries of dense ids, so that the index only holds each distinct entity and file once.
+ * For each entity and file, the ids of all test suites covering or opening it are stored as {@link CompressedBitmap} (i.e., inverted lists),
+ * so a lookup is a single dictionary access, and the traces of each test suite are stored as {@link CompressedBitmap} over the dictionary ids,
+ * so checking the selection reason of an affected test suite boils down to an allocation-free bitmap intersection.
+ * {@link #getTestSuite(int)} returns the test suites as they have been added, i.e., the original test suites of an in-memory report
+ * (see {@link #fromReport(TestReport)}) and test suites without traces when reading a report with {@link StreamingReportReader}.
+ */
+public final class TestSelectionIndex implements SelectionIndex {
+
+    private static final int[] NO_TEST_SUITES = new int[0];
+
+    private final List<TestSuite> testSuites;
+
+    /**
+     * Dictionary of canonical covered entities to entity ids.
+     */
+    private final Map<String, Integer> entityIds;
+
+    /**
+     * Dictionary of opened files to file ids.
+     */
+    private final OpenedFileTrie openedFileIndex;
+
+    /**
+     * Suite ids covering each entity, indexed by entity id.
+     */
+    private final CompressedBitmap[] entitySuites;
+
+    /**
+     * Suite ids opening each file, indexed by file id.
+     */
+    private final CompressedBitmap[] fileSuites;
+
+    /**
+     * Entity ids covered by each test suite, indexed by suite id.
+     */
+    private final CompressedBitmap[] suiteEntities;
+
+    /**
+     * File ids opened by each test suite, indexed by suite id.
+     */
+    private final CompressedBitmap[] suiteFiles;
+
+    private TestSelectionIndex(final List<TestSuite> testSuites, final Map<String, Integer> entityIds, final OpenedFileTrie openedFileIndex,
+                               final CompressedBitmap[] entitySuites, final CompressedBitmap[] fileSuites,
+                               final CompressedBitmap[] suiteEntities, final CompressedBitmap[] suiteFiles) {
+        this.testSuites = testSuites;
+        this.entityIds = entityIds;
+        this.openedFileIndex = openedFileIndex;
+        this.entitySuites = entitySuites;
+        this.fileSuites = fileSuites;
+        this.suiteEntities = suiteEntities;
+        this.suiteFiles = suiteFiles;
+    }
+
+    public static TestSelectionIndex fromReport(final TestReport testReport) {
+        Builder builder = new Builder();
+        for (final TestSuite testSuite : testReport.getTestSuites()) {
+            builder.addTestSuite(testSuite);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Folds nested and anonymous types onto their outermost type, e.g., "a.b.c.Foo$1" and "a.b.c.Foo$Inner" become "a.b.c.Foo".
+     * As we currently cannot reliably detect anonymous classes at compile-time, changes are always tracked on outermost types.
+     *
+     * @param entity covered entity (i.e., a fully qualified type name)
+     * @return canonical entity
+     */
+    public static String canonicalizeEntity(final String entity) {
+        final int nestedTypeSeparator = entity.indexOf('$');
+        return nestedTypeSeparator < 0 ? entity : entity.substring(0, nestedTypeSeparator);
+    }
+
+    @Override
+    public int size() {
+        return testSuites.size();
+    }
+
+    @Override
+    public TestSuite getTestSuite(final int suiteId) {
+        return testSuites.get(suiteId);
+    }
+
+    public List<TestSuite> getTestSuites() {
+        return Collections.unmodifiableList(testSuites);
+    }
+
+    @Override
+    public int[] getTestSuitesCoveringEntity(final String entity) {
+        Integer entityId = entityIds.get(canonicalizeEntity(entity));
+        return entityId == null ? NO_TEST_SUITES : entitySuites[entityId].toArray();
+    }
+
+    @Override
+    public int[] getTestSuitesOpeningFile(final String path) {
+        int[] fileIds = openedFileIndex.getMatchingFiles(path);
+        if (fileIds.length == 1) {
+            return fileSuites[fileIds[0]].toArray();
+        }
+        IntList suiteIds = new IntList();
+        for (final int fileId : fileIds) {
+            fileSuites[fileId].forEach(suiteIds::add);
+        }
+        return suiteIds.toSortedSet();
+    }
+
+    /**
+     * Encodes the affected files and entities into bitmaps over the file and entity dictionaries,
+     * and collects the affected test suites from the inverted lists of all affected files and entities.
+     * Only for affected test suites, the bitmaps are intersected with the traces of the test suite to find the selection reason.
+     */
+    @Override
+    public AffectedSet resolve(final Collection<String> affectedFiles, final Collection<String> affectedEntities) {
+        final IntList affectedSuiteIds = new IntList();
+        final Map<Integer, String> affectedFileIds = new HashMap<>();
+        for (final String affectedFile : affectedFiles) {
+            for (final int fileId : openedFileIndex.getMatchingFiles(affectedFile)) {
+                if (affectedFileIds.putIfAbsent(fileId, affectedFile) == null) {
+                    fileSuites[fileId].forEach(affectedSuiteIds::add);
+                }
+            }
+        }
+        final Map<Integer, String> affectedEntityIds = new HashMap<>();
+        for (final String affectedEntity : affectedEntities) {
+            Integer entityId = entityIds.get(canonicalizeEntity(affectedEntity));
+            if (entityId != null && affectedEntityIds.putIfAbsent(entityId, affectedEntity) == null) {
+                entitySuites[entityId].forEach(affectedSuiteIds::add);
+            }
+        }
+        final CompressedBitmap affectedSuites = CompressedBitmap.of(affectedSuiteIds.toSortedSet());
+        final EncodedSet files = new EncodedSet(affectedFileIds);
+        final EncodedSet entities = new EncodedSet(affectedEntityIds);
+        return suiteId -> {
+            if (!affectedSuites.contains(suiteId)) {
+                return null;
+            }
+            String reason = files.getReason(suiteFiles[suiteId]);
+            return reason != null ? reason : entities.getReason(suiteEntities[suiteId]);
+        };
+    }
+
+    /**
+     * Affected dictionary ids along with the affected file or entity they have been resolved from.
+     */
+    private static final class EncodedSet {
+        private final int[] ids;
+        private final String[] reasons;
+        private final CompressedBitmap bitmap;
+
+        EncodedSet(final Map<Integer, String> reasonsById) {
+            ids = new int[reasonsById.size()];
+            int i = 0;
+            for (final Integer id : reasonsById.keySet()) {
+                ids[i++] = id;
+            }
+            Arrays.sort(ids);
+            reasons = new String[ids.length];
+            for (i = 0; i < ids.length; i++) {
+                reasons[i] = reasonsById.get(ids[i]);
+            }
+            bitmap = CompressedBitmap.of(ids);
+        }
+
+        String getReason(final CompressedBitmap trace) {
+            int id = trace.firstIntersection(bitmap);
+            return id < 0 ? null : reasons[Arrays.binarySearch(ids, id)];
+        }
+    }
+
+    public static final class Builder implements TestSuiteTraceConsumer {
+        private final List<TestSuite> testSuites = new ArrayList<>();
+        private final Map<String, Integer> entityIds = new HashMap<>();
+        private final OpenedFileTrie openedFileIndex = new OpenedFileTrie();
+        private final List<IntList> entitySuites = new ArrayList<>();
+        private final List<IntList> fileSuites = new ArrayList<>();
+        private final List<CompressedBitmap> suiteEntities = new ArrayList<>();
+        private final List<CompressedBitmap> suiteFiles = new ArrayList<>();
+
+        public Builder addTestSuite(final TestSuite testSuite) {
+            accept(testSuite, testSuite.getCoveredEntities(), testSuite.getOpenedFiles());
+            return this;
+        }
+
+        @Override
+        public void accept(final TestSuite testSuite, final Collection<String> coveredEntities, final Collection<String> openedFiles) {
+            final int suiteId = testSuites.size();
+            testSuites.add(testSuite);
+            // Duplicates are removed when encoding (e.g., "Foo$1" and "Foo$2" of the same suite both fold onto "Foo").
+            IntList coveredEntityIds = new IntList();
+            for (final String coveredEntity : coveredEntities) {
+                String entity = canonicalizeEntity(coveredEntity);
+                Integer entityId = entityIds.get(entity);
+                if (entityId == null) {
+                    entityId = entityIds.size();
+                    entityIds.put(entity, entityId);
+                }
+                coveredEntityIds.add(entityId);
+            }
+            int[] suiteEntityIds = coveredEntityIds.toSortedSet();
+            suiteEntities.add(CompressedBitmap.of(suiteEntityIds));
+            addPostings(suiteId, suiteEntityIds, entitySuites);
+            IntList openedFileIds = new IntList();
+            for (final String openedFile : openedFiles) {
+                int fileId = openedFileIndex.add(openedFile);
+                if (fileId >= 0) {
+                    openedFileIds.add(fileId);
+                }
+            }
+            int[] suiteFileIds = openedFileIds.toSortedSet();
+            suiteFiles.add(CompressedBitmap.of(suiteFileIds));
+            addPostings(suiteId, suiteFileIds, fileSuites);
+        }
+
+        /**
+         * Suite ids are added in ascending order, so the inverted lists are sorted without duplicates.
+         */
+        private static void addPostings(final int suiteId, final int[] ids, final List<IntList> postings) {
+            for (final int id : ids) {
+                while (postings.size() <= id) {
+                    postings.add(new IntList());
+                }
+                postings.get(id).add(suiteId);
+            }
+        }
+
+        public TestSelectionIndex build() {
+            return new TestSelectionIndex(new ArrayList<>(testSuites), new HashMap<>(entityIds), openedFileIndex,
+                    toBitmaps(entitySuites), toBitmaps(fileSuites),
+                    suiteEntities.toArray(new CompressedBitmap[0]), suiteFiles.toArray(new CompressedBitmap[0]));
+        }
+
+        private static CompressedBitmap[] toBitmaps(final List<IntList> postings) {
+            CompressedBitmap[] bitmaps = new CompressedBitmap[postings.size()];
+            for (int id = 0; id < bitmaps.length; id++) {
+                bitmaps[id] = CompressedBitmap.of(postings.get(id).toArray());
+            }
+            return bitmaps;
+        }
+    }
+}
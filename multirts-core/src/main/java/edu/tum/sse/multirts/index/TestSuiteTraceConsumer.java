@@ -0,0 +1,22 @@
+package edu.tum.sse.multirts.index;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+
+import java.util.Collection;
+
+/**
+ * Receives the test suites of a test report one by one, with their traces passed separately from the test suite itself.
+ * This allows building selection structures without keeping the traces attached to the test suites.
+ */
+@FunctionalInterface
+public interface TestSuiteTraceConsumer {
+
+    /**
+     * The trace collections are only valid during the call and must not be retained.
+     *
+     * @param testSuite       test suite (may not hold any traces)
+     * @param coveredEntities covered entities of the test suite
+     * @param openedFiles     opened files of the test suite
+     */
+    void accept(TestSuite testSuite, Collection<String> coveredEntities, Collection<String> openedFiles);
+}
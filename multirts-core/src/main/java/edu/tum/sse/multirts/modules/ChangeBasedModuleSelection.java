@@ -7,13 +7,13 @@ import edu.tum.sse.multirts.vcs.GitClient;
 import org.apache.maven.project.MavenProject;
 
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static edu.tum.sse.multirts.modules.MavenProjectLocationCache.POM_XML;
-import static edu.tum.sse.multirts.modules.MavenProjectLocationCache.findParentPOM;
 
 /**
  * Incremental build for Maven projects.
@@ -40,11 +40,18 @@ public class ChangeBasedModuleSelection {
     private final GitClient gitClient;
     private final MavenProject mavenRootProject;
     private final List<String> fullBuildPaths;
+    private final ModuleLocationIndex moduleLocationIndex;
 
     public ChangeBasedModuleSelection(final GitClient gitClient, final MavenProject mavenRootProject, final List<String> fullBuildPaths) {
+        this(gitClient, mavenRootProject, fullBuildPaths, new ModuleLocationIndex(Collections.emptyList()));
+    }
+
+    public ChangeBasedModuleSelection(final GitClient gitClient, final MavenProject mavenRootProject, final List<String> fullBuildPaths,
+                                      final ModuleLocationIndex moduleLocationIndex) {
         this.gitClient = gitClient;
         this.mavenRootProject = mavenRootProject;
         this.fullBuildPaths = fullBuildPaths;
+        this.moduleLocationIndex = moduleLocationIndex;
     }
 
     public Set<String> execute(final Set<ChangeSetItem> changeSet) {
@@ -61,7 +68,7 @@ public class ChangeBasedModuleSelection {
             if (filePath.startsWith(mavenRootProject.getBasedir().toPath().toAbsolutePath()) && (
                     PathUtils.hasFilename(filePath, POM_XML) || PathUtils.hasAnyExtension(filePath, RELEVANT_FILE_EXTENSIONS))
             ) {
-                Optional<Path> parentPOM = findParentPOM(filePath.getParent());
+                Optional<Path> parentPOM = moduleLocationIndex.findParentPOM(filePath.getParent());
                 parentPOM.ifPresent(path -> selectedModules.add(mavenRootProject.getBasedir().toPath().relativize(path.toAbsolutePath()).toString()));
             }
         }
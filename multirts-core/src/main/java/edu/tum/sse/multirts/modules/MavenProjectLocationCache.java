@@ -1,18 +1,20 @@
 package edu.tum.sse.multirts.modules;
 
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper class to make lookups for Maven projects for given file paths in a Maven reactor faster.
+ * Prefer {@link ModuleLocationIndex} for paths inside the reactor, which does not access the file system.
+ * The cache is concurrent, as lookups may happen from multiple threads (e.g., in parallel builds).
  */
 public final class MavenProjectLocationCache {
 
     public static final String POM_XML = "pom.xml";
 
-    private static final Map<Path, Optional<Path>> mavenPOMCache = new HashMap<>();
+    private static final Map<Path, Optional<Path>> mavenPOMCache = new ConcurrentHashMap<>();
 
     public static Optional<Path> findParentPOM(Path path) {
         if (path == null) {
@@ -0,0 +1,118 @@
+package edu.tum.sse.multirts.modules;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static edu.tum.sse.multirts.modules.MavenProjectLocationCache.POM_XML;
+
+/**
+ * Maps file paths to the Maven projects containing them, seeded from the base directories of all projects in a reactor.
+ * Project directories are stored as a trie over path components, so a lookup is a single longest-prefix walk without any file system access.
+ * Paths inside a known project always map to the innermost known project, even if a directory in between has its own POM file
+ * that is not part of the reactor (e.g., a test project in "src/test/resources").
+ * Only paths outside of all known projects are looked up on the file system, and these lookups are cached per index
+ * (i.e., for the lifetime of the Maven session the index has been created for).
+ * The project trie is immutable after construction and the file system lookups are cached concurrently, so the index is safe for concurrent lookups.
+ */
+public final class ModuleLocationIndex {
+
+    private final Node root = new Node();
+
+    private final Map<Path, Optional<Path>> fileSystemPOMCache = new ConcurrentHashMap<>();
+
+    /**
+     * @param projectDirectories base directories of all Maven projects
+     */
+    public ModuleLocationIndex(final Collection<Path> projectDirectories) {
+        for (Path projectDirectory : projectDirectories) {
+            Node node = root;
+            for (String component : getComponents(projectDirectory)) {
+                node = node.children.computeIfAbsent(component, key -> new Node());
+            }
+            node.pom = projectDirectory.toAbsolutePath().normalize().resolve(POM_XML);
+        }
+    }
+
+    /**
+     * @param session Maven session, may be {@code null}
+     * @return index of all projects in the session, empty if there is no session
+     */
+    public static ModuleLocationIndex of(final MavenSession session) {
+        List<Path> projectDirectories = new ArrayList<>();
+        if (session != null && session.getAllProjects() != null) {
+            for (MavenProject project : session.getAllProjects()) {
+                if (project.getBasedir() != null) {
+                    projectDirectories.add(project.getBasedir().toPath());
+                }
+            }
+        }
+        return new ModuleLocationIndex(projectDirectories);
+    }
+
+    /**
+     * @param path file or directory path
+     * @return POM file of the innermost project containing the path (i.e., the path itself or any of its ancestors)
+     */
+    public Optional<Path> findParentPOM(final Path path) {
+        if (path == null) {
+            return Optional.empty();
+        }
+        Path pom = null;
+        Node node = root;
+        for (String component : getComponents(path)) {
+            node = node.children.get(component);
+            if (node == null) {
+                break;
+            }
+            if (node.pom != null) {
+                pom = node.pom;
+            }
+        }
+        if (pom == null) {
+            return findParentPOMOnFileSystem(path);
+        }
+        return Optional.of(pom);
+    }
+
+    private Optional<Path> findParentPOMOnFileSystem(final Path path) {
+        if (path == null) {
+            return Optional.empty();
+        }
+        Optional<Path> pom = fileSystemPOMCache.get(path);
+        if (pom != null) {
+            return pom;
+        }
+        pom = Optional.of(path.resolve(POM_XML));
+        if (!pom.get().toFile().exists()) {
+            pom = findParentPOMOnFileSystem(path.getParent());
+        }
+        fileSystemPOMCache.put(path, pom);
+        return pom;
+    }
+
+    private static List<String> getComponents(final Path path) {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        List<String> components = new ArrayList<>(absolutePath.getNameCount() + 1);
+        if (absolutePath.getRoot() != null) {
+            components.add(absolutePath.getRoot().toString());
+        }
+        for (Path name : absolutePath) {
+            components.add(name.toString());
+        }
+        return components;
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>(4);
+        Path pom;
+    }
+}
@@ -4,38 +4,98 @@ import edu.tum.sse.jtec.util.IOUtils;
 import edu.tum.sse.multirts.util.CollectionUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 
 /**
  * Facilities to parse Java source code.
- * We rely on regex-based parsing which is generally more robust across Java versions-
+ * We rely on a lightweight single-pass scanner (see {@link JavaTypeScanner}) instead of a full parser, which is generally more robust across Java versions.
  */
 public class JavaSourceCodeParser {
     // Regex based on Maven Surefire:
     // https://maven.apache.org/surefire/maven-surefire-plugin/examples/inclusion-exclusion.html
     public static String TEST_FILE_PATTERN = "(Test.*|.*Test|TestCase.*|.*TestCase|.*Tests).java";
+    private static final Pattern TEST_FILE_REGEX = Pattern.compile(TEST_FILE_PATTERN);
+    private static final int HEADER_CHUNK_SIZE = 4 * 1024;
+    private static final int MAX_HEADER_SIZE = 64 * 1024;
+
+    /**
+     * Directories which never contain test sources (build outputs, VCS metadata, generated sources, etc.).
+     */
+    public static final Set<String> DEFAULT_SKIPPED_DIRECTORIES = Collections.unmodifiableSet(CollectionUtils.newSet(
+            "target", ".git", ".svn", ".idea", "node_modules", "generated-sources", "generated-test-sources"
+    ));
 
     public static Set<Path> findAllJavaTestFiles(Path root) throws IOException {
-        Set<Path> testFiles = new HashSet<>();
-        Files.walkFileTree(root, new JavaTestFileWalker(testFiles));
+        return findAllJavaTestFiles(Collections.singletonList(root), DEFAULT_SKIPPED_DIRECTORIES);
+    }
+
+    /**
+     * Finds all Java test files below the given roots, which are walked in parallel.
+     * Roots that do not exist or are nested in another root are skipped.
+     *
+     * @param roots              directories to search (e.g., test source roots)
+     * @param skippedDirectories names of directories which are not descended into
+     * @return all test files
+     */
+    public static Set<Path> findAllJavaTestFiles(Collection<Path> roots, Set<String> skippedDirectories) throws IOException {
+        Set<Path> testFiles = ConcurrentHashMap.newKeySet();
+        try {
+            getDistinctRoots(roots).parallelStream().forEach(root -> {
+                try {
+                    Files.walkFileTree(root, new JavaTestFileWalker(testFiles, root, skippedDirectories));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
         return testFiles;
     }
 
+    /**
+     * @return existing, normalized roots without roots nested in another root
+     */
+    public static List<Path> getDistinctRoots(Collection<Path> roots) {
+        List<Path> sortedRoots = roots.stream()
+                .map(root -> root.toAbsolutePath().normalize())
+                .filter(Files::isDirectory)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        // As paths are sorted, a nested root is always preceded by its enclosing root (or another nested root of it).
+        List<Path> distinctRoots = new ArrayList<>();
+        for (Path root : sortedRoots) {
+            if (distinctRoots.isEmpty() || !root.startsWith(distinctRoots.get(distinctRoots.size() - 1))) {
+                distinctRoots.add(root);
+            }
+        }
+        return distinctRoots;
+    }
+
     public static boolean isJavaFile(final Path path) {
         return path.toString().toLowerCase().endsWith(".java");
     }
 
     public static boolean isTestFile(final Path path) {
-        return path.getFileName().toString().matches(TEST_FILE_PATTERN);
+        return TEST_FILE_REGEX.matcher(path.getFileName().toString()).matches();
     }
 
     public static Set<String> getAllFullyQualifiedTypeNames(final String code) {
@@ -47,9 +107,47 @@ public class JavaSourceCodeParser {
         return getAllFullyQualifiedTypeNames(IOUtils.readFromFile(path));
     }
 
+    /**
+     * Only reads the header of the file up to the package declaration (see {@link #getPackageName(Path)}).
+     */
     public static String getFullyQualifiedTypeName(Path path) throws IOException {
-        JavaSourceFile file = new JavaSourceFile(IOUtils.readFromFile(path), path);
-        return file.getFullPrimaryType();
+        String packageName = getPackageName(path);
+        String primaryTypeName = getPrimaryTypeName(path);
+        return packageName.isEmpty() ? primaryTypeName : packageName + "." + primaryTypeName;
+    }
+
+    /**
+     * Reads the package declaration from the header of the file, which is read in chunks until the declaration is found
+     * (i.e., leading comments and license headers are skipped).
+     * Only if the header exceeds {@link #MAX_HEADER_SIZE} bytes, the whole file is read and parsed.
+     *
+     * @return package name, empty for the default package
+     */
+    public static String getPackageName(Path path) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] header = new byte[HEADER_CHUNK_SIZE];
+            int length = 0;
+            while (true) {
+                int read = inputStream.read(header, length, header.length - length);
+                if (read < 0) {
+                    // The whole file fits into the header.
+                    return JavaTypeScanner.scan(new String(header, 0, length, StandardCharsets.UTF_8)).getPackageName();
+                }
+                length += read;
+                if (length == header.length) {
+                    // A multibyte character split at the end of the header is harmless, as it is never part of a complete package declaration.
+                    String packageName = JavaTypeScanner.scanPackage(new String(header, 0, length, StandardCharsets.UTF_8));
+                    if (packageName != null) {
+                        return packageName;
+                    }
+                    if (header.length >= MAX_HEADER_SIZE) {
+                        break;
+                    }
+                    header = Arrays.copyOf(header, header.length * 2);
+                }
+            }
+        }
+        return new JavaSourceFile(IOUtils.readFromFile(path), path).getPackage();
     }
 
     public static String getPrimaryTypeName(Path path) {
@@ -58,13 +156,20 @@ public class JavaSourceCodeParser {
 
     static class JavaTestFileWalker implements FileVisitor<Path> {
         private final Set<Path> testFiles;
+        private final Path root;
+        private final Set<String> skippedDirectories;
 
-        public JavaTestFileWalker(Set<Path> testFiles) {
+        public JavaTestFileWalker(Set<Path> testFiles, Path root, Set<String> skippedDirectories) {
             this.testFiles = testFiles;
+            this.root = root;
+            this.skippedDirectories = skippedDirectories;
         }
 
         @Override
         public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+            if (!dir.equals(root) && dir.getFileName() != null && skippedDirectories.contains(dir.getFileName().toString())) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
             return FileVisitResult.CONTINUE;
         }
 
@@ -95,13 +200,9 @@ public class JavaSourceCodeParser {
     }
 
     static class JavaSourceFile {
-        final static String typeRegex = ".*?(?:class|interface|enum)\\s+([a-zA-Z_$][a-zA-Z\\d_$]*).*?";
-        final static Pattern typePattern = Pattern.compile(typeRegex, Pattern.MULTILINE);
-        final static String packageRegex = "package\\s+(\\S*)\\s*;";
-        final static Pattern packagePattern = Pattern.compile(packageRegex, Pattern.MULTILINE);
         final String code;
         final Path path;
-        private String packageName;
+        private JavaTypeScanner scanner;
         private String primaryTypeName = "";
 
         JavaSourceFile(String code) {
@@ -113,25 +214,21 @@ public class JavaSourceCodeParser {
             this.path = path;
         }
 
-        String getPackage() {
-            if (packageName == null) {
-                final Matcher matcher = packagePattern.matcher(code);
-                if (matcher.find() && matcher.groupCount() >= 1) {
-                    packageName = matcher.group(1);
-                } else {
-                    packageName = "";
-                }
+        private JavaTypeScanner getScanner() {
+            if (scanner == null) {
+                scanner = JavaTypeScanner.scan(code);
             }
-            return packageName;
+            return scanner;
+        }
+
+        String getPackage() {
+            return getScanner().getPackageName();
         }
 
         Set<String> getAllFullyQualifiedTypeNames() {
-            final Matcher matcher = typePattern.matcher(code);
             final Set<String> names = CollectionUtils.newSet();
-            while (matcher.find()) {
-                for (int i = 1; i <= matcher.groupCount(); i++) {
-                    names.add(getPackage().isEmpty() ? matcher.group(i) : getPackage() + "." + matcher.group(i)); // FIXME: maybe replace '.' with '/' ?
-                }
+            for (final String typeName : getScanner().getTypeNames()) {
+                names.add(getPackage().isEmpty() ? typeName : getPackage() + "." + typeName); // FIXME: maybe replace '.' with '/' ?
             }
             return names;
         }
@@ -141,9 +238,8 @@ public class JavaSourceCodeParser {
                 if (path != null) {
                     primaryTypeName = path.getFileName().toString().split("\\.java")[0]; // FIXME: better solution?
                 } else {
-                    final Matcher matcher = typePattern.matcher(code);
-                    if (matcher.find() && matcher.groupCount() >= 1) {
-                        primaryTypeName = matcher.group(1);
+                    if (!getScanner().getTypeNames().isEmpty()) {
+                        primaryTypeName = getScanner().getTypeNames().get(0);
                     } else {
                         throw new RuntimeException("Invalid Java source file without valid type found.");
                     }
@@ -0,0 +1,125 @@
+package edu.tum.sse.multirts.parser;
+
+import edu.tum.sse.multirts.vcs.GitObjectCache;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectInserter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Persistent cache of the type names parsed from Java source files, keyed by the git blob id of the file content.
+ * As the parse result only depends on the content, a file that did not change between two selections is never parsed again.
+ * For committed files, the blob id is resolved without reading the content; for working tree files, it is computed from the content.
+ * Without a {@link GitObjectCache} to persist to, files are parsed directly.
+ */
+public final class JavaTypeNameCache {
+
+    /**
+     * Kind of cached data, which has to be versioned along with changes to the parse results.
+     */
+    static final String CACHE_KIND = "java-type-names-v2";
+
+    private final GitObjectCache objectCache;
+
+    /**
+     * @param objectCache persistent cache to store parse results in, {@code null} to disable caching
+     */
+    public JavaTypeNameCache(final GitObjectCache objectCache) {
+        this.objectCache = objectCache;
+    }
+
+    /**
+     * @param content file content
+     * @return id of the git blob with the given content
+     */
+    public static String computeBlobId(final byte[] content) {
+        try (ObjectInserter.Formatter formatter = new ObjectInserter.Formatter()) {
+            return formatter.idFor(Constants.OBJ_BLOB, content).getName();
+        }
+    }
+
+    /**
+     * @param file Java source file in the working tree
+     * @return all fully qualified type names declared in the file
+     */
+    public Set<String> getAllFullyQualifiedTypeNames(final Path file) throws IOException {
+        if (objectCache == null) {
+            return JavaSourceCodeParser.getAllFullyQualifiedTypeNames(file);
+        }
+        return getParsedTypes(Files.readAllBytes(file)).typeNames;
+    }
+
+    /**
+     * This is not cached, as reading only the header of the file up to the package declaration
+     * is cheaper than reading the whole file for computing its blob id.
+     *
+     * @param file Java source file in the working tree
+     * @return fully qualified name of the primary type of the file
+     */
+    public String getFullyQualifiedTypeName(final Path file) throws IOException {
+        return JavaSourceCodeParser.getFullyQualifiedTypeName(file);
+    }
+
+    /**
+     * @param blobId  git blob id of the file content, {@code null} if unknown
+     * @param content supplies the file content, only called if the blob has not been parsed before
+     * @return all fully qualified type names declared in the file content
+     */
+    public Set<String> getAllFullyQualifiedTypeNames(final String blobId, final Supplier<String> content) {
+        if (objectCache == null || blobId == null) {
+            return JavaSourceCodeParser.getAllFullyQualifiedTypeNames(content.get());
+        }
+        return getParsedTypes(blobId, content).typeNames;
+    }
+
+    private ParsedTypes getParsedTypes(final byte[] content) {
+        return getParsedTypes(computeBlobId(content), () -> new String(content, StandardCharsets.UTF_8));
+    }
+
+    private ParsedTypes getParsedTypes(final String blobId, final Supplier<String> content) {
+        byte[] cached = objectCache.getDerived(CACHE_KIND, blobId);
+        if (cached != null) {
+            return ParsedTypes.deserialize(cached);
+        }
+        JavaSourceCodeParser.JavaSourceFile sourceFile = new JavaSourceCodeParser.JavaSourceFile(content.get());
+        ParsedTypes parsedTypes = new ParsedTypes(sourceFile.getPackage(), sourceFile.getAllFullyQualifiedTypeNames());
+        objectCache.putDerived(CACHE_KIND, blobId, parsedTypes.serialize());
+        return parsedTypes;
+    }
+
+    /**
+     * Package and fully qualified type names of a Java source file, serialized as one name per line (package first).
+     */
+    private static final class ParsedTypes {
+        final String packageName;
+        final Set<String> typeNames;
+
+        ParsedTypes(final String packageName, final Set<String> typeNames) {
+            this.packageName = packageName;
+            this.typeNames = typeNames;
+        }
+
+        byte[] serialize() {
+            StringBuilder builder = new StringBuilder(packageName);
+            for (final String typeName : typeNames) {
+                builder.append('\n').append(typeName);
+            }
+            return builder.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        static ParsedTypes deserialize(final byte[] serialized) {
+            String[] lines = new String(serialized, StandardCharsets.UTF_8).split("\n", -1);
+            Set<String> typeNames = new LinkedHashSet<>();
+            for (int i = 1; i < lines.length; i++) {
+                typeNames.add(lines[i]);
+            }
+            return new ParsedTypes(lines[0], typeNames);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package edu.tum.sse.multirts.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass scanner that extracts the package and all declared type names (including nested and local types) from Java source code.
+ * Comments, string literals, text blocks, and char literals are skipped, so keywords inside them are never mistaken for declarations.
+ * Declarations are detected on the token level:
+ * "class", "interface" (also as "@interface"), and "enum" followed by an identifier, unless preceded by a "." (e.g., "Foo.class"),
+ * and "record" followed by an identifier and either "(" or "<" (as "record" is only a contextual keyword).
+ * Only type names and the package name are allocated, everything else is compared in place.
+ */
+final class JavaTypeScanner {
+
+    private static final int NONE = 0;
+    private static final int TYPE_NAME = 1;
+    private static final int RECORD_NAME = 2;
+
+    /**
+     * Marks an identifier or keyword as previous token.
+     */
+    private static final char IDENTIFIER = 'a';
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final String code;
+    private final int length;
+    private int position = 0;
+    private String packageName = null;
+    private final List<String> typeNames = new ArrayList<>();
+
+    private JavaTypeScanner(final String code) {
+        this.code = code;
+        this.length = code.length();
+    }
+
+    static JavaTypeScanner scan(final String code) {
+        JavaTypeScanner scanner = new JavaTypeScanner(code);
+        scanner.scan();
+        return scanner;
+    }
+
+    /**
+     * Scans only the package declaration from the beginning of a source file, which has to precede all other declarations.
+     *
+     * @param header prefix of the source code
+     * @return package name, empty for the default package, or {@code null} if the header is too short to tell
+     * (or starts with an annotation, which may precede the package declaration in "package-info.java" files)
+     */
+    static String scanPackage(final String header) {
+        JavaTypeScanner scanner = new JavaTypeScanner(header);
+        if (!scanner.skipWhitespaceAndComments()) {
+            return null;
+        }
+        final int start = scanner.position;
+        final char c = header.charAt(start);
+        if (c == '@') {
+            return null;
+        }
+        if (!Character.isJavaIdentifierStart(c)) {
+            return "";
+        }
+        do {
+            scanner.position++;
+        } while (scanner.position < scanner.length && Character.isJavaIdentifierPart(header.charAt(scanner.position)));
+        if (scanner.position == scanner.length) {
+            return null;
+        }
+        if (!scanner.isKeyword(start, scanner.position, "package")) {
+            return "";
+        }
+        final String packageName = scanner.scanQualifiedName();
+        return scanner.position < scanner.length && header.charAt(scanner.position) == ';' ? packageName : null;
+    }
+
+    /**
+     * @return package name, empty for the default package
+     */
+    String getPackageName() {
+        return packageName == null ? "" : packageName;
+    }
+
+    /**
+     * @return simple names of all declared types in order of declaration (may contain duplicates for nested types)
+     */
+    List<String> getTypeNames() {
+        return typeNames;
+    }
+
+    private void scan() {
+        char previous = 0;
+        int expected = NONE;
+        String recordName = null;
+        while (skipWhitespaceAndComments()) {
+            final char c = code.charAt(position);
+            if (Character.isJavaIdentifierStart(c)) {
+                final int start = position;
+                do {
+                    position++;
+                } while (position < length && Character.isJavaIdentifierPart(code.charAt(position)));
+                if (expected == TYPE_NAME) {
+                    typeNames.add(code.substring(start, position));
+                    expected = NONE;
+                } else if (expected == RECORD_NAME) {
+                    recordName = code.substring(start, position);
+                    expected = NONE;
+                } else {
+                    recordName = null;
+                    if (previous != '.') {
+                        expected = getExpectedDeclaration(start, position);
+                        if (expected == NONE && packageName == null && typeNames.isEmpty() && isKeyword(start, position, "package")) {
+                            packageName = scanQualifiedName();
+                        }
+                    }
+                }
+                previous = IDENTIFIER;
+                continue;
+            }
+            if (c == '"') {
+                skipStringOrTextBlock();
+            } else if (c == '\'') {
+                skipCharLiteral();
+            } else {
+                if (recordName != null && (c == '(' || c == '<')) {
+                    typeNames.add(recordName);
+                }
+                position++;
+            }
+            recordName = null;
+            expected = NONE;
+            previous = c;
+        }
+    }
+
+    private int getExpectedDeclaration(final int start, final int end) {
+        if (isKeyword(start, end, "class") || isKeyword(start, end, "interface") || isKeyword(start, end, "enum")) {
+            return TYPE_NAME;
+        }
+        if (isKeyword(start, end, "record")) {
+            return RECORD_NAME;
+        }
+        return NONE;
+    }
+
+    private boolean isKeyword(final int start, final int end, final String keyword) {
+        return end - start == keyword.length() && code.startsWith(keyword, start);
+    }
+
+    /**
+     * Scans a qualified name like "a.b.c" (possibly interspersed with whitespace and comments) up to the terminating ";".
+     */
+    private String scanQualifiedName() {
+        StringBuilder name = new StringBuilder();
+        while (skipWhitespaceAndComments()) {
+            final char c = code.charAt(position);
+            if (Character.isJavaIdentifierPart(c)) {
+                name.append(c);
+            } else if (c == '.') {
+                name.append(c);
+            } else {
+                break;
+            }
+            position++;
+        }
+        return name.toString();
+    }
+
+    /**
+     * @return true if there is any code left after skipping whitespace and comments
+     */
+    private boolean skipWhitespaceAndComments() {
+        while (position < length) {
+            final char c = code.charAt(position);
+            if (Character.isWhitespace(c) || c == BYTE_ORDER_MARK) {
+                position++;
+            } else if (c == '/' && position + 1 < length && code.charAt(position + 1) == '/') {
+                while (position < length && code.charAt(position) != '\n' && code.charAt(position) != '\r') {
+                    position++;
+                }
+            } else if (c == '/' && position + 1 < length && code.charAt(position + 1) == '*') {
+                int end = code.indexOf("*/", position + 2);
+                position = end < 0 ? length : end + 2;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void skipStringOrTextBlock() {
+        if (code.startsWith("\"\"\"", position)) {
+            position += 3;
+            while (position < length) {
+                if (code.charAt(position) == '\\') {
+                    position += 2;
+                } else if (code.startsWith("\"\"\"", position)) {
+                    position += 3;
+                    return;
+                } else {
+                    position++;
+                }
+            }
+            return;
+        }
+        skipLiteral('"');
+    }
+
+    private void skipCharLiteral() {
+        skipLiteral('\'');
+    }
+
+    /**
+     * Skips a single-line literal, which ends with an unescaped {@code delimiter} (or the end of the line for malformed literals).
+     */
+    private void skipLiteral(final char delimiter) {
+        position++;
+        while (position < length) {
+            final char c = code.charAt(position);
+            if (c == '\\') {
+                position += 2;
+            } else if (c == delimiter) {
+                position++;
+                return;
+            } else if (c == '\n' || c == '\r') {
+                return;
+            } else {
+                position++;
+            }
+        }
+    }
+}
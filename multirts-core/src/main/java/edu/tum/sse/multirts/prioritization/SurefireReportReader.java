@@ -0,0 +1,119 @@
+package edu.tum.sse.multirts.prioritization;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads test suite results from Surefire (or Failsafe) XML reports ("TEST-*.xml").
+ * Only the attributes of the root "testsuite" element are read, the (potentially large) test case elements and outputs are never parsed.
+ */
+public final class SurefireReportReader {
+
+    private static final String REPORT_PREFIX = "TEST-";
+    private static final String REPORT_SUFFIX = ".xml";
+
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
+    private SurefireReportReader() {
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * @param reportDirectory directory containing Surefire XML reports, which may not exist
+     * @return results of all test suites in the directory
+     */
+    public static List<TestSuiteResult> readDirectory(final Path reportDirectory) throws IOException {
+        List<TestSuiteResult> results = new ArrayList<>();
+        if (!Files.isDirectory(reportDirectory)) {
+            return results;
+        }
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(reportDirectory, REPORT_PREFIX + "*" + REPORT_SUFFIX)) {
+            for (Path report : reports) {
+                TestSuiteResult result = readReport(report);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param report Surefire XML report
+     * @return result of the test suite, {@code null} if the report is malformed or no test has been executed
+     */
+    public static TestSuiteResult readReport(final Path report) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(report)) {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamReader.START_ELEMENT) {
+                        return "testsuite".equals(reader.getLocalName()) ? toResult(reader) : null;
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            System.err.println("Ignoring malformed Surefire report " + report + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static TestSuiteResult toResult(final XMLStreamReader reader) {
+        String name = reader.getAttributeValue(null, "name");
+        int tests = parseInt(reader.getAttributeValue(null, "tests"));
+        int skipped = parseInt(reader.getAttributeValue(null, "skipped"));
+        if (name == null || tests <= skipped) {
+            return null;
+        }
+        boolean failed = parseInt(reader.getAttributeValue(null, "failures")) > 0 || parseInt(reader.getAttributeValue(null, "errors")) > 0;
+        String time = reader.getAttributeValue(null, "time");
+        // Surefire writes the time in seconds, possibly with a grouping separator (e.g., "1,234.5").
+        long durationMillis = time == null ? 0 : Math.round(Double.parseDouble(time.replace(",", "")) * 1000);
+        return new TestSuiteResult(name, failed, durationMillis);
+    }
+
+    private static int parseInt(final String value) {
+        return value == null ? 0 : Integer.parseInt(value.trim());
+    }
+
+    public static final class TestSuiteResult {
+        private final String testId;
+        private final boolean failed;
+        private final long durationMillis;
+
+        public TestSuiteResult(final String testId, final boolean failed, final long durationMillis) {
+            this.testId = testId;
+            this.failed = failed;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
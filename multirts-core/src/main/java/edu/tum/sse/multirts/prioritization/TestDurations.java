@@ -0,0 +1,64 @@
+package edu.tum.sse.multirts.prioritization;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Estimates durations of test suites from the test history, or from the test report's timestamps for test suites without history.
+ * Test suites without any known duration are assumed to take as long as the median test suite with known duration.
+ */
+public final class TestDurations {
+
+    /**
+     * Duration assumed for test suites without any known duration, if no other test suite has a known duration either.
+     */
+    static final long DEFAULT_DURATION_MILLIS = 1000;
+
+    private final TestHistory history;
+
+    public TestDurations(final TestHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * @return estimated duration (at least 1ms) for each test suite, in the same order
+     */
+    public long[] estimate(final List<SelectedTestSuite> selectedTestSuites) {
+        final int size = selectedTestSuites.size();
+        final long[] durations = new long[size];
+        final List<Long> knownDurations = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            OptionalLong duration = getKnownDurationMillis(selectedTestSuites.get(i).getTestSuite());
+            durations[i] = duration.orElse(-1);
+            if (duration.isPresent()) {
+                knownDurations.add(duration.getAsLong());
+            }
+        }
+        final long defaultDuration = getMedian(knownDurations);
+        for (int i = 0; i < size; i++) {
+            durations[i] = Math.max(1, durations[i] < 0 ? defaultDuration : durations[i]);
+        }
+        return durations;
+    }
+
+    private OptionalLong getKnownDurationMillis(final TestSuite testSuite) {
+        OptionalLong duration = history.getDurationMillis(testSuite.getTestId());
+        if (duration.isPresent()) {
+            return duration;
+        }
+        long reportedDuration = testSuite.getEndTimestamp() - testSuite.getStartTimestamp();
+        return reportedDuration > 0 && testSuite.getStartTimestamp() > 0 ? OptionalLong.of(reportedDuration) : OptionalLong.empty();
+    }
+
+    private static long getMedian(final List<Long> durations) {
+        if (durations.isEmpty()) {
+            return DEFAULT_DURATION_MILLIS;
+        }
+        durations.sort(null);
+        return durations.get(durations.size() / 2);
+    }
+}
@@ -0,0 +1,147 @@
+package edu.tum.sse.multirts.prioritization;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Execution history of test suites (number of runs, number of failing runs, and duration), which is persisted in a history file
+ * and updated after each test run (e.g., from Surefire XML reports, see {@link SurefireReportReader}).
+ * To let old failures fade out, run and failure counts are halved whenever a test suite exceeds {@link #MAX_RUNS} runs,
+ * and durations are smoothed exponentially, so recent runs dominate.
+ */
+public final class TestHistory {
+
+    /**
+     * Header of the history file, which has to be versioned along with changes to the history format.
+     */
+    static final String HISTORY_VERSION = "multirts-test-history-v1";
+
+    static final int MAX_RUNS = 50;
+
+    /**
+     * Weight of the latest duration in the smoothed duration.
+     */
+    private static final double DURATION_WEIGHT = 0.5;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * @param historyFile history file, which may not exist yet
+     * @return persisted history, empty if there is no (valid) history file
+     */
+    public static TestHistory load(final Path historyFile) {
+        TestHistory history = new TestHistory();
+        if (historyFile == null || !Files.isRegularFile(historyFile)) {
+            return history;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(historyFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(HISTORY_VERSION)) {
+                return history;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t");
+                if (columns.length == 4) {
+                    history.entries.put(columns[0], new Entry(Integer.parseInt(columns[1]), Integer.parseInt(columns[2]), Long.parseLong(columns[3])));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The history only affects the order of tests, so we simply start a new one.
+            System.err.println("Failed to load test history from " + historyFile + ": " + e.getMessage());
+            history.entries.clear();
+        }
+        return history;
+    }
+
+    /**
+     * Persists the history atomically, so concurrent readers never see a partially written file.
+     */
+    public void save(final Path historyFile) throws IOException {
+        Files.createDirectories(historyFile.toAbsolutePath().getParent());
+        Path tmpFile = Files.createTempFile(historyFile.toAbsolutePath().getParent(), historyFile.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                writer.write(HISTORY_VERSION);
+                writer.newLine();
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(entry.getKey() + "\t" + entry.getValue().runs + "\t" + entry.getValue().failures + "\t" + entry.getValue().durationMillis);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(tmpFile, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, historyFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * Records a single run of a test suite.
+     *
+     * @param testId         fully qualified test suite name
+     * @param failed         true if any test of the test suite failed (or errored)
+     * @param durationMillis duration of the test suite
+     */
+    public void record(final String testId, final boolean failed, final long durationMillis) {
+        Entry entry = entries.get(testId);
+        if (entry == null) {
+            entries.put(testId, new Entry(1, failed ? 1 : 0, durationMillis));
+            return;
+        }
+        int runs = entry.runs + 1;
+        int failures = entry.failures + (failed ? 1 : 0);
+        if (runs > MAX_RUNS) {
+            runs = (runs + 1) / 2;
+            failures = failures / 2;
+        }
+        long smoothedDuration = Math.round(DURATION_WEIGHT * durationMillis + (1 - DURATION_WEIGHT) * entry.durationMillis);
+        entries.put(testId, new Entry(runs, failures, smoothedDuration));
+    }
+
+    public int getRuns(final String testId) {
+        Entry entry = entries.get(testId);
+        return entry == null ? 0 : entry.runs;
+    }
+
+    public int getFailures(final String testId) {
+        Entry entry = entries.get(testId);
+        return entry == null ? 0 : entry.failures;
+    }
+
+    /**
+     * @return smoothed duration, empty if the test suite has never been recorded
+     */
+    public OptionalLong getDurationMillis(final String testId) {
+        Entry entry = entries.get(testId);
+        return entry == null ? OptionalLong.empty() : OptionalLong.of(entry.durationMillis);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        final int runs;
+        final int failures;
+        final long durationMillis;
+
+        Entry(final int runs, final int failures, final long durationMillis) {
+            this.runs = runs;
+            this.failures = failures;
+            this.durationMillis = durationMillis;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package edu.tum.sse.multirts.prioritization;
+
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.SelectionCause;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders selected test suites to minimize the expected time to the first failure.
+ * Each test suite's failure probability is estimated from its recorded failure rate, smoothed towards a prior
+ * that reflects how directly it is affected by the changes (changed tests before affected tests before tests of changed build files).
+ * Assuming independent failures, sorting by failure probability per duration minimizes the expected time to the first failure,
+ * so short tests which are likely to fail run first.
+ * Durations are estimated from the history or the test report (see {@link TestDurations}).
+ * The order is stable, i.e., test suites with equal priority keep their selection order.
+ */
+public final class TestPrioritizer {
+
+    private final TestHistory history;
+    private final TestDurations durations;
+
+    public TestPrioritizer(final TestHistory history) {
+        this.history = history;
+        this.durations = new TestDurations(history);
+    }
+
+    /**
+     * @return prior failure probability of a test suite selected for the given cause
+     */
+    static double getPriorFailureProbability(final SelectionCause selectionCause) {
+        if (selectionCause == null) {
+            return 0.1;
+        }
+        switch (selectionCause) {
+            case ADDED_CHANGED:
+                return 0.5;
+            case AFFECTED:
+                return 0.3;
+            case BUILD_CHANGE:
+                return 0.2;
+            default:
+                return 0.1;
+        }
+    }
+
+    /**
+     * Estimates the failure probability as (failures + prior) / (runs + 1), i.e., the prior counts as one additional run.
+     */
+    double getFailureProbability(final SelectedTestSuite selectedTestSuite) {
+        final String testId = selectedTestSuite.getTestSuite().getTestId();
+        return (history.getFailures(testId) + getPriorFailureProbability(selectedTestSuite.getSelectionCause())) / (history.getRuns(testId) + 1);
+    }
+
+    /**
+     * @param selectedTestSuites selected test suites in selection order
+     * @return selected test suites in order of descending priority
+     */
+    public List<SelectedTestSuite> prioritize(final List<SelectedTestSuite> selectedTestSuites) {
+        final int size = selectedTestSuites.size();
+        final long[] estimatedDurations = durations.estimate(selectedTestSuites);
+        final double[] priorities = new double[size];
+        final Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            priorities[i] = getFailureProbability(selectedTestSuites.get(i)) / estimatedDurations[i];
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> priorities[i]).reversed());
+        List<SelectedTestSuite> prioritized = new ArrayList<>(size);
+        for (final Integer i : order) {
+            prioritized.add(selectedTestSuites.get(i));
+        }
+        return prioritized;
+    }
+}
@@ -0,0 +1,83 @@
+package edu.tum.sse.multirts.prioritization;
+
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Partitions selected test suites into a fixed number of shards with balanced total durations (e.g., for running them on multiple CI nodes).
+ * Shards are filled greedily with the longest processing time (LPT) first rule: test suites are assigned in order of descending duration,
+ * each to the shard with the least total duration so far, which is at most 4/3 of the optimal makespan.
+ * Within each shard, test suites keep their input order (e.g., their priority).
+ */
+public final class TestSharder {
+
+    private final TestDurations durations;
+
+    public TestSharder(final TestHistory history) {
+        this.durations = new TestDurations(history);
+    }
+
+    /**
+     * @param selectedTestSuites selected test suites
+     * @param shards             number of shards (at least 1)
+     * @return exactly {@code shards} shards, some of which may be empty if there are fewer test suites than shards
+     */
+    public List<List<SelectedTestSuite>> partition(final List<SelectedTestSuite> selectedTestSuites, final int shards) {
+        final int shardCount = Math.max(1, shards);
+        final int size = selectedTestSuites.size();
+        final long[] estimatedDurations = durations.estimate(selectedTestSuites);
+        final Integer[] byDuration = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            byDuration[i] = i;
+        }
+        // Ties are broken by input order, so the partition is deterministic.
+        Arrays.sort(byDuration, Comparator.comparingLong((Integer i) -> estimatedDurations[i]).reversed());
+        // Shards are ordered by total duration, ties by shard index.
+        final long[] shardDurations = new long[shardCount];
+        final PriorityQueue<Integer> shardQueue = new PriorityQueue<>(shardCount,
+                Comparator.comparingLong((Integer shard) -> shardDurations[shard]).thenComparingInt(shard -> shard));
+        for (int shard = 0; shard < shardCount; shard++) {
+            shardQueue.add(shard);
+        }
+        final int[] assignedShards = new int[size];
+        for (final Integer i : byDuration) {
+            int shard = shardQueue.poll();
+            assignedShards[i] = shard;
+            shardDurations[shard] += estimatedDurations[i];
+            shardQueue.add(shard);
+        }
+        List<List<SelectedTestSuite>> partition = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            partition.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            partition.get(assignedShards[i]).add(selectedTestSuites.get(i));
+        }
+        return partition;
+    }
+
+    /**
+     * @param partition shards of selected test suites (see {@link #partition(List, int)})
+     * @return index of the non-empty shard with the least total duration (ties by shard index), or 0 if all shards are empty
+     */
+    public int getShortestShard(final List<List<SelectedTestSuite>> partition) {
+        int shortestShard = 0;
+        long shortestDuration = Long.MAX_VALUE;
+        for (int shard = 0; shard < partition.size(); shard++) {
+            if (partition.get(shard).isEmpty()) {
+                continue;
+            }
+            long shardDuration = Arrays.stream(durations.estimate(partition.get(shard))).sum();
+            if (shardDuration < shortestDuration) {
+                shortestShard = shard;
+                shortestDuration = shardDuration;
+            }
+        }
+        return shortestShard;
+    }
+}
@@ -1,6 +1,8 @@
 package edu.tum.sse.multirts.rts;
 
 import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.multirts.index.SelectionIndex;
+import edu.tum.sse.multirts.index.TestSelectionIndex;
 import edu.tum.sse.multirts.vcs.GitClient;
 
 /**
@@ -8,7 +10,10 @@ import edu.tum.sse.multirts.vcs.GitClient;
  */
 public abstract class AbstractChangeBasedTestSelection implements TestSelectionStrategy {
 
-    TestReport testReport;
+    /**
+     * Index over the test suites (and their traces) of the test report.
+     */
+    SelectionIndex selectionIndex;
     GitClient gitClient;
 
     /**
@@ -16,9 +21,13 @@ public abstract class AbstractChangeBasedTestSelection implements TestSelectionS
      */
     String targetRevision;
 
-    public AbstractChangeBasedTestSelection(final TestReport testReport, final GitClient gitClient, final String targetRevision) {
-        this.testReport = testReport;
+    public AbstractChangeBasedTestSelection(final SelectionIndex selectionIndex, final GitClient gitClient, final String targetRevision) {
+        this.selectionIndex = selectionIndex;
         this.gitClient = gitClient;
         this.targetRevision = targetRevision;
     }
+
+    public AbstractChangeBasedTestSelection(final TestReport testReport, final GitClient gitClient, final String targetRevision) {
+        this(TestSelectionIndex.fromReport(testReport), gitClient, targetRevision);
+    }
 }
@@ -2,6 +2,9 @@ package edu.tum.sse.multirts.rts;
 
 import edu.tum.sse.jtec.reporting.TestSuite;
 import edu.tum.sse.multirts.modules.MavenDependencyAnalyzer;
+import edu.tum.sse.multirts.modules.ModuleLocationIndex;
+import edu.tum.sse.multirts.parser.JavaSourceCodeParser;
+import edu.tum.sse.multirts.parser.JavaTypeNameCache;
 import edu.tum.sse.multirts.util.PathUtils;
 import edu.tum.sse.multirts.vcs.ChangeSetItem;
 import edu.tum.sse.multirts.vcs.ChangeType;
@@ -10,10 +13,10 @@ import org.apache.maven.project.MavenProject;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 import static edu.tum.sse.multirts.modules.MavenProjectLocationCache.POM_XML;
-import static edu.tum.sse.multirts.modules.MavenProjectLocationCache.findParentPOM;
 import static edu.tum.sse.multirts.util.CollectionUtils.newList;
 
 /**
@@ -27,26 +30,58 @@ public class BuildSystemAwareTestSelectionMediator {
     private final Path repositoryRoot;
     private final TestSelectionStrategy testSelectionStrategy;
     private final Path mavenRoot;
+    private final JavaTypeNameCache typeNameCache;
+    private final Set<String> skippedDirectories;
+    private final Path testSuiteMapStateFile;
+    private final ModuleLocationIndex moduleLocationIndex;
+    private Set<ChangeSetItem> changeSetItems = Collections.emptySet();
     private TestSuiteFileMap lazyTestSuiteMapping = null;
 
     public BuildSystemAwareTestSelectionMediator(final Path mavenRoot,
                                                  final Path repositoryRoot,
                                                  final TestSelectionStrategy testSelectionStrategy,
                                                  final MavenSession mavenSession) {
+        this(mavenRoot, repositoryRoot, testSelectionStrategy, mavenSession, new JavaTypeNameCache(null));
+    }
+
+    public BuildSystemAwareTestSelectionMediator(final Path mavenRoot,
+                                                 final Path repositoryRoot,
+                                                 final TestSelectionStrategy testSelectionStrategy,
+                                                 final MavenSession mavenSession,
+                                                 final JavaTypeNameCache typeNameCache) {
+        this(mavenRoot, repositoryRoot, testSelectionStrategy, mavenSession, typeNameCache, JavaSourceCodeParser.DEFAULT_SKIPPED_DIRECTORIES, null);
+    }
+
+    /**
+     * @param skippedDirectories    names of directories which are not searched for test files
+     * @param testSuiteMapStateFile state file to refresh the test suite mapping incrementally across runs, {@code null} to always build it from scratch
+     */
+    public BuildSystemAwareTestSelectionMediator(final Path mavenRoot,
+                                                 final Path repositoryRoot,
+                                                 final TestSelectionStrategy testSelectionStrategy,
+                                                 final MavenSession mavenSession,
+                                                 final JavaTypeNameCache typeNameCache,
+                                                 final Set<String> skippedDirectories,
+                                                 final Path testSuiteMapStateFile) {
         this.mavenRoot = mavenRoot;
         this.repositoryRoot = repositoryRoot;
         this.testSelectionStrategy = testSelectionStrategy;
         this.mavenSession = mavenSession;
+        this.typeNameCache = typeNameCache;
+        this.skippedDirectories = skippedDirectories;
+        this.testSuiteMapStateFile = testSuiteMapStateFile;
+        this.moduleLocationIndex = ModuleLocationIndex.of(mavenSession);
     }
 
     public TestSelectionResult executeTestSelection(Set<ChangeSetItem> changeSetItems) throws IOException {
+        this.changeSetItems = changeSetItems;
         Set<Path> modifiedMavenProjectDirs = new HashSet<>();
         for (ChangeSetItem item : changeSetItems) {
             if (item.getChangeType() != ChangeType.DELETED) {
                 if (PathUtils.hasFilename(item.getPath(), POM_XML)) {
                     modifiedMavenProjectDirs.add(repositoryRoot.resolve(item.getPath().getParent()).toAbsolutePath());
                 } else if (PathUtils.hasAnyExtension(item.getPath(), COMPILE_TIME_EXTENSIONS)) {
-                    Optional<Path> parentPOM = findParentPOM(item.getPath().getParent());
+                    Optional<Path> parentPOM = moduleLocationIndex.findParentPOM(repositoryRoot.resolve(item.getPath()).getParent());
                     parentPOM.ifPresent(path -> modifiedMavenProjectDirs.add(repositoryRoot.resolve(path.getParent()).toAbsolutePath()));
                 }
             }
@@ -75,7 +110,7 @@ public class BuildSystemAwareTestSelectionMediator {
         for (SelectedTestSuite testSuite : selectedTestSuites) {
             Optional<Path> testFile = getTestSuiteMapping().getFile(testSuite.getTestSuite().getTestId());
             if (testFile.isPresent()) {
-                Optional<Path> testSuiteParentPOM = findParentPOM(testFile.get().getParent());
+                Optional<Path> testSuiteParentPOM = moduleLocationIndex.findParentPOM(testFile.get().getParent());
                 testSuiteParentPOM.ifPresent(path -> mavenModules.add(mavenRoot.relativize(path).toString()));
             }
         }
@@ -91,6 +126,36 @@ public class BuildSystemAwareTestSelectionMediator {
 
     private TestSuiteFileMap getTestSuiteMapping(Path path) {
         // FIXME: We could further optimize by not using the full identifier here.
-        return new TestSuiteFileMap(path, true);
+        return new TestSuiteFileMap(path, getTestSourceRoots(), skippedDirectories, true, typeNameCache, testSuiteMapStateFile, getChangedFiles());
+    }
+
+    /**
+     * Files in the change set may have been modified without changing their directory's modification time,
+     * so these have to be parsed again when refreshing the test suite mapping.
+     */
+    private Set<Path> getChangedFiles() {
+        Set<Path> changedFiles = new HashSet<>();
+        for (ChangeSetItem item : changeSetItems) {
+            changedFiles.add(repositoryRoot.resolve(item.getPath()).toAbsolutePath().normalize());
+        }
+        return changedFiles;
+    }
+
+    /**
+     * Test files are only searched in the test source roots of all projects in the session,
+     * instead of walking the whole root directory (including build outputs etc.).
+     *
+     * @return test compile source roots of all projects, empty if there is no session
+     */
+    private List<Path> getTestSourceRoots() {
+        List<Path> testSourceRoots = new ArrayList<>();
+        if (mavenSession != null && mavenSession.getAllProjects() != null) {
+            for (MavenProject project : mavenSession.getAllProjects()) {
+                for (String testSourceRoot : project.getTestCompileSourceRoots()) {
+                    testSourceRoots.add(Paths.get(testSourceRoot));
+                }
+            }
+        }
+        return testSourceRoots;
     }
 }
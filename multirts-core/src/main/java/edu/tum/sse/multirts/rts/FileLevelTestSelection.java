@@ -2,7 +2,9 @@ package edu.tum.sse.multirts.rts;
 
 import edu.tum.sse.jtec.reporting.TestReport;
 import edu.tum.sse.jtec.reporting.TestSuite;
-import edu.tum.sse.multirts.parser.JavaSourceCodeParser;
+import edu.tum.sse.multirts.index.AffectedSet;
+import edu.tum.sse.multirts.index.SelectionIndex;
+import edu.tum.sse.multirts.parser.JavaTypeNameCache;
 import edu.tum.sse.multirts.vcs.ChangeSetItem;
 import edu.tum.sse.multirts.vcs.ChangeType;
 import edu.tum.sse.multirts.vcs.GitClient;
@@ -10,7 +12,12 @@ import edu.tum.sse.multirts.vcs.GitClient;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 
 import static edu.tum.sse.multirts.parser.CppSourceCodeParser.isCppFile;
 import static edu.tum.sse.multirts.parser.JavaSourceCodeParser.isJavaFile;
@@ -21,6 +28,11 @@ import static edu.tum.sse.multirts.parser.JavaSourceCodeParser.isTestFile;
  */
 public class FileLevelTestSelection extends AbstractChangeBasedTestSelection {
 
+    /**
+     * Maximum number of test suites checked by a single task in parallel mode.
+     */
+    private static final int SELECTION_CHUNK_SIZE = 1024;
+
     /**
      * Static file mapping for properly accounting changes to source files to binary files.
      * For instance, a source-to-DLL mapping of the form:
@@ -31,17 +43,48 @@ public class FileLevelTestSelection extends AbstractChangeBasedTestSelection {
      */
     private final Map<String, Set<String>> additionalFileMapping;
 
+    /**
+     * Number of threads used for checking test suites against the affected files and entities (1 checks them sequentially).
+     */
+    private final int selectionThreads;
+
+    /**
+     * Number of threads used for analyzing change set items (1 analyzes them sequentially).
+     */
+    private final int analysisThreads;
+
+    /**
+     * Parse results of Java source files, persisted along with the git client's object cache (if enabled).
+     */
+    private final JavaTypeNameCache typeNameCache;
+
     public FileLevelTestSelection(final TestReport testReport, final GitClient gitClient, final String targetRevision, final Map<String, Set<String>> additionalFileMapping) {
         super(testReport, gitClient, targetRevision);
         this.additionalFileMapping = additionalFileMapping;
+        this.selectionThreads = 1;
+        this.analysisThreads = 1;
+        this.typeNameCache = new JavaTypeNameCache(gitClient.getObjectCache());
+    }
+
+    public FileLevelTestSelection(final SelectionIndex selectionIndex, final GitClient gitClient, final String targetRevision, final Map<String, Set<String>> additionalFileMapping) {
+        this(selectionIndex, gitClient, targetRevision, additionalFileMapping, 1, 1);
+    }
+
+    public FileLevelTestSelection(final SelectionIndex selectionIndex, final GitClient gitClient, final String targetRevision,
+                                  final Map<String, Set<String>> additionalFileMapping, final int selectionThreads, final int analysisThreads) {
+        super(selectionIndex, gitClient, targetRevision);
+        this.additionalFileMapping = additionalFileMapping;
+        this.selectionThreads = Math.max(1, selectionThreads);
+        this.analysisThreads = Math.max(1, analysisThreads);
+        this.typeNameCache = new JavaTypeNameCache(gitClient.getObjectCache());
     }
 
     @Override
     public TestSelectionResult execute(final Set<ChangeSetItem> changeSet, final Set<SelectedTestSuite> preSelectedTestSuites) {
         try {
             AffectedInfo affectedInfo = new AffectedInfo();
-            for (final ChangeSetItem item : changeSet) {
-                AffectedInfo currentAffectedPair = analyzeChangeSetItem(item);
+            // Each change set item is analyzed into its own AffectedInfo, which are merged here (i.e., on a single thread).
+            for (final AffectedInfo currentAffectedPair : analyzeChangeSet(changeSet)) {
                 affectedInfo.affectedFiles.addAll(currentAffectedPair.affectedFiles);
                 affectedInfo.affectedCoverageEntities.addAll(currentAffectedPair.affectedCoverageEntities);
                 affectedInfo.changedTestSuiteNames.addAll(currentAffectedPair.changedTestSuiteNames);
@@ -53,38 +96,7 @@ public class FileLevelTestSelection extends AbstractChangeBasedTestSelection {
         }
     }
 
-    private Optional<SelectedTestSuite> checkTestSuiteAffected(final TestSuite testSuite, final AffectedInfo affectedInfo) {
-        Optional<SelectedTestSuite> affectedTestSuite = Optional.empty();
-        // Check if test suite affected by any affected file.
-        // We check if an opened file contains the affected filename.
-        for (final String affectedFile : affectedInfo.affectedFiles) {
-            // Check for full string match.
-            if (testSuite.getOpenedFiles().contains(affectedFile)) {
-                return Optional.of(new SelectedTestSuite(SelectionCause.AFFECTED.setReason(affectedFile), testSuite));
-            }
-            // Check for substring match.
-            for (final String openedFile : testSuite.getOpenedFiles()) {
-                if (openedFile.contains(affectedFile)) {
-                    return Optional.of(new SelectedTestSuite(SelectionCause.AFFECTED.setReason(affectedFile), testSuite));
-                }
-            }
-        }
-        // Check if test suite affected by any affected coverage entity.
-        // We need to iterate all covered entities here, to check for anonymous classes as well.
-        // For instance, the class "a.b.c.Foo$1" can only be part of the test suite's entities,
-        // but not in our affected entities as we currently cannot reliably detect them at compile-time.
-        for (final String affectedEntity : affectedInfo.affectedCoverageEntities) {
-            for (final String coveredEntity : testSuite.getCoveredEntities()) {
-                if (coveredEntity.contains(affectedEntity)) {
-                    return Optional.of(new SelectedTestSuite(SelectionCause.AFFECTED.setReason(affectedEntity), testSuite));
-                }
-            }
-        }
-        return affectedTestSuite;
-    }
-
     private TestSelectionResult computeTestSelection(final AffectedInfo affectedInfo, final Set<SelectedTestSuite> preSelectedTestSuites) {
-        List<TestSuite> allTestSuites = testReport.getTestSuites();
         List<SelectedTestSuite> selectedTestSuites = new ArrayList<>();
         Set<String> selectedTestSuiteNames = new HashSet<>();
         // Add all pre-selected tests to prevent any effort for checking if they are affected.
@@ -102,38 +114,105 @@ public class FileLevelTestSelection extends AbstractChangeBasedTestSelection {
             selectedTestSuites.add(new SelectedTestSuite(SelectionCause.ADDED_CHANGED, testSuite));
             selectedTestSuiteNames.add(testSuiteName);
         }
-        // Add all other affected tests.
-        for (final TestSuite testSuite : allTestSuites) {
+        // Add all other affected tests in report order.
+        // A test suite is affected if it opened a file with the same file name as an affected file,
+        // or if it covers an affected coverage entity.
+        // The index folds anonymous and nested classes (e.g., "a.b.c.Foo$1") onto their outermost type,
+        // as we currently cannot reliably detect them at compile-time and therefore only have outermost types in our affected entities.
+        AffectedSet affectedSet = selectionIndex.resolve(affectedInfo.affectedFiles, affectedInfo.affectedCoverageEntities);
+        String[] reasons = findSelectionReasons(affectedSet);
+        for (int suiteId = 0; suiteId < selectionIndex.size(); suiteId++) {
+            String reason = reasons[suiteId];
+            if (reason == null) {
+                continue;
+            }
+            TestSuite testSuite = selectionIndex.getTestSuite(suiteId);
             if (selectedTestSuiteNames.contains(testSuite.getTestId())) {
                 continue;
             }
-            Optional<SelectedTestSuite> maybeSelectedTestSuite = checkTestSuiteAffected(testSuite, affectedInfo);
-            maybeSelectedTestSuite.ifPresent(ts -> {
-                selectedTestSuites.add(ts);
-                selectedTestSuiteNames.add(ts.getTestSuite().getTestId());
-            });
+            selectedTestSuites.add(new SelectedTestSuite(SelectionCause.AFFECTED, reason, testSuite));
+            selectedTestSuiteNames.add(testSuite.getTestId());
+        }
+        List<TestSuite> excludedTestSuites = new ArrayList<>();
+        for (int suiteId = 0; suiteId < selectionIndex.size(); suiteId++) {
+            TestSuite testSuite = selectionIndex.getTestSuite(suiteId);
+            if (!selectedTestSuiteNames.contains(testSuite.getTestId())) {
+                excludedTestSuites.add(testSuite);
+            }
         }
-        List<TestSuite> excludedTestSuites = allTestSuites.stream().filter(ts -> !selectedTestSuiteNames.contains(ts.getTestId())).collect(Collectors.toList());
         return new TestSelectionResult(selectedTestSuites, excludedTestSuites);
     }
 
+    /**
+     * Checks all test suites against the affected set, concurrently in chunks of test suites if multiple threads are configured.
+     * As each selection reason is stored at the position of its test suite, merging the results preserves report order.
+     *
+     * @return selection reason for each test suite (indexed by suite id), {@code null} for unaffected test suites
+     */
+    private String[] findSelectionReasons(final AffectedSet affectedSet) {
+        final String[] reasons = new String[selectionIndex.size()];
+        if (selectionThreads == 1 || reasons.length <= SELECTION_CHUNK_SIZE) {
+            new SelectionChunk(affectedSet, reasons, 0, reasons.length).compute();
+            return reasons;
+        }
+        ForkJoinPool pool = new ForkJoinPool(selectionThreads);
+        try {
+            pool.invoke(new SelectionChunk(affectedSet, reasons, 0, reasons.length));
+        } finally {
+            pool.shutdown();
+        }
+        return reasons;
+    }
+
+    /**
+     * Analyzes all change set items, concurrently on a bounded thread pool if multiple threads are configured.
+     * The number of concurrently running git processes is capped separately by the {@link GitClient}.
+     */
+    private List<AffectedInfo> analyzeChangeSet(final Set<ChangeSetItem> changeSet) throws IOException, InterruptedException {
+        List<AffectedInfo> affectedInfos = new ArrayList<>(changeSet.size());
+        if (analysisThreads == 1 || changeSet.size() <= 1) {
+            for (final ChangeSetItem item : changeSet) {
+                affectedInfos.add(analyzeChangeSetItem(item));
+            }
+            return affectedInfos;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(analysisThreads, changeSet.size()));
+        try {
+            List<Future<AffectedInfo>> futures = new ArrayList<>(changeSet.size());
+            for (final ChangeSetItem item : changeSet) {
+                futures.add(executor.submit(() -> analyzeChangeSetItem(item)));
+            }
+            for (final Future<AffectedInfo> future : futures) {
+                affectedInfos.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to analyze change set item: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return affectedInfos;
+    }
+
     private AffectedInfo analyzeChangeSetItem(final ChangeSetItem item) throws IOException {
         AffectedInfo affectedInfo = new AffectedInfo();
         if (isJavaFile(item.getPath())) {
             // In case the file existed before, we add all previously existing class names.
             if (item.getChangeType() != ChangeType.ADDED) {
-                String oldContent = gitClient.getFileContentAtRevision(item.getPath(), targetRevision);
-                Set<String> allTypeNames = JavaSourceCodeParser.getAllFullyQualifiedTypeNames(oldContent);
+                // The old content only needs to be read if the blob has not been parsed before.
+                Set<String> allTypeNames = typeNameCache.getAllFullyQualifiedTypeNames(
+                        gitClient.getObjectCache() != null ? gitClient.getBlobId(item.getPath(), targetRevision) : null,
+                        () -> gitClient.getFileContentAtRevision(item.getPath(), targetRevision)
+                );
                 affectedInfo.affectedCoverageEntities.addAll(allTypeNames);
             }
             // In case the file does still exist, we need to add all currently existing class names.
             if (item.getChangeType() != ChangeType.DELETED) {
                 Path filePath = gitClient.getRoot().resolve(item.getPath());
-                Set<String> allTypeNames = JavaSourceCodeParser.getAllFullyQualifiedTypeNames(filePath);
+                Set<String> allTypeNames = typeNameCache.getAllFullyQualifiedTypeNames(filePath);
                 affectedInfo.affectedCoverageEntities.addAll(allTypeNames);
                 // In case of changed/added test suites, we add them here explicitly.
                 if (isTestFile(filePath)) {
-                    affectedInfo.changedTestSuiteNames.add(JavaSourceCodeParser.getFullyQualifiedTypeName(filePath));
+                    affectedInfo.changedTestSuiteNames.add(typeNameCache.getFullyQualifiedTypeName(filePath));
                 }
             }
         } else if (isCppFile(item.getPath())) {
@@ -141,11 +220,40 @@ public class FileLevelTestSelection extends AbstractChangeBasedTestSelection {
                 affectedInfo.affectedFiles.addAll(additionalFileMapping.get(item.getPath().toString()));
             }
         } else {
-            affectedInfo.affectedFiles.add(item.getPath().getFileName().toString());
+            affectedInfo.affectedFiles.add(item.getPath().toString());
         }
         return affectedInfo;
     }
 
+    /**
+     * Checks a range of test suites against the affected set, splitting it up until it fits into a single chunk.
+     */
+    private static class SelectionChunk extends RecursiveAction {
+        private final AffectedSet affectedSet;
+        private final String[] reasons;
+        private final int from;
+        private final int to;
+
+        SelectionChunk(final AffectedSet affectedSet, final String[] reasons, final int from, final int to) {
+            this.affectedSet = affectedSet;
+            this.reasons = reasons;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SELECTION_CHUNK_SIZE && inForkJoinPool()) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SelectionChunk(affectedSet, reasons, from, middle), new SelectionChunk(affectedSet, reasons, middle, to));
+                return;
+            }
+            for (int suiteId = from; suiteId < to; suiteId++) {
+                reasons[suiteId] = affectedSet.getSelectionReason(suiteId);
+            }
+        }
+    }
+
     static class AffectedInfo {
         Set<String> affectedFiles = new HashSet<>();
         Set<String> affectedCoverageEntities = new HashSet<>();
@@ -0,0 +1,238 @@
+package edu.tum.sse.multirts.rts;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.vcs.GitClient;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Continues the test selection of a previous run for the same line of commits (e.g., successive pushes to a pull request).
+ * The state of the last run (analyzed source commit, merge base with the target revision, and selected tests) is persisted in a state file.
+ * If the previously analyzed commit is an ancestor of the current source commit, the merge base did not change,
+ * and the selection configuration (e.g., the test report) is the same, only the changes since the previously analyzed commit
+ * need to be analyzed (i.e., {@code lastAnalyzed..source}) and their selection is merged into the previous one.
+ * Otherwise (e.g., if the history was rewritten or the target revision was merged in), the selection starts from scratch.
+ * As changes are accumulated, reverting a change in a later commit does not deselect the tests it affected.
+ */
+public final class IncrementalSelection {
+
+    /**
+     * Version of the state format, which has to be incremented along with changes to the state format.
+     */
+    static final int STATE_VERSION = 1;
+
+    private static final Gson gson = new Gson();
+
+    private final Path stateFile;
+    private final String configuration;
+    private final String targetRevision;
+    private final String sourceCommit;
+    private final String mergeBase;
+    private final State previousState;
+
+    /**
+     * @param gitClient      git client to resolve revisions with
+     * @param stateFile      file to load the previous state from and save the current state to
+     * @param configuration  arbitrary description of all selection inputs apart from the change set (e.g., digest of the test report),
+     *                       the previous selection is only continued for an identical configuration
+     * @param targetRevision target revision into which the changes are to be integrated
+     * @param sourceRevision source revision where the changes are currently versioned
+     */
+    public IncrementalSelection(final GitClient gitClient, final Path stateFile, final String configuration,
+                                final String targetRevision, final String sourceRevision) {
+        this.stateFile = stateFile;
+        this.configuration = configuration;
+        this.targetRevision = targetRevision;
+        this.sourceCommit = gitClient.getCommitId(sourceRevision);
+        this.mergeBase = sourceCommit == null ? null : gitClient.getMergeBase(targetRevision, sourceCommit);
+        final State state = load(stateFile);
+        this.previousState = canContinue(gitClient, state) ? state : null;
+    }
+
+    private boolean canContinue(final GitClient gitClient, final State state) {
+        return state != null
+                && mergeBase != null
+                && state.version == STATE_VERSION
+                && Objects.equals(state.configuration, configuration)
+                && Objects.equals(state.mergeBase, mergeBase)
+                && state.sourceCommit != null
+                && state.sourceCommit.equals(gitClient.getMergeBase(state.sourceCommit, sourceCommit));
+    }
+
+    /**
+     * @return true if the previous selection is continued
+     */
+    public boolean isIncremental() {
+        return previousState != null;
+    }
+
+    /**
+     * As the base revision is an ancestor of the source revision for incremental runs, the three-dot diff {@code base...source}
+     * (see {@link GitClient#getDiff(String, String)}) is identical to the two-dot diff {@code base..source}.
+     *
+     * @return revision to compute and analyze changes against, i.e., the previously analyzed commit or the target revision
+     */
+    public String getBaseRevision() {
+        return isIncremental() ? previousState.sourceCommit : targetRevision;
+    }
+
+    /**
+     * @param result selection for the changes since the base revision
+     * @return previously selected test suites followed by all newly selected test suites
+     */
+    public TestSelectionResult merge(final TestSelectionResult result) {
+        if (!isIncremental()) {
+            return result;
+        }
+        // Previously selected test suites are taken from the current report where possible, to keep their timestamps (e.g., for prioritization).
+        Map<String, TestSuite> reportedTestSuites = new HashMap<>();
+        for (final TestSuite testSuite : result.getExcludedTestSuites()) {
+            reportedTestSuites.put(testSuite.getTestId(), testSuite);
+        }
+        List<SelectedTestSuite> selectedTestSuites = new ArrayList<>();
+        Set<String> selectedTestSuiteNames = new HashSet<>();
+        for (final SelectedTestSuiteEntry entry : previousState.selectedTestSuites) {
+            if (selectedTestSuiteNames.add(entry.testId)) {
+                selectedTestSuites.add(entry.toSelectedTestSuite(reportedTestSuites.get(entry.testId)));
+            }
+        }
+        for (final SelectedTestSuite selectedTestSuite : result.getSelectedTestSuites()) {
+            if (selectedTestSuiteNames.add(selectedTestSuite.getTestSuite().getTestId())) {
+                selectedTestSuites.add(selectedTestSuite);
+            }
+        }
+        List<TestSuite> excludedTestSuites = new ArrayList<>();
+        for (final TestSuite testSuite : result.getExcludedTestSuites()) {
+            if (!selectedTestSuiteNames.contains(testSuite.getTestId())) {
+                excludedTestSuites.add(testSuite);
+            }
+        }
+        return new TestSelectionResult(selectedTestSuites, excludedTestSuites);
+    }
+
+    /**
+     * @param result selection for the changes since the base revision
+     * @return only those test suites which have not been selected before, all selected test suites for non-incremental runs
+     */
+    public TestSelectionResult getNewlySelected(final TestSelectionResult result) {
+        if (!isIncremental()) {
+            return result;
+        }
+        Set<String> previouslySelected = new HashSet<>();
+        for (final SelectedTestSuiteEntry entry : previousState.selectedTestSuites) {
+            previouslySelected.add(entry.testId);
+        }
+        List<SelectedTestSuite> selectedTestSuites = new ArrayList<>();
+        List<TestSuite> excludedTestSuites = new ArrayList<>(result.getExcludedTestSuites());
+        for (final SelectedTestSuite selectedTestSuite : result.getSelectedTestSuites()) {
+            if (previouslySelected.contains(selectedTestSuite.getTestSuite().getTestId())) {
+                excludedTestSuites.add(selectedTestSuite.getTestSuite());
+            } else {
+                selectedTestSuites.add(selectedTestSuite);
+            }
+        }
+        return new TestSelectionResult(selectedTestSuites, excludedTestSuites);
+    }
+
+    /**
+     * Persists the merged selection for the current source commit, which is skipped if the source commit cannot be resolved.
+     *
+     * @param mergedResult selection for all changes since the merge base (see {@link #merge(TestSelectionResult)})
+     */
+    public void save(final TestSelectionResult mergedResult) throws IOException {
+        if (mergeBase == null) {
+            return;
+        }
+        State state = new State();
+        state.version = STATE_VERSION;
+        state.configuration = configuration;
+        state.mergeBase = mergeBase;
+        state.sourceCommit = sourceCommit;
+        for (final SelectedTestSuite selectedTestSuite : mergedResult.getSelectedTestSuites()) {
+            state.selectedTestSuites.add(new SelectedTestSuiteEntry(selectedTestSuite));
+        }
+        Files.createDirectories(stateFile.toAbsolutePath().getParent());
+        Path tmpFile = Files.createTempFile(stateFile.toAbsolutePath().getParent(), stateFile.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                gson.toJson(state, writer);
+            }
+            try {
+                Files.move(tmpFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, stateFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private static State load(final Path stateFile) {
+        if (stateFile == null || !Files.isRegularFile(stateFile)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, State.class);
+        } catch (IOException | JsonParseException e) {
+            // The state is only an optimization, so we simply select from scratch.
+            System.err.println("Failed to load selection state from " + stateFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class State {
+        int version;
+        String configuration;
+        String mergeBase;
+        String sourceCommit;
+        List<SelectedTestSuiteEntry> selectedTestSuites = new ArrayList<>();
+    }
+
+    private static final class SelectedTestSuiteEntry {
+        String testId;
+        String selectionCause;
+        // Missing in states written before reasons were persisted, which then default to an empty reason.
+        String reason;
+        // Missing in states written before timestamps were persisted, which then default to 0 (i.e., unknown).
+        long startTimestamp;
+        long endTimestamp;
+
+        SelectedTestSuiteEntry(final SelectedTestSuite selectedTestSuite) {
+            this.testId = selectedTestSuite.getTestSuite().getTestId();
+            this.selectionCause = selectedTestSuite.getSelectionCause() == null ? null : selectedTestSuite.getSelectionCause().name();
+            this.reason = selectedTestSuite.getReason();
+            this.startTimestamp = selectedTestSuite.getTestSuite().getStartTimestamp();
+            this.endTimestamp = selectedTestSuite.getTestSuite().getEndTimestamp();
+        }
+
+        /**
+         * @param reportedTestSuite test suite from the current report, {@code null} if it is not part of the report
+         */
+        SelectedTestSuite toSelectedTestSuite(final TestSuite reportedTestSuite) {
+            TestSuite testSuite = reportedTestSuite;
+            if (testSuite == null) {
+                testSuite = new TestSuite();
+                testSuite.setTestId(testId);
+                testSuite.setStartTimestamp(startTimestamp);
+                testSuite.setEndTimestamp(endTimestamp);
+            }
+            return new SelectedTestSuite(selectionCause == null ? null : SelectionCause.valueOf(selectionCause), reason, testSuite);
+        }
+    }
+}
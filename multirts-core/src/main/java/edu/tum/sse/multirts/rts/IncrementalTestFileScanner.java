@@ -0,0 +1,224 @@
+package edu.tum.sse.multirts.rts;
+
+import edu.tum.sse.multirts.parser.JavaSourceCodeParser;
+import edu.tum.sse.multirts.parser.JavaTypeNameCache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds all test files (and their fully qualified test suite names) below a set of roots,
+ * reusing the results of the previous scan, which are persisted in a state file.
+ * Directories are only listed again if their modification time changed (i.e., entries were added, removed, or renamed),
+ * and test files are only parsed again if they are new or explicitly marked as changed (e.g., from the change set),
+ * as content modifications do not change the modification time of the enclosing directory.
+ * The state lists all subdirectories (including skipped ones), so that skipped directories can be changed between scans.
+ */
+final class IncrementalTestFileScanner {
+
+    /**
+     * Header of the state file, which has to be versioned along with changes to the state format.
+     */
+    static final String STATE_VERSION = "multirts-test-files-v2";
+
+    /**
+     * Directories modified shortly before the previous scan started may have been modified again during the scan
+     * without changing their modification time (due to its limited resolution), so these are always listed again.
+     */
+    private static final long MODIFICATION_TIME_RESOLUTION_MILLIS = 2000;
+
+    private final Path stateFile;
+    private final Set<String> skippedDirectories;
+    private final JavaTypeNameCache typeNameCache;
+    private final Map<Path, DirectoryState> previousState = new HashMap<>();
+    private long previousScanTime = 0;
+    private final Map<Path, DirectoryState> currentState = new ConcurrentHashMap<>();
+    private final Map<Path, String> testFiles = new ConcurrentHashMap<>();
+
+    /**
+     * @param stateFile          file to load the previous state from and save the current state to
+     * @param skippedDirectories names of directories which are not searched
+     * @param typeNameCache      parser for test files
+     */
+    IncrementalTestFileScanner(final Path stateFile, final Set<String> skippedDirectories, final JavaTypeNameCache typeNameCache) {
+        this.stateFile = stateFile;
+        this.skippedDirectories = skippedDirectories;
+        this.typeNameCache = typeNameCache;
+        load();
+    }
+
+    /**
+     * @param roots        directories to search, which are scanned in parallel
+     * @param changedFiles absolute paths of files whose content may have changed since the previous scan
+     * @return all test files mapped to their fully qualified test suite names
+     */
+    Map<Path, String> scan(final Collection<Path> roots, final Set<Path> changedFiles) throws IOException {
+        final long scanTime = System.currentTimeMillis();
+        try {
+            JavaSourceCodeParser.getDistinctRoots(roots).parallelStream().forEach(root -> {
+                try {
+                    scanDirectory(root, changedFiles);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        previousScanTime = scanTime;
+        return testFiles;
+    }
+
+    private void scanDirectory(final Path directory, final Set<Path> changedFiles) throws IOException {
+        final long modified;
+        try {
+            modified = Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).lastModifiedTime().toMillis();
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        DirectoryState previous = previousState.get(directory);
+        DirectoryState current = new DirectoryState(modified);
+        if (previous != null && previous.modified == modified && modified + MODIFICATION_TIME_RESOLUTION_MILLIS < previousScanTime) {
+            current.subdirectories.addAll(previous.subdirectories);
+            for (Map.Entry<String, String> testFile : previous.testFiles.entrySet()) {
+                Path path = directory.resolve(testFile.getKey());
+                String testSuiteName = changedFiles.contains(path) ? parse(path) : testFile.getValue();
+                if (testSuiteName != null) {
+                    current.testFiles.put(testFile.getKey(), testSuiteName);
+                }
+            }
+        } else {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        current.subdirectories.add(name);
+                    } else if (JavaSourceCodeParser.isJavaFile(entry) && JavaSourceCodeParser.isTestFile(entry) && Files.isRegularFile(entry)) {
+                        String testSuiteName = previous != null && !changedFiles.contains(entry) ? previous.testFiles.get(name) : null;
+                        if (testSuiteName == null) {
+                            testSuiteName = parse(entry);
+                        }
+                        if (testSuiteName != null) {
+                            current.testFiles.put(name, testSuiteName);
+                        }
+                    }
+                }
+            }
+        }
+        currentState.put(directory, current);
+        for (Map.Entry<String, String> testFile : current.testFiles.entrySet()) {
+            testFiles.put(directory.resolve(testFile.getKey()), testFile.getValue());
+        }
+        for (String subdirectory : current.subdirectories) {
+            // Skipped directories are only filtered here, as they may differ from the previous scan.
+            if (!skippedDirectories.contains(subdirectory)) {
+                scanDirectory(directory.resolve(subdirectory), changedFiles);
+            }
+        }
+    }
+
+    private String parse(final Path testFile) {
+        try {
+            return typeNameCache.getFullyQualifiedTypeName(testFile);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Persists the state of the last scan, directories which have not been scanned are dropped.
+     */
+    void save() throws IOException {
+        Files.createDirectories(stateFile.toAbsolutePath().getParent());
+        Path tmpFile = Files.createTempFile(stateFile.toAbsolutePath().getParent(), stateFile.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                writer.write(STATE_VERSION + " " + previousScanTime);
+                writer.newLine();
+                for (Map.Entry<Path, DirectoryState> directory : currentState.entrySet()) {
+                    writer.write("D " + directory.getValue().modified + " " + directory.getKey());
+                    writer.newLine();
+                    for (String subdirectory : directory.getValue().subdirectories) {
+                        writer.write("S " + subdirectory);
+                        writer.newLine();
+                    }
+                    for (Map.Entry<String, String> testFile : directory.getValue().testFiles.entrySet()) {
+                        writer.write("T " + testFile.getValue() + " " + testFile.getKey());
+                        writer.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(tmpFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, stateFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(stateFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(STATE_VERSION + " ")) {
+                return;
+            }
+            previousScanTime = Long.parseLong(header.substring(STATE_VERSION.length() + 1));
+            DirectoryState directory = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("D ")) {
+                    int separator = line.indexOf(' ', 2);
+                    directory = new DirectoryState(Long.parseLong(line.substring(2, separator)));
+                    previousState.put(Paths.get(line.substring(separator + 1)), directory);
+                } else if (line.startsWith("S ") && directory != null) {
+                    directory.subdirectories.add(line.substring(2));
+                } else if (line.startsWith("T ") && directory != null) {
+                    int separator = line.indexOf(' ', 2);
+                    directory.testFiles.put(line.substring(separator + 1), line.substring(2, separator));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The state is only an optimization, so we simply scan everything again.
+            System.err.println("Failed to load test file state from " + stateFile + ": " + e.getMessage());
+            previousState.clear();
+            previousScanTime = 0;
+        }
+    }
+
+    private static final class DirectoryState {
+        final long modified;
+        final List<String> subdirectories = new ArrayList<>();
+        final Map<String, String> testFiles = new HashMap<>();
+
+        DirectoryState(final long modified) {
+            this.modified = modified;
+        }
+    }
+}
@@ -14,7 +14,7 @@ import java.util.stream.Collectors;
  */
 public class NoopTestSelection implements TestSelectionStrategy {
 
-    private final static SelectionCause SELECTION_CAUSE = SelectionCause.RETEST_ALL.setReason("noop");
+    private final static String SELECTION_REASON = "noop";
 
     private final TestReport testReport;
 
@@ -26,7 +26,7 @@ public class NoopTestSelection implements TestSelectionStrategy {
     public TestSelectionResult execute(final Set<ChangeSetItem> changeSet, Set<SelectedTestSuite> preSelectedTestSuites) {
         List<SelectedTestSuite> selectedTestSuites = testReport.getTestSuites()
                 .stream()
-                .map(testSuite -> new SelectedTestSuite(SELECTION_CAUSE, testSuite))
+                .map(testSuite -> new SelectedTestSuite(SelectionCause.RETEST_ALL, SELECTION_REASON, testSuite))
                 .collect(Collectors.toList());
         return new TestSelectionResult(
                 selectedTestSuites,
@@ -9,10 +9,19 @@ import java.util.stream.Collectors;
 public final class SelectedTestSuite {
     private final TestSuite testSuite;
     private final SelectionCause selectionCause;
+    private final String reason;
 
     public SelectedTestSuite(final SelectionCause selectionCause, final TestSuite testSuite) {
+        this(selectionCause, "", testSuite);
+    }
+
+    /**
+     * @param reason why the test suite has been selected (e.g., the affected file or entity), specific to this test suite
+     */
+    public SelectedTestSuite(final SelectionCause selectionCause, final String reason, final TestSuite testSuite) {
         this.testSuite = testSuite;
         this.selectionCause = selectionCause;
+        this.reason = reason == null ? "" : reason;
     }
 
     public static List<TestSuite> toTestSuites(final List<SelectedTestSuite> selectedTestSuites) {
@@ -27,6 +36,10 @@ public final class SelectedTestSuite {
         return testSuite;
     }
 
+    public String getReason() {
+        return reason;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -1,6 +1,7 @@
 package edu.tum.sse.multirts.rts;
 
 import edu.tum.sse.multirts.parser.JavaSourceCodeParser;
+import edu.tum.sse.multirts.parser.JavaTypeNameCache;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -16,6 +17,19 @@ public class TestSuiteFileMap {
     final Map<String, Path> testSuiteNameMapping = new HashMap<>();
     final Map<String, Path> testSuiteIdentifierMapping = new HashMap<>();
     final Path root;
+    /**
+     * Directories to search for test files, {@link #root} is searched if empty.
+     */
+    final Collection<Path> testSourceRoots;
+    final Set<String> skippedDirectories;
+    /**
+     * State file of the previous scan, which is refreshed incrementally if set.
+     */
+    final Path stateFile;
+    /**
+     * Files whose content may have changed since the previous scan (e.g., from the change set), which are parsed again.
+     */
+    final Set<Path> changedFiles;
     Set<Path> testFiles = new HashSet<>();
 
     /**
@@ -25,25 +39,95 @@ public class TestSuiteFileMap {
      */
     boolean useFullIdentifier;
 
-    public TestSuiteFileMap(Path root, boolean useFullIdentifier) {
+    /**
+     * Parse results of test files, which avoids parsing unchanged test files again.
+     */
+    final JavaTypeNameCache typeNameCache;
+
+    /**
+     * @param root               root directory of all test files
+     * @param testSourceRoots    directories to search for test files (e.g., the test compile source roots of all projects),
+     *                           the whole {@code root} directory is searched if empty
+     * @param skippedDirectories names of directories which are not searched
+     */
+    public TestSuiteFileMap(Path root, Collection<Path> testSourceRoots, Set<String> skippedDirectories, boolean useFullIdentifier, JavaTypeNameCache typeNameCache) {
+        this(root, testSourceRoots, skippedDirectories, useFullIdentifier, typeNameCache, null, Collections.emptySet());
+    }
+
+    /**
+     * Builds the mapping incrementally from the state of the previous run, which is persisted in {@code stateFile}:
+     * only directories that changed since then are listed again, and only new or changed test files are parsed again.
+     *
+     * @param stateFile    state file of the previous run, {@code null} to always scan and parse all test files
+     * @param changedFiles absolute paths of files whose content may have changed since the previous run
+     */
+    public TestSuiteFileMap(Path root, Collection<Path> testSourceRoots, Set<String> skippedDirectories, boolean useFullIdentifier, JavaTypeNameCache typeNameCache,
+                            Path stateFile, Set<Path> changedFiles) {
         this.root = root;
+        this.testSourceRoots = testSourceRoots;
+        this.skippedDirectories = skippedDirectories;
+        this.stateFile = stateFile;
+        this.changedFiles = changedFiles;
         this.useFullIdentifier = useFullIdentifier;
+        this.typeNameCache = typeNameCache;
         populate();
     }
 
+    public TestSuiteFileMap(Path root, boolean useFullIdentifier, JavaTypeNameCache typeNameCache) {
+        this(root, Collections.emptyList(), JavaSourceCodeParser.DEFAULT_SKIPPED_DIRECTORIES, useFullIdentifier, typeNameCache);
+    }
+
+    public TestSuiteFileMap(Path root, boolean useFullIdentifier) {
+        this(root, useFullIdentifier, new JavaTypeNameCache(null));
+    }
+
     public TestSuiteFileMap(Path root) {
         this(root, false);
     }
 
+    private void populateIncrementally(Collection<Path> roots) throws IOException {
+        IncrementalTestFileScanner scanner = new IncrementalTestFileScanner(stateFile, skippedDirectories, typeNameCache);
+        Map<Path, String> testSuiteNames = scanner.scan(roots, changedFiles);
+        testFiles = new HashSet<>(testSuiteNames.keySet());
+        if (useFullIdentifier) {
+            for (Map.Entry<Path, String> testFile : testSuiteNames.entrySet()) {
+                testSuiteIdentifierMapping.put(testFile.getValue(), testFile.getKey());
+            }
+        } else {
+            // Test suites with ambiguous names are only mapped by their full identifier.
+            Map<String, Long> testSuiteNameCounts = testFiles.stream()
+                    .collect(Collectors.groupingBy(JavaSourceCodeParser::getPrimaryTypeName, Collectors.counting()));
+            for (Map.Entry<Path, String> testFile : testSuiteNames.entrySet()) {
+                String testSuiteName = JavaSourceCodeParser.getPrimaryTypeName(testFile.getKey());
+                if (testSuiteNameCounts.get(testSuiteName) > 1) {
+                    testSuiteIdentifierMapping.put(testFile.getValue(), testFile.getKey());
+                } else {
+                    testSuiteNameMapping.put(testSuiteName, testFile.getKey());
+                }
+            }
+        }
+        try {
+            scanner.save();
+        } catch (IOException e) {
+            // The state is only an optimization, so we can continue without it.
+            System.err.println("Failed to save test file state to " + stateFile + ": " + e.getMessage());
+        }
+    }
+
     private void populateWithFullIdentifier() throws IOException {
         for (Path testFile : testFiles) {
-            testSuiteIdentifierMapping.put(JavaSourceCodeParser.getFullyQualifiedTypeName(testFile), testFile);
+            testSuiteIdentifierMapping.put(typeNameCache.getFullyQualifiedTypeName(testFile), testFile);
         }
     }
 
     private void populate() {
         try {
-            testFiles = JavaSourceCodeParser.findAllJavaTestFiles(root);
+            Collection<Path> roots = testSourceRoots.isEmpty() ? Collections.singletonList(root) : testSourceRoots;
+            if (stateFile != null) {
+                populateIncrementally(roots);
+                return;
+            }
+            testFiles = JavaSourceCodeParser.findAllJavaTestFiles(roots, skippedDirectories);
             if (useFullIdentifier) {
                 populateWithFullIdentifier();
                 return;
@@ -54,9 +138,9 @@ public class TestSuiteFileMap {
                 if (alreadySeenTestSuiteNames.contains(testSuiteName)) {
                     Path existingFile = testSuiteNameMapping.remove(testSuiteName);
                     if (existingFile != null) {
-                        testSuiteIdentifierMapping.put(JavaSourceCodeParser.getFullyQualifiedTypeName(existingFile), existingFile);
+                        testSuiteIdentifierMapping.put(typeNameCache.getFullyQualifiedTypeName(existingFile), existingFile);
                     }
-                    testSuiteIdentifierMapping.put(JavaSourceCodeParser.getFullyQualifiedTypeName(testFile), testFile);
+                    testSuiteIdentifierMapping.put(typeNameCache.getFullyQualifiedTypeName(testFile), testFile);
                 } else {
                     testSuiteNameMapping.put(testSuiteName, testFile);
                     alreadySeenTestSuiteNames.add(testSuiteName);
@@ -0,0 +1,171 @@
+package edu.tum.sse.multirts.vcs;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Long-lived "git cat-file --batch" process to read git objects (e.g., "revision:path") without spawning a process per object.
+ * Object names are written to the process' stdin, and object contents are read from its stdout as raw bytes.
+ * Requests are serialized, each request is subject to a timeout, and the process is restarted if it died in between requests.
+ */
+final class GitCatFileBatch implements AutoCloseable {
+
+    private static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private final Path root;
+    private final long timeoutMillis;
+    // Reads responses, so that we can time out on a blocking read.
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "git-cat-file-reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Process process;
+    private OutputStream stdin;
+    private InputStream stdout;
+
+    GitCatFileBatch(final Path root) {
+        this(root, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    GitCatFileBatch(final Path root, final long timeoutMillis) {
+        this.root = root;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @param object object name, e.g., "revision:path/to/file" or a blob id
+     * @return raw object content, {@code null} if the object does not exist
+     */
+    synchronized byte[] read(final String object) throws IOException {
+        if (object.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Object name must not contain line breaks: " + object);
+        }
+        try {
+            return request(object);
+        } catch (IOException e) {
+            // The process may have died in the meantime (e.g., it has been killed), therefore we retry once with a new process.
+            destroy();
+            return request(object);
+        }
+    }
+
+    private byte[] request(final String object) throws IOException {
+        if (process == null || !process.isAlive()) {
+            start();
+        }
+        stdin.write((object + "\n").getBytes(StandardCharsets.UTF_8));
+        stdin.flush();
+        Future<byte[]> response = reader.submit(this::readResponse);
+        try {
+            return response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Killing the process also unblocks the pending read.
+            destroy();
+            throw new IOException("Timed out after " + timeoutMillis + "ms reading git object " + object);
+        } catch (InterruptedException e) {
+            destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading git object " + object);
+        } catch (ExecutionException e) {
+            destroy();
+            throw new IOException("Failed to read git object " + object + ": " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Reads a response of the form "{@literal <oid> <type> <size>\n<content>\n}" or "{@literal <object> missing\n}".
+     */
+    private byte[] readResponse() throws IOException {
+        String header = readLine();
+        if (header.endsWith(" missing") || header.endsWith(" ambiguous")) {
+            return null;
+        }
+        int sizeSeparator = header.lastIndexOf(' ');
+        int size = Integer.parseInt(header.substring(sizeSeparator + 1));
+        byte[] content = new byte[size];
+        int offset = 0;
+        while (offset < size) {
+            int read = stdout.read(content, offset, size - offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of git cat-file output.");
+            }
+            offset += read;
+        }
+        if (stdout.read() != '\n') {
+            throw new IOException("Malformed git cat-file output.");
+        }
+        return content;
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int next;
+        while ((next = stdout.read()) != '\n') {
+            if (next < 0) {
+                throw new EOFException("Unexpected end of git cat-file output.");
+            }
+            line.write(next);
+        }
+        return new String(line.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private void start() throws IOException {
+        process = new ProcessBuilder("git", "cat-file", "--batch").directory(root.toFile()).start();
+        stdin = process.getOutputStream();
+        stdout = new BufferedInputStream(process.getInputStream(), 1 << 16);
+        drainErrors(process);
+    }
+
+    /**
+     * Drains stderr, so that the process never blocks on a full pipe.
+     */
+    private static void drainErrors(final Process process) {
+        Thread drainer = new Thread(() -> {
+            byte[] buffer = new byte[1024];
+            try (InputStream stderr = process.getErrorStream()) {
+                int read;
+                while ((read = stderr.read(buffer)) >= 0) {
+                    System.err.write(buffer, 0, read);
+                }
+            } catch (IOException ignored) {
+                // Process has been destroyed.
+            }
+        }, "git-cat-file-stderr");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private void destroy() {
+        if (process != null) {
+            process.destroyForcibly();
+            process = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (process != null) {
+            try {
+                // git cat-file exits as soon as stdin is closed.
+                stdin.close();
+            } catch (IOException ignored) {
+                // Process is destroyed anyway.
+            }
+            destroy();
+        }
+        reader.shutdownNow();
+    }
+}
@@ -4,20 +4,24 @@ import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.errors.DiffInterruptedException;
+import org.eclipse.jgit.lib.ObjectId;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-public final class GitClient {
+public final class GitClient implements AutoCloseable {
     private final static Pattern diffPattern = Pattern.compile("^diff --git a/(.*) b/.*$");
     private final static String[] diffOptions = new String[]{
             "--no-renames",
@@ -28,14 +32,28 @@ public final class GitClient {
             "--ignore-space-change",
             "--ignore-all-space",
     };
+    private final static int DEFAULT_MAX_PROCESSES = 4;
     private final Path root;
     // To prevent re-querying the git index, we cache the results from `git (show|diff)` commands.
-    private final Map<String, String> showCache = new HashMap<>();
-    private final Map<String, Set<ChangeSetItem>> diffCache = new HashMap<>();
+    // These caches are keyed by revision names (which may move), so they only live as long as this instance.
+    // The caches are concurrent, as change set items may be analyzed concurrently.
+    private final Map<String, String> showCache = new ConcurrentHashMap<>();
+    private final Map<String, Set<ChangeSetItem>> diffCache = new ConcurrentHashMap<>();
+    // Caps the number of concurrently running git processes.
+    private final Semaphore processPermits;
+    // Started lazily on the first content query.
+    private GitCatFileBatch catFileBatch;
+    // Optional persistent cache shared across builds.
+    private GitObjectCache objectCache;
     private Git gitRepo;
 
     public GitClient(final Path root) {
+        this(root, DEFAULT_MAX_PROCESSES);
+    }
+
+    public GitClient(final Path root, final int maxProcesses) {
         this.root = root.toAbsolutePath();
+        this.processPermits = new Semaphore(Math.max(1, maxProcesses));
         try {
             gitRepo = Git.open(this.root.toFile());
         } catch (IOException e) {
@@ -47,13 +65,75 @@ public final class GitClient {
     public GitClient(final Git repo) {
         this.gitRepo = repo;
         this.root = repo.getRepository().getWorkTree().toPath().toAbsolutePath();
+        this.processPermits = new Semaphore(DEFAULT_MAX_PROCESSES);
     }
 
     public Path getRoot() {
         return root;
     }
 
+    /**
+     * Enables the persistent cache for file contents and diffs, which requires the repository to be accessible with JGit
+     * for resolving blob and commit ids.
+     *
+     * @param objectCache persistent cache
+     */
+    public void setObjectCache(final GitObjectCache objectCache) {
+        this.objectCache = objectCache;
+    }
+
+    /**
+     * @return persistent cache, {@code null} if disabled
+     */
+    public GitObjectCache getObjectCache() {
+        return objectCache;
+    }
+
+    /**
+     * Resolves the blob id of the file {@code path} at a given {@code revision} without reading its content.
+     *
+     * @param path     file path to look up
+     * @param revision commit hash
+     * @return blob id, {@code null} if it cannot be resolved
+     */
+    public String getBlobId(final Path path, final String revision) {
+        return resolveObjectId(toGitObject(path, revision));
+    }
+
+    private String toGitObject(Path path, final String revision) {
+        if (path.isAbsolute())
+            path = root.relativize(path);
+        final String relativePath = path.toString().replace(File.separatorChar, '/');
+        return revision + ":" + relativePath;
+    }
+
+    /**
+     * Resolves a git object name (e.g., "revision:path" or "main") to its object id without spawning a process.
+     *
+     * @return object id, {@code null} if the object name cannot be resolved with JGit
+     */
+    private String resolveObjectId(final String objectName) {
+        if (gitRepo == null) {
+            return null;
+        }
+        try {
+            ObjectId objectId = gitRepo.getRepository().resolve(objectName);
+            return objectId == null ? null : objectId.getName();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private List<String> runProcessAndReturnOutput(String command) throws IOException, InterruptedException {
+        processPermits.acquire();
+        try {
+            return runProcess(command);
+        } finally {
+            processPermits.release();
+        }
+    }
+
+    private List<String> runProcess(String command) throws IOException, InterruptedException {
         Process process = Runtime.getRuntime().exec(command);
         BufferedReader reader =
                 new BufferedReader(new InputStreamReader(process.getInputStream()));
@@ -71,37 +151,53 @@ public final class GitClient {
 
     /**
      * Queries the index for the content of the file {@code path} at a given {@code revision}.
+     * Contents are read through a single long-lived "git cat-file --batch" process instead of one "git show" process per file.
      *
      * @param path     file path to look up
      * @param revision commit hash
      * @return file content
      */
-    public String getFileContentAtRevision(Path path, final String revision) {
-        if (path.isAbsolute())
-            path = root.relativize(path);
-        final String relativePath = path.toString().replace(File.separatorChar, '/');
-        final String gitObject = revision + ":" + relativePath;
+    public String getFileContentAtRevision(final Path path, final String revision) {
+        final String gitObject = toGitObject(path, revision);
         if (showCache.containsKey(gitObject))
             return showCache.get(gitObject);
-        final String command = String.format(
-                "git -P -C %s show %s",
-                root.toString(),
-                gitObject
-        );
-        String content = "";
+        final String blobId = objectCache != null ? resolveObjectId(gitObject) : null;
+        byte[] content = blobId != null ? objectCache.getBlob(blobId) : null;
         try {
-            List<String> lines = runProcessAndReturnOutput(command);
-            // TODO: check if this works when BOM is present
-            content = lines.stream().collect(Collectors.joining(System.lineSeparator()));
-        } catch (IOException | InterruptedException e) {
+            if (content == null) {
+                content = getCatFileBatch().read(blobId != null ? blobId : gitObject);
+                if (blobId != null && content != null) {
+                    objectCache.putBlob(blobId, content);
+                }
+            }
+        } catch (IOException e) {
             e.printStackTrace();
-            throw new RuntimeException("Failed to execute command " + command + " with exception: " + e.getMessage());
+            throw new RuntimeException("Failed to read " + gitObject + " with exception: " + e.getMessage());
+        }
+        if (content == null) {
+            throw new RuntimeException("Failed to read " + gitObject + " as it does not exist.");
         }
-        showCache.put(gitObject, content);
-        return content;
+        // TODO: check if this works when BOM is present
+        String decodedContent = new String(content, StandardCharsets.UTF_8);
+        showCache.put(gitObject, decodedContent);
+        return decodedContent;
     }
 
-    private Set<ChangeSetItem> parseDiffOutput(final List<String> diffLines) {
+    private synchronized GitCatFileBatch getCatFileBatch() {
+        if (catFileBatch == null) {
+            catFileBatch = new GitCatFileBatch(root);
+        }
+        return catFileBatch;
+    }
+
+    /**
+     * Parses the output of the "git diff" command, as used by {@link #getDiff(String, String)} if JGit is not available.
+     * Public to allow parsing diffs which have been computed elsewhere (e.g., by a CI system).
+     *
+     * @param diffLines output of the "git diff" command
+     * @return set of file paths
+     */
+    public static Set<ChangeSetItem> parseDiffOutput(final List<String> diffLines) {
         final Set<ChangeSetItem> diffItems = new HashSet<>();
         for (int i = 0, diffLinesSize = diffLines.size(); i < diffLinesSize; i++) {
             String line = diffLines.get(i);
@@ -130,9 +226,9 @@ public final class GitClient {
     }
 
     /**
-     * Computes the diff between two revisions using the "git diff" command.
-     * We don't use the {@link Git} object here, as it overcomplicates things for our use case.
-     * Instead, we invoke "git diff" manually and ignore all pure whitespace changes as they're irrelevant for us.
+     * Computes the diff between the latest common ancestor of two revisions and {@code toRevision}, ignoring all pure whitespace changes.
+     * The diff is computed in-process with JGit (see {@link JGitDiff}), falling back to the "git diff" command
+     * in case the repository could not be opened with JGit or JGit fails (e.g., for unsupported repository extensions).
      *
      * @param fromRevision commit hash for diff comparison
      * @param toRevision   commit hash for diff comparison
@@ -145,6 +241,68 @@ public final class GitClient {
         if (diffCache.containsKey(diffRange)) {
             return diffCache.get(diffRange);
         }
+        final String fromCommitId = objectCache != null ? resolveObjectId(fromRevision + "^{commit}") : null;
+        final String toCommitId = objectCache != null ? resolveObjectId(toRevision + "^{commit}") : null;
+        final boolean cacheable = fromCommitId != null && toCommitId != null;
+        Set<ChangeSetItem> diffItems = cacheable ? objectCache.getDiff(fromCommitId, toCommitId) : null;
+        if (diffItems != null) {
+            diffCache.put(diffRange, diffItems);
+            return diffItems;
+        }
+        if (gitRepo != null) {
+            try {
+                diffItems = JGitDiff.diff(gitRepo.getRepository(), fromRevision, toRevision);
+            } catch (Exception e) {
+                System.err.println("Failed to compute diff " + diffRange + " with JGit, falling back to git diff: " + e.getMessage());
+            }
+        }
+        if (diffItems == null) {
+            diffItems = getDiffFromCommandLine(diffRange);
+        }
+        if (cacheable) {
+            objectCache.putDiff(fromCommitId, toCommitId, diffItems);
+        }
+        diffCache.put(diffRange, diffItems);
+        return diffItems;
+    }
+
+    /**
+     * @param revision revision name (e.g., branch name or "HEAD")
+     * @return commit id the revision currently points to, {@code null} if it cannot be resolved
+     */
+    public String getCommitId(final String revision) {
+        return resolveObjectId(revision + "^{commit}");
+    }
+
+    /**
+     * Computes the latest common ancestor of two revisions, which is the {@code fromRevision} itself iff it is an ancestor of {@code toRevision}.
+     *
+     * @return commit id of the merge base, {@code null} if there is none or it cannot be computed (e.g., as a revision no longer exists)
+     */
+    public String getMergeBase(final String fromRevision, final String toRevision) {
+        if (gitRepo != null) {
+            try {
+                return JGitDiff.mergeBase(gitRepo.getRepository(), fromRevision, toRevision);
+            } catch (Exception e) {
+                System.err.println("Failed to compute merge base of " + fromRevision + " and " + toRevision + " with JGit, falling back to git merge-base: " + e.getMessage());
+            }
+        }
+        try {
+            List<String> lines = runProcessAndReturnOutput(String.format("git -P -C %s merge-base %s %s", root.toString(), fromRevision, toRevision));
+            return lines.isEmpty() ? null : lines.get(0).trim();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the diff for a revision range using the "git diff" command.
+     * We invoke "git diff" manually and ignore all pure whitespace changes as they're irrelevant for us.
+     *
+     * @param diffRange revision range, e.g., "main...HEAD"
+     * @return set of file paths
+     */
+    Set<ChangeSetItem> getDiffFromCommandLine(final String diffRange) {
         // The reason we don't simply use --name-status or --name-only is that these options are
         // incompatible with ignoring only whitespace changes (which we would then still need to filter out).
         final String command = String.format(
@@ -153,16 +311,13 @@ public final class GitClient {
                 String.join(" ", diffOptions),
                 diffRange
         );
-        final Set<ChangeSetItem> diffItems;
         try {
             List<String> lines = runProcessAndReturnOutput(command);
-            diffItems = parseDiffOutput(lines);
+            return parseDiffOutput(lines);
         } catch (Exception e) {
             e.printStackTrace();
             throw new DiffInterruptedException("Failed to execute command " + command + " with exception: " + e.getMessage());
         }
-        diffCache.put(diffRange, diffItems);
-        return diffItems;
     }
 
     /**
@@ -191,4 +346,24 @@ public final class GitClient {
         }
         return changeSet;
     }
+
+    /**
+     * Drops the in-memory caches, which are keyed by revision names that may move (e.g., branch names).
+     * Long-lived instances need to clear them between independent queries; the persistent cache (if any) stays valid.
+     */
+    public void clearCaches() {
+        showCache.clear();
+        diffCache.clear();
+    }
+
+    /**
+     * Stops the long-lived git process, if any has been started.
+     */
+    @Override
+    public synchronized void close() {
+        if (catFileBatch != null) {
+            catFileBatch.close();
+            catFileBatch = null;
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package edu.tum.sse.multirts.vcs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache for git query results, which can be shared by multiple builds (and {@link GitClient} instances).
+ * As git objects are immutable, file contents are keyed by their blob id and diffs by the resolved commit ids of their range,
+ * hence cache entries never become stale.
+ * Data derived from file contents (e.g., parse results) can be cached by blob id as well.
+ * The cache is bounded in size by evicting the least recently used entries, based on their modification time (touched on access).
+ */
+public final class GitObjectCache {
+
+    static final String BLOBS_DIRECTORY = "blobs";
+    static final String DIFFS_DIRECTORY = "diffs";
+    static final String DERIVED_DIRECTORY = "derived";
+
+    /**
+     * When evicting, we free up more space than necessary to avoid evicting on every write.
+     */
+    private static final double EVICTION_TARGET_RATIO = 0.8;
+
+    private final Path directory;
+    private final long maxSize;
+    /**
+     * Approximate size of all cache entries, -1 until it has been determined.
+     */
+    private final AtomicLong size = new AtomicLong(-1);
+
+    /**
+     * @param directory cache directory
+     * @param maxSize   maximum size of all cache entries in bytes
+     */
+    public GitObjectCache(final Path directory, final long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param blobId git blob id
+     * @return cached blob content, {@code null} if not cached
+     */
+    public byte[] getBlob(final String blobId) {
+        return read(getBlobPath(blobId));
+    }
+
+    public void putBlob(final String blobId, final byte[] content) {
+        write(getBlobPath(blobId), content);
+    }
+
+    /**
+     * @param kind   kind of derived data, which should include a version (e.g., "java-type-names-v1")
+     * @param blobId git blob id of the file content the data has been derived from
+     * @return cached derived data, {@code null} if not cached
+     */
+    public byte[] getDerived(final String kind, final String blobId) {
+        return read(getDerivedPath(kind, blobId));
+    }
+
+    public void putDerived(final String kind, final String blobId, final byte[] content) {
+        write(getDerivedPath(kind, blobId), content);
+    }
+
+    /**
+     * @param fromCommitId resolved commit id of the diff range start
+     * @param toCommitId   resolved commit id of the diff range end
+     * @return cached change set, {@code null} if not cached
+     */
+    public Set<ChangeSetItem> getDiff(final String fromCommitId, final String toCommitId) {
+        byte[] content = read(getDiffPath(fromCommitId, toCommitId));
+        if (content == null) {
+            return null;
+        }
+        Set<ChangeSetItem> changeSet = new HashSet<>();
+        for (final String line : new String(content, StandardCharsets.UTF_8).split("\n")) {
+            int separator = line.indexOf(' ');
+            if (separator > 0) {
+                changeSet.add(new ChangeSetItem(ChangeType.valueOf(line.substring(0, separator)), Paths.get(line.substring(separator + 1))));
+            }
+        }
+        return changeSet;
+    }
+
+    public void putDiff(final String fromCommitId, final String toCommitId, final Set<ChangeSetItem> changeSet) {
+        String content = changeSet.stream()
+                .map(item -> item.getChangeType().name() + " " + item.getPath().toString().replace('\\', '/'))
+                .collect(Collectors.joining("\n"));
+        write(getDiffPath(fromCommitId, toCommitId), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path getBlobPath(final String blobId) {
+        // Fan out by the first two hex digits like the git object store does, to keep directories small.
+        return directory.resolve(BLOBS_DIRECTORY).resolve(blobId.substring(0, 2)).resolve(blobId.substring(2));
+    }
+
+    private Path getDerivedPath(final String kind, final String blobId) {
+        return directory.resolve(DERIVED_DIRECTORY).resolve(kind).resolve(blobId.substring(0, 2)).resolve(blobId.substring(2));
+    }
+
+    private Path getDiffPath(final String fromCommitId, final String toCommitId) {
+        return directory.resolve(DIFFS_DIRECTORY).resolve(fromCommitId + "..." + toCommitId);
+    }
+
+    private static byte[] read(final Path entry) {
+        try {
+            byte[] content = Files.readAllBytes(entry);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return content;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Failed to read git cache entry " + entry + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(final Path entry, final byte[] content) {
+        try {
+            Files.createDirectories(entry.getParent());
+            Path tmpFile = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+            // An existing entry (e.g., written concurrently by another build) is replaced, so only the difference adds to the cache size.
+            final long previousSize = getSize(entry);
+            try {
+                Files.write(tmpFile, content);
+                try {
+                    Files.move(tmpFile, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmpFile, entry, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+            if (size.get() < 0) {
+                size.compareAndSet(-1, computeSize());
+            } else {
+                size.addAndGet(content.length - previousSize);
+            }
+            if (size.get() > maxSize) {
+                evict();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The cache is only an optimization, so we can continue without it.
+            System.err.println("Failed to write git cache entry " + entry + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return size of a cache entry, 0 if it does not exist
+     */
+    private static long getSize(final Path entry) throws IOException {
+        try {
+            return Files.size(entry);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private long computeSize() throws IOException {
+        long totalSize = 0;
+        for (final Path entry : listEntries()) {
+            totalSize += Files.size(entry);
+        }
+        return totalSize;
+    }
+
+    private List<Path> listEntries() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache size is below the eviction target.
+     */
+    private synchronized void evict() throws IOException {
+        // Sort entries by last access (i.e., modification time), ties are broken by path to be deterministic.
+        Map<String, Path> entriesByAccess = new TreeMap<>();
+        long totalSize = 0;
+        for (final Path entry : listEntries()) {
+            try {
+                entriesByAccess.put(String.format("%020d", Files.getLastModifiedTime(entry).toMillis()) + entry, entry);
+                totalSize += Files.size(entry);
+            } catch (NoSuchFileException e) {
+                // Evicted concurrently.
+            }
+        }
+        final long targetSize = (long) (maxSize * EVICTION_TARGET_RATIO);
+        for (final Path entry : entriesByAccess.values()) {
+            if (totalSize <= targetSize) {
+                break;
+            }
+            try {
+                long entrySize = Files.size(entry);
+                Files.deleteIfExists(entry);
+                totalSize -= entrySize;
+            } catch (NoSuchFileException e) {
+                // Evicted concurrently.
+            }
+        }
+        size.set(totalSize);
+    }
+}
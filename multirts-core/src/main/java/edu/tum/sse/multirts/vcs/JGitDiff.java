@@ -0,0 +1,132 @@
+package edu.tum.sse.multirts.vcs;
+
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.errors.LargeObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * In-process equivalent of "git diff --no-renames --ignore-all-space A...B" based on JGit.
+ * The trees of the merge base and the source revision are walked without reading any content for identical blob ids.
+ * Only blobs that actually differ are loaded and compared whitespace-insensitively, so that pure whitespace changes are ignored.
+ * Like "git diff", added, deleted, and mode-changed files are always reported, and so are differing binary files.
+ */
+final class JGitDiff {
+
+    private static final DiffAlgorithm DIFF_ALGORITHM = DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.HISTOGRAM);
+
+    /**
+     * Maximum blob size we compare in memory, larger blobs are considered modified if their ids differ.
+     */
+    private static final int MAX_COMPARED_BLOB_SIZE = 16 * 1024 * 1024;
+
+    private JGitDiff() {
+    }
+
+    /**
+     * @param repository   git repository
+     * @param fromRevision revision whose merge base with {@code toRevision} is compared
+     * @param toRevision   revision to compare
+     * @return changed files between the merge base and {@code toRevision}
+     */
+    static Set<ChangeSetItem> diff(final Repository repository, final String fromRevision, final String toRevision) throws IOException {
+        final Set<ChangeSetItem> diffItems = new HashSet<>();
+        try (RevWalk revWalk = new RevWalk(repository);
+             ObjectReader reader = repository.newObjectReader();
+             DiffFormatter diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            RevCommit toCommit = revWalk.parseCommit(resolve(repository, toRevision));
+            RevCommit mergeBase = getMergeBase(revWalk, revWalk.parseCommit(resolve(repository, fromRevision)), toCommit);
+            diffFormatter.setRepository(repository);
+            diffFormatter.setDetectRenames(false);
+            // Only entries with differing blob ids or modes are reported, subtrees with identical ids are skipped entirely.
+            for (final DiffEntry entry : diffFormatter.scan(mergeBase.getTree(), toCommit.getTree())) {
+                switch (entry.getChangeType()) {
+                    case ADD:
+                        diffItems.add(new ChangeSetItem(ChangeType.ADDED, Paths.get(entry.getNewPath())));
+                        break;
+                    case DELETE:
+                        diffItems.add(new ChangeSetItem(ChangeType.DELETED, Paths.get(entry.getOldPath())));
+                        break;
+                    default:
+                        if (isModified(reader, entry)) {
+                            diffItems.add(new ChangeSetItem(ChangeType.MODIFIED, Paths.get(entry.getNewPath())));
+                        }
+                }
+            }
+        }
+        return diffItems;
+    }
+
+    /**
+     * @return commit id of the merge base of both revisions
+     */
+    static String mergeBase(final Repository repository, final String fromRevision, final String toRevision) throws IOException {
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            return getMergeBase(revWalk, revWalk.parseCommit(resolve(repository, fromRevision)), revWalk.parseCommit(resolve(repository, toRevision))).getName();
+        }
+    }
+
+    private static ObjectId resolve(final Repository repository, final String revision) throws IOException {
+        ObjectId objectId = repository.resolve(revision + "^{commit}");
+        if (objectId == null) {
+            throw new IOException("Unable to resolve revision " + revision);
+        }
+        return objectId;
+    }
+
+    private static RevCommit getMergeBase(final RevWalk revWalk, final RevCommit fromCommit, final RevCommit toCommit) throws IOException {
+        revWalk.setRevFilter(RevFilter.MERGE_BASE);
+        revWalk.markStart(fromCommit);
+        revWalk.markStart(toCommit);
+        RevCommit mergeBase = revWalk.next();
+        if (mergeBase == null) {
+            throw new IOException("No merge base between " + fromCommit.getName() + " and " + toCommit.getName());
+        }
+        revWalk.reset();
+        revWalk.setRevFilter(RevFilter.ALL);
+        return revWalk.parseCommit(mergeBase);
+    }
+
+    private static boolean isModified(final ObjectReader reader, final DiffEntry entry) throws IOException {
+        if (!entry.getOldMode().equals(entry.getNewMode())) {
+            return true;
+        }
+        if (entry.getNewMode() != FileMode.REGULAR_FILE && entry.getNewMode() != FileMode.EXECUTABLE_FILE) {
+            // Symbolic links and submodules with differing ids.
+            return true;
+        }
+        byte[] oldContent = readBlob(reader, entry.getOldId().toObjectId());
+        byte[] newContent = readBlob(reader, entry.getNewId().toObjectId());
+        if (oldContent == null || newContent == null || RawText.isBinary(oldContent) || RawText.isBinary(newContent)) {
+            return true;
+        }
+        return !DIFF_ALGORITHM.diff(RawTextComparator.WS_IGNORE_ALL, new RawText(oldContent), new RawText(newContent)).isEmpty();
+    }
+
+    /**
+     * @return blob content, {@code null} if the blob is too large to compare in memory
+     */
+    private static byte[] readBlob(final ObjectReader reader, final ObjectId blobId) throws IOException {
+        try {
+            return reader.open(blobId, Constants.OBJ_BLOB).getCachedBytes(MAX_COMPARED_BLOB_SIZE);
+        } catch (LargeObjectException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package edu.tum.sse.multirts.daemon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReportDigestsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldOnlyHashUnchangedReportOnce() throws IOException {
+        // given
+        Path report = tempDir.resolve("report.json");
+        writeToFile(report, "{\"testSuites\": []}", false);
+        ReportDigests reportDigests = new ReportDigests();
+
+        // when
+        String first = reportDigests.get(report);
+        String second = reportDigests.get(report);
+
+        // then
+        assertSame(first, second);
+    }
+
+    @Test
+    void shouldHashReportReplacedWithSameSizeAndModificationTime() throws IOException {
+        // given
+        Path report = tempDir.resolve("report.json");
+        writeToFile(report, "{\"testSuites\": [0]}", false);
+        FileTime lastModified = Files.getLastModifiedTime(report);
+        ReportDigests reportDigests = new ReportDigests();
+        String first = reportDigests.get(report);
+
+        // when
+        writeToFile(report, "{\"testSuites\": [1]}", false);
+        Files.setLastModifiedTime(report, lastModified);
+        String second = reportDigests.get(report);
+
+        // then
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,162 @@
+package edu.tum.sse.multirts.daemon;
+
+import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.rts.NoopTestSelection;
+import edu.tum.sse.multirts.rts.TestSelectionResult;
+import edu.tum.sse.multirts.vcs.ChangeSetItem;
+import edu.tum.sse.multirts.vcs.ChangeType;
+import edu.tum.sse.multirts.vcs.GitTestUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static edu.tum.sse.multirts.util.CollectionUtils.newList;
+import static edu.tum.sse.multirts.util.CollectionUtils.newSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectionDaemonTest {
+
+    private static final String REPORT = "{\"testSuites\": [{\"testId\": \"a.FooTest\", \"coveredEntities\": [\"a.Foo\"], \"openedFiles\": [\"foo.txt\"]}, " +
+            "{\"testId\": \"a.BarTest\", \"coveredEntities\": [\"a.Bar\"], \"openedFiles\": []}]}";
+
+    @TempDir
+    Path tempDir;
+    Git repo;
+    Path daemonFile;
+    SelectionDaemon daemon;
+
+    @BeforeEach
+    void setUp() throws IOException, GitAPIException {
+        repo = Git.init().setDirectory(tempDir.resolve("repo").toFile()).setInitialBranch("main").call();
+        writeToFile(tempDir.resolve("repo").resolve("foo.txt"), "foo", false);
+        GitTestUtils.commitEverything(repo);
+        writeToFile(tempDir.resolve("report.json"), REPORT, false);
+        daemonFile = tempDir.resolve("daemon").resolve("daemon.properties");
+        daemon = SelectionDaemon.start(daemonFile, 0, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        daemon.close();
+        repo.getRepository().close();
+    }
+
+    private SelectionRequest createRequest() {
+        return new SelectionRequest.Builder(tempDir.resolve("report.json"), tempDir.resolve("repo"), "main").build();
+    }
+
+    private static List<String> getSelectedTestIds(final TestSelectionResult result) {
+        return result.getSelectedTestSuites().stream().map(selected -> selected.getTestSuite().getTestId()).collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldSelectTestsWithDaemonFoundThroughDaemonFile() throws IOException {
+        // given
+        Optional<DaemonClient> client = DaemonClient.find(daemonFile);
+        Set<ChangeSetItem> changeSet = newSet(new ChangeSetItem(ChangeType.MODIFIED, Paths.get("foo.txt")));
+
+        // when
+        TestSelectionResult first = client.get().select(createRequest().withChanges(changeSet, Collections.emptySet()));
+        TestSelectionResult second = client.get().select(createRequest().withChanges(changeSet, Collections.emptySet()));
+
+        // then
+        assertTrue(client.get().isAlive());
+        assertEquals(newList("a.FooTest"), getSelectedTestIds(first));
+        assertEquals(newList("a.BarTest"), first.getExcludedTestSuites().stream().map(TestSuite::getTestId).collect(Collectors.toList()));
+        assertEquals(getSelectedTestIds(first), getSelectedTestIds(second));
+        assertEquals("foo.txt", first.getSelectedTestSuites().get(0).getReason());
+    }
+
+    @Test
+    void shouldServeConcurrentRequestsWithSharedGitClient() throws Exception {
+        // given
+        DaemonClient client = DaemonClient.find(daemonFile).get();
+        Set<ChangeSetItem> changeSet = newSet(new ChangeSetItem(ChangeType.MODIFIED, Paths.get("foo.txt")));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<TestSelectionResult>> results = new ArrayList<>();
+
+        // when
+        try {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> client.select(createRequest().withChanges(changeSet, Collections.emptySet()))));
+            }
+            for (Future<TestSelectionResult> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        for (Future<TestSelectionResult> result : results) {
+            assertEquals(newList("a.FooTest"), getSelectedTestIds(result.get()));
+        }
+    }
+
+    @Test
+    void shouldReloadReportReplacedWithSameSizeAndModificationTime() throws IOException {
+        // given
+        DaemonClient client = DaemonClient.find(daemonFile).get();
+        Set<ChangeSetItem> changeSet = newSet(new ChangeSetItem(ChangeType.MODIFIED, Paths.get("foo.txt")));
+        Path report = tempDir.resolve("report.json");
+        FileTime lastModified = Files.getLastModifiedTime(report);
+        TestSelectionResult first = client.select(createRequest().withChanges(changeSet, Collections.emptySet()));
+
+        // when
+        // Swaps the test ids of both test suites, which keeps the report's size.
+        writeToFile(report, REPORT.replace("a.FooTest", "a.TmpTest").replace("a.BarTest", "a.FooTest").replace("a.TmpTest", "a.BarTest"), false);
+        Files.setLastModifiedTime(report, lastModified);
+        TestSelectionResult second = client.select(createRequest().withChanges(changeSet, Collections.emptySet()));
+
+        // then
+        assertEquals(newList("a.FooTest"), getSelectedTestIds(first));
+        assertEquals(newList("a.BarTest"), getSelectedTestIds(second));
+    }
+
+    @Test
+    void shouldFallBackToInProcessSelectionForInvalidToken() {
+        // given
+        DaemonClient client = new DaemonClient(daemon.getPort(), "invalid");
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId("a.FooTest");
+        TestReport testReport = new TestReport("report", 0, 0, newList(testSuite));
+        RemoteTestSelection testSelection = new RemoteTestSelection(client, createRequest(), () -> new NoopTestSelection(testReport));
+
+        // when
+        TestSelectionResult result = testSelection.execute(Collections.emptySet(), Collections.emptySet());
+
+        // then
+        assertFalse(client.isAlive());
+        assertEquals(newList("a.FooTest"), getSelectedTestIds(result));
+    }
+
+    @Test
+    void shouldRemoveDaemonFileWhenClosed() {
+        // when
+        daemon.close();
+
+        // then
+        assertFalse(Files.exists(daemonFile));
+        assertFalse(DaemonClient.find(daemonFile).isPresent());
+    }
+}
@@ -0,0 +1,68 @@
+package edu.tum.sse.multirts.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTest {
+
+    @Test
+    void shouldStoreSparseAndDenseContainers() {
+        // given
+        int[] values = IntStream.concat(
+                IntStream.of(0, 7, 65535),
+                IntStream.range(1 << 16, (1 << 16) + 5000) // dense container
+        ).toArray();
+
+        // when
+        CompressedBitmap bitmap = CompressedBitmap.of(values);
+
+        // then
+        assertEquals(values.length, bitmap.cardinality());
+        assertArrayEquals(values, bitmap.toArray());
+        assertTrue(bitmap.contains(7));
+        assertTrue(bitmap.contains(65535));
+        assertTrue(bitmap.contains((1 << 16) + 4999));
+        assertFalse(bitmap.contains(8));
+        assertFalse(bitmap.contains((1 << 16) + 5000));
+        assertFalse(bitmap.contains(-1));
+        assertTrue(CompressedBitmap.EMPTY.isEmpty());
+    }
+
+    @Test
+    void shouldFindFirstIntersection() {
+        // given
+        CompressedBitmap sparse = CompressedBitmap.of(new int[]{3, 70000, 140000});
+        CompressedBitmap dense = CompressedBitmap.of(IntStream.range(69000, 76000).toArray());
+        CompressedBitmap otherDense = CompressedBitmap.of(IntStream.range(75000, 80000).toArray());
+
+        // then
+        assertEquals(70000, sparse.firstIntersection(dense));
+        assertEquals(70000, dense.firstIntersection(sparse));
+        assertEquals(75000, dense.firstIntersection(otherDense));
+        assertEquals(-1, sparse.firstIntersection(otherDense));
+        assertFalse(sparse.intersects(CompressedBitmap.EMPTY));
+    }
+
+    @Test
+    void shouldMatchNaiveIntersectionForRandomBitmaps() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int[] first = randomSortedSet(random);
+            int[] second = randomSortedSet(random);
+            int expected = IntStream.of(first).filter(value -> IntStream.of(second).anyMatch(other -> other == value)).min().orElse(-1);
+            assertEquals(expected, CompressedBitmap.of(first).firstIntersection(CompressedBitmap.of(second)));
+        }
+    }
+
+    private static int[] randomSortedSet(final Random random) {
+        int size = random.nextInt(2) == 0 ? random.nextInt(20) : 9000 + random.nextInt(3000);
+        return random.ints(size, 0, 2 << 16).sorted().distinct().toArray();
+    }
+}
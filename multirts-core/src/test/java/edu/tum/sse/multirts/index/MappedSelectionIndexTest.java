@@ -0,0 +1,97 @@
+package edu.tum.sse.multirts.index;
+
+import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.jtec.reporting.TestSuite;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static edu.tum.sse.multirts.util.CollectionUtils.newList;
+import static edu.tum.sse.multirts.util.CollectionUtils.newSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedSelectionIndexTest {
+
+    private static TestSuite createTestSuite(final String testId, final Set<String> openedFiles, final Set<String> coveredEntities) {
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId(testId);
+        testSuite.setStartTimestamp(10);
+        testSuite.setEndTimestamp(42);
+        testSuite.setOpenedFiles(openedFiles);
+        testSuite.setCoveredEntities(coveredEntities);
+        return testSuite;
+    }
+
+    @Test
+    void shouldAnswerQueriesLikeInMemoryIndex(@TempDir Path tempDir) throws IOException {
+        // given
+        TestReport testReport = new TestReport("report-1", 0x42, 0x42, newList(
+                createTestSuite("a.FooTest", newSet("/ci/repo/foo/config.xml", "lib_foo.dll"), newSet("a.Foo", "a.Foo$1", "a.FooTest")),
+                createTestSuite("a.BarTest", newSet("C:\\ci\\repo\\bar\\config.xml"), newSet("a.Bar", "a.Bär")),
+                createTestSuite("a.BazTest", newSet("config.xml", "/ci/repo/baz/data.txt"), newSet("a.Foo$Inner", "a.Bar"))
+        ));
+        Path binaryReport = tempDir.resolve("report.mrts");
+        BinaryReportWriter.convert(testReport, binaryReport);
+
+        // when
+        TestSelectionIndex expected = TestSelectionIndex.fromReport(testReport);
+        MappedSelectionIndex actual = MappedSelectionIndex.open(binaryReport);
+
+        // then
+        assertEquals(expected.size(), actual.size());
+        for (int suiteId = 0; suiteId < expected.size(); suiteId++) {
+            assertEquals(expected.getTestSuite(suiteId).getTestId(), actual.getTestSuite(suiteId).getTestId());
+            assertEquals(42, actual.getTestSuite(suiteId).getEndTimestamp());
+        }
+        assertArrayEquals(new String[]{"a.Foo", "a.FooTest"}, actual.getCoveredEntities(0));
+        for (String entity : newList("a.Foo", "a.Foo$2", "a.Bar", "a.Bär", "a.FooTest", "a.Baz", "", "z")) {
+            assertArrayEquals(expected.getTestSuitesCoveringEntity(entity), actual.getTestSuitesCoveringEntity(entity), entity);
+        }
+        for (String path : newList("foo/config.xml", "bar/config.xml", "config.xml", "qux/config.xml", "baz/data.txt",
+                "repo/baz/data.txt", "foo/other.xml", "lib_foo.dll", "some/other/lib_foo.dll", "")) {
+            assertArrayEquals(expected.getTestSuitesOpeningFile(path), actual.getTestSuitesOpeningFile(path), path);
+        }
+    }
+
+    @Test
+    void shouldKeepResultsOfTestSuites(@TempDir Path tempDir) throws IOException {
+        // given
+        TestSuite fooTest = createTestSuite("a.FooTest", newSet("foo.txt"), newSet("a.Foo"));
+        fooTest.setRunCount(7);
+        fooTest.setFailureCount(2);
+        TestSuite barTest = createTestSuite("a.BarTest", newSet(), newSet("a.Bar"));
+        barTest.setRunCount(3);
+        Path binaryReport = tempDir.resolve("report.mrts");
+        BinaryReportWriter.convert(new TestReport("report-1", 0x42, 0x42, newList(fooTest, barTest)), binaryReport);
+
+        // when
+        MappedSelectionIndex index = MappedSelectionIndex.open(binaryReport);
+
+        // then
+        assertEquals(10, index.getTestSuite(0).getStartTimestamp());
+        assertEquals(42, index.getTestSuite(0).getEndTimestamp());
+        assertEquals(7, index.getTestSuite(0).getRunCount());
+        assertEquals(2, index.getTestSuite(0).getFailureCount());
+        assertEquals("a.BarTest", index.getTestSuite(1).getTestId());
+        assertEquals(3, index.getTestSuite(1).getRunCount());
+        assertEquals(0, index.getTestSuite(1).getFailureCount());
+    }
+
+    @Test
+    void shouldDetectBinaryReports(@TempDir Path tempDir) throws IOException {
+        // given
+        Path binaryReport = tempDir.resolve("report.mrts");
+        Path jsonReport = tempDir.resolve("report.json");
+        BinaryReportWriter.convert(new TestReport("report-1", 0x42, 0x42, newList()), binaryReport);
+        writeToFile(jsonReport, "{\"testSuites\": []}", false);
+
+        // then
+        assertTrue(MappedSelectionIndex.isBinaryReport(binaryReport));
+        assertFalse(MappedSelectionIndex.isBinaryReport(jsonReport));
+        assertEquals(0, MappedSelectionIndex.open(binaryReport).size());
+    }
+}
@@ -0,0 +1,79 @@
+package edu.tum.sse.multirts.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectionIndexCacheTest {
+
+    private static final String REPORT = "{\"testSuites\": [{\"testId\": \"a.FooTest\", \"coveredEntities\": [\"a.Foo\"], \"openedFiles\": [\"foo.txt\"]}]}";
+    private static final String SAME_SIZE_REPORT = "{\"testSuites\": [{\"testId\": \"a.BazTest\", \"coveredEntities\": [\"a.Baz\"], \"openedFiles\": [\"baz.txt\"]}]}";
+    private static final String CHANGED_REPORT = "{\"testSuites\": [{\"testId\": \"a.BarTest\", \"coveredEntities\": [\"a.Bar\"], \"openedFiles\": []}]}";
+
+    @Test
+    void shouldReuseCachedIndexForUnchangedReport(@TempDir Path tempDir) throws IOException {
+        // given
+        Path report = tempDir.resolve("report.json");
+        writeToFile(report, REPORT, false);
+        SelectionIndexCache cache = new SelectionIndexCache(tempDir.resolve("cache"));
+
+        // when
+        Path cachedIndex = cache.warm(report);
+        SelectionIndex index = cache.load(report);
+
+        // then
+        assertEquals(cachedIndex, cache.warm(report));
+        assertEquals(1, index.size());
+        assertEquals("a.FooTest", index.getTestSuite(0).getTestId());
+        assertArrayEquals(new int[]{0}, index.getTestSuitesCoveringEntity("a.Foo"));
+        assertArrayEquals(new int[]{0}, index.getTestSuitesOpeningFile("foo.txt"));
+    }
+
+    @Test
+    void shouldRebuildIndexForChangedReport(@TempDir Path tempDir) throws IOException {
+        // given
+        Path report = tempDir.resolve("report.json");
+        writeToFile(report, REPORT, false);
+        SelectionIndexCache cache = new SelectionIndexCache(tempDir.resolve("cache"));
+        Path cachedIndex = cache.warm(report);
+
+        // when
+        writeToFile(report, CHANGED_REPORT, false);
+        Files.setLastModifiedTime(report, FileTime.fromMillis(Files.getLastModifiedTime(report).toMillis() + 1000));
+        Path rebuiltIndex = cache.warm(report);
+        SelectionIndex index = cache.load(report);
+
+        // then
+        assertNotEquals(cachedIndex, rebuiltIndex);
+        assertEquals("a.BarTest", index.getTestSuite(0).getTestId());
+        assertArrayEquals(new int[0], index.getTestSuitesCoveringEntity("a.Foo"));
+    }
+
+    @Test
+    void shouldRebuildIndexForReportReplacedWithSameSizeAndModificationTime(@TempDir Path tempDir) throws IOException {
+        // given
+        Path report = tempDir.resolve("report.json");
+        writeToFile(report, REPORT, false);
+        FileTime lastModified = Files.getLastModifiedTime(report);
+        SelectionIndexCache cache = new SelectionIndexCache(tempDir.resolve("cache"));
+        cache.warm(report);
+
+        // when
+        // e.g., a report restored from a CI cache, which preserves timestamps
+        writeToFile(report, SAME_SIZE_REPORT, false);
+        Files.setLastModifiedTime(report, lastModified);
+        SelectionIndex index = cache.load(report);
+
+        // then
+        assertEquals(REPORT.length(), SAME_SIZE_REPORT.length());
+        assertEquals("a.BazTest", index.getTestSuite(0).getTestId());
+        assertArrayEquals(new int[0], index.getTestSuitesCoveringEntity("a.Foo"));
+    }
+}
@@ -0,0 +1,69 @@
+package edu.tum.sse.multirts.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingReportReaderTest {
+
+    private static final String REPORT = "{\n" +
+            "  \"reportId\": \"report-1\",\n" +
+            "  \"testSuites\": [\n" +
+            "    {\"testId\": \"a.FooTest\", \"startTimestamp\": 1, \"endTimestamp\": 5, \"testCases\": [{\"testId\": \"foo\"}],\n" +
+            "     \"coveredEntities\": [\"a.Foo\", \"a.Foo$1\"], \"openedFiles\": [\"/ci/repo/foo.txt\"]},\n" +
+            "    {\"testId\": \"a.BarTest\", \"coveredEntities\": [\"a.Bar\"], \"openedFiles\": null}\n" +
+            "  ],\n" +
+            "  \"startTimestamp\": 0\n" +
+            "}";
+
+    private static void assertIndex(final TestSelectionIndex index) {
+        assertEquals(2, index.size());
+        assertEquals("a.FooTest", index.getTestSuite(0).getTestId());
+        assertEquals(5, index.getTestSuite(0).getEndTimestamp());
+        assertTrue(index.getTestSuite(0).getCoveredEntities().isEmpty());
+        assertTrue(index.getTestSuite(0).getOpenedFiles().isEmpty());
+        assertEquals("a.BarTest", index.getTestSuite(1).getTestId());
+        assertArrayEquals(new int[]{0}, index.getTestSuitesCoveringEntity("a.Foo"));
+        assertArrayEquals(new int[]{1}, index.getTestSuitesCoveringEntity("a.Bar"));
+        assertArrayEquals(new int[]{0}, index.getTestSuitesOpeningFile("repo/foo.txt"));
+    }
+
+    @Test
+    void shouldStreamJsonReportIntoIndex(@TempDir Path tempDir) throws IOException {
+        // given
+        Path report = tempDir.resolve("report.json");
+        writeToFile(report, REPORT, false);
+
+        // when
+        TestSelectionIndex index = StreamingReportReader.readIndex(report);
+
+        // then
+        assertIndex(index);
+    }
+
+    @Test
+    void shouldStreamGzipCompressedReportIntoIndex(@TempDir Path tempDir) throws IOException {
+        // given
+        Path report = tempDir.resolve("report.json.gz");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(report))) {
+            outputStream.write(REPORT.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // when
+        TestSelectionIndex index = StreamingReportReader.readIndex(report);
+
+        // then
+        assertIndex(index);
+    }
+}
@@ -0,0 +1,133 @@
+package edu.tum.sse.multirts.index;
+
+import edu.tum.sse.jtec.reporting.TestReport;
+import edu.tum.sse.jtec.reporting.TestSuite;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static edu.tum.sse.multirts.util.CollectionUtils.newList;
+import static edu.tum.sse.multirts.util.CollectionUtils.newSet;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TestSelectionIndexTest {
+
+    private static TestSuite createTestSuite(final String testId, final Set<String> coveredEntities) {
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId(testId);
+        testSuite.setCoveredEntities(coveredEntities);
+        return testSuite;
+    }
+
+    private static TestSuite createTestSuiteWithOpenedFiles(final String testId, final Set<String> openedFiles) {
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId(testId);
+        testSuite.setOpenedFiles(openedFiles);
+        return testSuite;
+    }
+
+    @Test
+    void shouldCanonicalizeNestedAndAnonymousTypes() {
+        assertEquals("a.b.c.Foo", TestSelectionIndex.canonicalizeEntity("a.b.c.Foo"));
+        assertEquals("a.b.c.Foo", TestSelectionIndex.canonicalizeEntity("a.b.c.Foo$1"));
+        assertEquals("a.b.c.Foo", TestSelectionIndex.canonicalizeEntity("a.b.c.Foo$Inner$2"));
+    }
+
+    @Test
+    void shouldLookUpTestSuitesCoveringEntity() {
+        // given
+        TestReport testReport = new TestReport("report-1", 0x42, 0x42, newList(
+                createTestSuite("FooTest", newSet("a.Foo", "a.Foo$1", "a.Foo$Inner")),
+                createTestSuite("BarTest", newSet("a.Bar")),
+                createTestSuite("FooBarTest", newSet("a.Foo$2", "a.Bar"))
+        ));
+
+        // when
+        TestSelectionIndex index = TestSelectionIndex.fromReport(testReport);
+
+        // then
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[]{0, 2}, index.getTestSuitesCoveringEntity("a.Foo"));
+        assertArrayEquals(new int[]{1, 2}, index.getTestSuitesCoveringEntity("a.Bar"));
+        assertArrayEquals(new int[]{0, 2}, index.getTestSuitesCoveringEntity("a.Foo$Inner"));
+        assertArrayEquals(new int[0], index.getTestSuitesCoveringEntity("a.Baz"));
+    }
+
+    @Test
+    void shouldLookUpTestSuitesOpeningFileByFileName() {
+        // given
+        TestReport testReport = new TestReport("report-1", 0x42, 0x42, newList(
+                createTestSuiteWithOpenedFiles("FooTest", newSet("/ci/repo/foo/config.xml")),
+                createTestSuiteWithOpenedFiles("BarTest", newSet("C:\\ci\\repo\\bar\\config.xml")),
+                createTestSuiteWithOpenedFiles("BazTest", newSet("config.xml", "/ci/repo/baz/data.txt"))
+        ));
+
+        // when
+        TestSelectionIndex index = TestSelectionIndex.fromReport(testReport);
+
+        // then
+        assertArrayEquals(new int[]{0, 1, 2}, index.getTestSuitesOpeningFile("foo/config.xml"));
+        assertArrayEquals(new int[]{0, 1, 2}, index.getTestSuitesOpeningFile("bar\\config.xml"));
+        assertArrayEquals(new int[]{0, 1, 2}, index.getTestSuitesOpeningFile("config.xml"));
+        assertArrayEquals(new int[]{2}, index.getTestSuitesOpeningFile("./baz/data.txt"));
+        assertArrayEquals(new int[0], index.getTestSuitesOpeningFile("foo/other.xml"));
+        assertArrayEquals(new int[0], index.getTestSuitesOpeningFile(""));
+    }
+
+    @Test
+    void shouldNotNarrowOpenedFilesToLongestPathSuffix() {
+        // given
+        TestReport testReport = new TestReport("report-1", 0x42, 0x42, newList(
+                createTestSuiteWithOpenedFiles("ResourceTest", newSet("/ci/repo/src/main/resources/x.properties")),
+                createTestSuiteWithOpenedFiles("ClasspathTest", newSet("/ci/repo/target/classes/x.properties")),
+                createTestSuiteWithOpenedFiles("OtherTest", newSet("/ci/repo/src/main/resources/y.properties"))
+        ));
+
+        // when
+        TestSelectionIndex index = TestSelectionIndex.fromReport(testReport);
+
+        // then
+        assertArrayEquals(new int[]{0, 1}, index.getTestSuitesOpeningFile("src/main/resources/x.properties"));
+        assertEquals("src/main/resources/x.properties",
+                index.resolve(newList("src/main/resources/x.properties"), newList()).getSelectionReason(1));
+    }
+
+    @Test
+    void shouldResolveAffectedSetPreferringAffectedFiles() {
+        // given
+        TestSuite fooTest = createTestSuite("FooTest", newSet("a.Foo$1"));
+        fooTest.setOpenedFiles(newSet("/ci/repo/foo/config.xml"));
+        TestReport testReport = new TestReport("report-1", 0x42, 0x42, newList(
+                fooTest,
+                createTestSuite("BarTest", newSet("a.Bar")),
+                createTestSuite("BazTest", newSet("a.Baz"))
+        ));
+        TestSelectionIndex index = TestSelectionIndex.fromReport(testReport);
+
+        // when
+        AffectedSet affectedSet = index.resolve(newSet("foo/config.xml", "unknown.xml"), newSet("a.Foo", "a.Bar", "a.Unknown"));
+
+        // then
+        assertEquals("foo/config.xml", affectedSet.getSelectionReason(0));
+        assertEquals("a.Bar", affectedSet.getSelectionReason(1));
+        assertNull(affectedSet.getSelectionReason(2));
+    }
+
+    @Test
+    void shouldReturnOriginalTestSuitesOfReport() {
+        // given
+        TestSuite fooTest = createTestSuite("FooTest", newSet("a.Foo"));
+        fooTest.setOpenedFiles(newSet("foo.txt"));
+
+        // when
+        TestSelectionIndex index = TestSelectionIndex.fromReport(new TestReport("report-1", 0x42, 0x42, newList(fooTest)));
+
+        // then
+        assertSame(fooTest, index.getTestSuite(0));
+        assertArrayEquals(new int[]{0}, index.getTestSuitesCoveringEntity("a.Foo"));
+        assertArrayEquals(new int[]{0}, index.getTestSuitesOpeningFile("foo.txt"));
+    }
+}
@@ -0,0 +1,57 @@
+package edu.tum.sse.multirts.modules;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static edu.tum.sse.multirts.util.CollectionUtils.newList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ModuleLocationIndexTest {
+
+    @Test
+    void shouldFindInnermostProjectWithoutFileSystemAccess(@TempDir Path tempDir) {
+        // given
+        // None of the project directories exist, so any lookup has to be answered by the index.
+        Path root = tempDir.resolve("root");
+        ModuleLocationIndex index = new ModuleLocationIndex(newList(root, root.resolve("a"), root.resolve("a/b"), root.resolve("c/d")));
+
+        // when / then
+        assertEquals(Optional.of(root.resolve("a/b/pom.xml")), index.findParentPOM(root.resolve("a/b/src/main/java/Foo.java")));
+        assertEquals(Optional.of(root.resolve("a/pom.xml")), index.findParentPOM(root.resolve("a/bb/src")));
+        assertEquals(Optional.of(root.resolve("a/pom.xml")), index.findParentPOM(root.resolve("a")));
+        assertEquals(Optional.of(root.resolve("pom.xml")), index.findParentPOM(root.resolve("c/src/../e")));
+        assertEquals(Optional.of(root.resolve("c/d/pom.xml")), index.findParentPOM(root.resolve("c/d/e")));
+    }
+
+    @Test
+    void shouldFallBackToFileSystemOutsideOfProjects(@TempDir Path tempDir) throws IOException {
+        // given
+        Path otherProject = tempDir.resolve("other");
+        Files.createDirectories(otherProject.resolve("src"));
+        Files.createFile(otherProject.resolve("pom.xml"));
+        ModuleLocationIndex index = new ModuleLocationIndex(newList(tempDir.resolve("root")));
+
+        // when / then
+        assertEquals(Optional.of(otherProject.resolve("pom.xml")), index.findParentPOM(otherProject.resolve("src")));
+        assertEquals(Optional.empty(), index.findParentPOM(null));
+    }
+
+    @Test
+    void shouldMapNonReactorProjectsInsideOfProjectsToEnclosingProject(@TempDir Path tempDir) throws IOException {
+        // given
+        Path module = tempDir.resolve("root/a");
+        Path testProject = module.resolve("src/test/resources/project");
+        Files.createDirectories(testProject.resolve("src"));
+        Files.createFile(testProject.resolve("pom.xml"));
+        ModuleLocationIndex index = new ModuleLocationIndex(newList(tempDir.resolve("root"), module));
+
+        // when / then
+        assertEquals(Optional.of(module.resolve("pom.xml")), index.findParentPOM(testProject.resolve("src")));
+        assertEquals(Optional.of(module.resolve("pom.xml")), index.findParentPOM(testProject));
+    }
+}
@@ -8,6 +8,8 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -84,6 +86,46 @@ class JavaSourceCodeParserTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void shouldIgnoreTypeKeywordsInCommentsAndLiterals() {
+        // given
+        final String code = "/* package x.y; class NoType1 */\n" +
+                "package a.b /* comment */ .c;\n" +
+                "// class NoType2\n" +
+                "public class A {\n" +
+                "  String s = \"class NoType3 \\\" enum NoType4\";\n" +
+                "  String t = \"\"\"\n    interface NoType5 \\\"\"\" class NoType6\n    \"\"\";\n" +
+                "  char c = '\"'; char d = '\\'';\n" +
+                "  Class<?> e = A.class; Class<?> f = B . class;\n" +
+                "  void record(int x) { record(x); }\n" +
+                "  @interface Anno {}\n" +
+                "  record R<T>(T value) { enum E { X } }\n" +
+                "}";
+        final Set<String> expected = Stream.of("a.b.c.A", "a.b.c.Anno", "a.b.c.R", "a.b.c.E")
+                .collect(Collectors.toSet());
+
+        // when
+        final Set<String> actual = JavaSourceCodeParser.getAllFullyQualifiedTypeNames(code);
+
+        // then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldFindTypesWithoutPackage() {
+        // given
+        final String code = "import java.util.List;\n" +
+                "public final class Main { void run() { class Local {} } }";
+
+        // when
+        final JavaSourceCodeParser.JavaSourceFile file = new JavaSourceCodeParser.JavaSourceFile(code);
+
+        // then
+        assertEquals("", file.getPackage());
+        assertEquals("Main", file.getFullPrimaryType());
+        assertEquals(newSet("Main", "Local"), file.getAllFullyQualifiedTypeNames());
+    }
+
     @Test
     void shouldFindAllJavaTestFiles(@TempDir Path tempDir) throws IOException {
         // given
@@ -101,4 +143,59 @@ class JavaSourceCodeParserTest {
         assertEquals(2, paths.size());
         assertTrue(paths.containsAll(newSet(tempDir.resolve("a/TestA.java"), tempDir.resolve("b/BTest.java"))));
     }
+
+    @Test
+    void shouldFindJavaTestFilesOnlyInRootsAndSkipDirectories(@TempDir Path tempDir) throws IOException {
+        // given
+        Files.createDirectories(tempDir.resolve("a/src/test/java/a/target"));
+        Files.createDirectories(tempDir.resolve("b/src/test/java/b"));
+        Files.createDirectories(tempDir.resolve("c/src/test/java/c"));
+        writeToFile(tempDir.resolve("a/src/test/java/a/ATest.java"), "package a; public class ATest {}", false);
+        writeToFile(tempDir.resolve("a/src/test/java/a/target/GeneratedTest.java"), "package a; public class GeneratedTest {}", false);
+        writeToFile(tempDir.resolve("b/src/test/java/b/BTest.java"), "package b; public class BTest {}", false);
+        writeToFile(tempDir.resolve("c/src/test/java/c/CTest.java"), "package c; public class CTest {}", false);
+        final List<Path> roots = Arrays.asList(
+                tempDir.resolve("a/src/test/java"),
+                tempDir.resolve("a/src/test/java/a"),
+                tempDir.resolve("b/src/test/java"),
+                tempDir.resolve("missing/src/test/java")
+        );
+
+        // when
+        Set<Path> paths = JavaSourceCodeParser.findAllJavaTestFiles(roots, newSet("target"));
+
+        // then
+        assertEquals(newSet(tempDir.resolve("a/src/test/java/a/ATest.java"), tempDir.resolve("b/src/test/java/b/BTest.java")), paths);
+    }
+
+    @Test
+    void shouldReadPackageFromHeader(@TempDir Path tempDir) throws IOException {
+        // given
+        StringBuilder licenseHeader = new StringBuilder("/*\n");
+        for (int i = 0; i < 1000; i++) {
+            licenseHeader.append(" * Licensed under the Apache License, Version 2.0 (the \"License\").\n");
+        }
+        licenseHeader.append(" */\n");
+        writeToFile(tempDir.resolve("LicensedTest.java"), licenseHeader + "package a.b;\npublic class LicensedTest {}", false);
+        writeToFile(tempDir.resolve("ShortLicenseTest.java"), "/* package x; */ package a.c;\npublic class ShortLicenseTest {}", false);
+        writeToFile(tempDir.resolve("DefaultTest.java"), "\uFEFF// no package\nimport java.util.List;\npublic class DefaultTest {}", false);
+        writeToFile(tempDir.resolve("package-info.java"), "@Deprecated\npackage a.d;", false);
+
+        // when / then
+        assertEquals("a.b.LicensedTest", JavaSourceCodeParser.getFullyQualifiedTypeName(tempDir.resolve("LicensedTest.java")));
+        assertEquals("a.c.ShortLicenseTest", JavaSourceCodeParser.getFullyQualifiedTypeName(tempDir.resolve("ShortLicenseTest.java")));
+        assertEquals("DefaultTest", JavaSourceCodeParser.getFullyQualifiedTypeName(tempDir.resolve("DefaultTest.java")));
+        assertEquals("a.d", JavaSourceCodeParser.getPackageName(tempDir.resolve("package-info.java")));
+    }
+
+    @Test
+    void shouldOnlyScanCompletePackageDeclarations() {
+        assertNull(JavaTypeScanner.scanPackage("/* unterminated license"));
+        assertNull(JavaTypeScanner.scanPackage("// license\npack"));
+        assertNull(JavaTypeScanner.scanPackage("package a.b"));
+        assertNull(JavaTypeScanner.scanPackage("@Generated package a.b;"));
+        assertEquals("a.b", JavaTypeScanner.scanPackage("// license\npackage a . b ; import"));
+        assertEquals("", JavaTypeScanner.scanPackage("import a.b.C;"));
+        assertEquals("", JavaTypeScanner.scanPackage("public class"));
+    }
 }
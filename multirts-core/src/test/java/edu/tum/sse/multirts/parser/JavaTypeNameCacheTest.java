@@ -0,0 +1,47 @@
+package edu.tum.sse.multirts.parser;
+
+import edu.tum.sse.multirts.vcs.GitObjectCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.tum.sse.multirts.util.CollectionUtils.newSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JavaTypeNameCacheTest {
+
+    @Test
+    void shouldComputeGitBlobId() {
+        // Same as `echo -n "abc" | git hash-object --stdin`.
+        assertEquals("f2ba8f84ab5c1bce84a7b441cb1959cfc7093b7f", JavaTypeNameCache.computeBlobId("abc".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldParseEachBlobOnlyOnce(@TempDir Path tmpDir) throws IOException {
+        // given
+        Path sourceFile = tmpDir.resolve("src").resolve("FooTest.java");
+        Files.createDirectories(sourceFile.getParent());
+        String content = "package foo; public class FooTest { class Inner {} }";
+        Files.write(sourceFile, content.getBytes(StandardCharsets.UTF_8));
+        String blobId = JavaTypeNameCache.computeBlobId(content.getBytes(StandardCharsets.UTF_8));
+        JavaTypeNameCache typeNameCache = new JavaTypeNameCache(new GitObjectCache(tmpDir.resolve("cache"), 1024 * 1024));
+        AtomicInteger contentReads = new AtomicInteger();
+
+        // when
+        typeNameCache.getAllFullyQualifiedTypeNames(sourceFile);
+        JavaTypeNameCache otherTypeNameCache = new JavaTypeNameCache(new GitObjectCache(tmpDir.resolve("cache"), 1024 * 1024));
+
+        // then
+        assertEquals(newSet("foo.FooTest", "foo.Inner"), otherTypeNameCache.getAllFullyQualifiedTypeNames(blobId, () -> {
+            contentReads.incrementAndGet();
+            return content;
+        }));
+        assertEquals("foo.FooTest", otherTypeNameCache.getFullyQualifiedTypeName(sourceFile));
+        assertEquals(0, contentReads.get());
+    }
+}
@@ -0,0 +1,41 @@
+package edu.tum.sse.multirts.prioritization;
+
+import edu.tum.sse.multirts.prioritization.SurefireReportReader.TestSuiteResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SurefireReportReaderTest {
+
+    @Test
+    void shouldReadTestSuiteResults(@TempDir Path tempDir) throws IOException {
+        // given
+        writeToFile(tempDir.resolve("TEST-a.FooTest.xml"), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<testsuite name=\"a.FooTest\" time=\"1,234.5\" tests=\"2\" errors=\"0\" skipped=\"0\" failures=\"1\">" +
+                "<testcase name=\"foo\" classname=\"a.FooTest\" time=\"0.1\"><failure message=\"boom\"/></testcase></testsuite>", false);
+        writeToFile(tempDir.resolve("TEST-a.BarTest.xml"), "<testsuite name=\"a.BarTest\" time=\"0.5\" tests=\"1\" errors=\"0\" skipped=\"0\" failures=\"0\"/>", false);
+        writeToFile(tempDir.resolve("TEST-a.SkippedTest.xml"), "<testsuite name=\"a.SkippedTest\" time=\"0\" tests=\"1\" skipped=\"1\"/>", false);
+        writeToFile(tempDir.resolve("TEST-a.BrokenTest.xml"), "<testsuite name=", false);
+        writeToFile(tempDir.resolve("a.FooTest.txt"), "not a report", false);
+
+        // when
+        List<TestSuiteResult> results = SurefireReportReader.readDirectory(tempDir);
+        results.sort(Comparator.comparing(TestSuiteResult::getTestId));
+
+        // then
+        assertEquals(2, results.size());
+        assertEquals("a.BarTest", results.get(0).getTestId());
+        assertFalse(results.get(0).isFailed());
+        assertEquals(500, results.get(0).getDurationMillis());
+        assertEquals("a.FooTest", results.get(1).getTestId());
+        assertTrue(results.get(1).isFailed());
+        assertEquals(1_234_500, results.get(1).getDurationMillis());
+    }
+}
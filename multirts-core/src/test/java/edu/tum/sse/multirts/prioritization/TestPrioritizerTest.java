@@ -0,0 +1,89 @@
+package edu.tum.sse.multirts.prioritization;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.SelectionCause;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static edu.tum.sse.multirts.util.CollectionUtils.newList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestPrioritizerTest {
+
+    private static SelectedTestSuite createSelectedTestSuite(final String testId, final SelectionCause selectionCause, final long durationMillis) {
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId(testId);
+        if (durationMillis > 0) {
+            testSuite.setStartTimestamp(1000);
+            testSuite.setEndTimestamp(1000 + durationMillis);
+        }
+        return new SelectedTestSuite(selectionCause, testSuite);
+    }
+
+    private static List<String> getTestIds(final List<SelectedTestSuite> selectedTestSuites) {
+        return selectedTestSuites.stream().map(selected -> selected.getTestSuite().getTestId()).collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldPrioritizeDirectlyAffectedAndShortTestsWithoutHistory() {
+        // given
+        List<SelectedTestSuite> selectedTestSuites = newList(
+                createSelectedTestSuite("BuildTest", SelectionCause.BUILD_CHANGE, 1000),
+                createSelectedTestSuite("SlowTest", SelectionCause.AFFECTED, 60_000),
+                createSelectedTestSuite("FastTest", SelectionCause.AFFECTED, 1000),
+                createSelectedTestSuite("ChangedTest", SelectionCause.ADDED_CHANGED, 0)
+        );
+
+        // when
+        List<SelectedTestSuite> prioritized = new TestPrioritizer(new TestHistory()).prioritize(selectedTestSuites);
+
+        // then
+        assertEquals(newList("ChangedTest", "FastTest", "BuildTest", "SlowTest"), getTestIds(prioritized));
+    }
+
+    @Test
+    void shouldPrioritizeFrequentlyFailingTests(@TempDir Path tempDir) throws IOException {
+        // given
+        TestHistory history = new TestHistory();
+        for (int run = 0; run < 10; run++) {
+            history.record("FlakyTest", run % 2 == 0, 2000);
+            history.record("StableTest", false, 1000);
+        }
+        history.save(tempDir.resolve("history.tsv"));
+        List<SelectedTestSuite> selectedTestSuites = newList(
+                createSelectedTestSuite("StableTest", SelectionCause.AFFECTED, 0),
+                createSelectedTestSuite("FlakyTest", SelectionCause.AFFECTED, 0)
+        );
+
+        // when
+        TestHistory loadedHistory = TestHistory.load(tempDir.resolve("history.tsv"));
+        List<SelectedTestSuite> prioritized = new TestPrioritizer(loadedHistory).prioritize(selectedTestSuites);
+
+        // then
+        assertEquals(10, loadedHistory.getRuns("FlakyTest"));
+        assertEquals(5, loadedHistory.getFailures("FlakyTest"));
+        assertEquals(newList("FlakyTest", "StableTest"), getTestIds(prioritized));
+    }
+
+    @Test
+    void shouldAgeOutOldFailures() {
+        // given
+        TestHistory history = new TestHistory();
+        for (int run = 0; run < TestHistory.MAX_RUNS; run++) {
+            history.record("FooTest", run < 10, 1000);
+        }
+
+        // when
+        history.record("FooTest", false, 1000);
+
+        // then
+        assertEquals((TestHistory.MAX_RUNS + 2) / 2, history.getRuns("FooTest"));
+        assertEquals(5, history.getFailures("FooTest"));
+    }
+}
@@ -0,0 +1,90 @@
+package edu.tum.sse.multirts.prioritization;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.SelectionCause;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static edu.tum.sse.multirts.util.CollectionUtils.newList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestSharderTest {
+
+    private static SelectedTestSuite createSelectedTestSuite(final String testId) {
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId(testId);
+        return new SelectedTestSuite(SelectionCause.AFFECTED, testSuite);
+    }
+
+    private static List<String> getTestIds(final List<SelectedTestSuite> selectedTestSuites) {
+        return selectedTestSuites.stream().map(selected -> selected.getTestSuite().getTestId()).collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldBalanceShardsByDuration() {
+        // given
+        TestHistory history = new TestHistory();
+        history.record("ATest", false, 3000);
+        history.record("BTest", false, 3000);
+        history.record("CTest", false, 2000);
+        history.record("DTest", false, 2000);
+        history.record("ETest", false, 2000);
+        List<SelectedTestSuite> selectedTestSuites = newList(
+                createSelectedTestSuite("ETest"),
+                createSelectedTestSuite("ATest"),
+                createSelectedTestSuite("CTest"),
+                createSelectedTestSuite("BTest"),
+                createSelectedTestSuite("DTest")
+        );
+
+        // when
+        List<List<SelectedTestSuite>> shards = new TestSharder(history).partition(selectedTestSuites, 2);
+
+        // then
+        // LPT assigns A and B, then E and C (ties broken by input order), then D to the least loaded shards.
+        assertEquals(newList("ETest", "ATest", "DTest"), getTestIds(shards.get(0)));
+        assertEquals(newList("CTest", "BTest"), getTestIds(shards.get(1)));
+    }
+
+    @Test
+    void shouldCreateEmptyShardsForFewerTestsThanShards() {
+        // given
+        List<SelectedTestSuite> selectedTestSuites = newList(createSelectedTestSuite("ATest"));
+
+        // when
+        List<List<SelectedTestSuite>> shards = new TestSharder(new TestHistory()).partition(selectedTestSuites, 3);
+
+        // then
+        assertEquals(3, shards.size());
+        assertEquals(newList("ATest"), getTestIds(shards.get(0)));
+        assertTrue(shards.get(1).isEmpty());
+        assertTrue(shards.get(2).isEmpty());
+    }
+
+    @Test
+    void shouldFindShortestNonEmptyShard() {
+        // given
+        TestHistory history = new TestHistory();
+        history.record("ATest", false, 3000);
+        history.record("BTest", false, 1000);
+        history.record("CTest", false, 1500);
+        TestSharder sharder = new TestSharder(history);
+        List<List<SelectedTestSuite>> shards = newList(
+                newList(createSelectedTestSuite("ATest")),
+                newList(),
+                newList(createSelectedTestSuite("BTest")),
+                newList(createSelectedTestSuite("CTest"))
+        );
+
+        // when
+        int shortestShard = sharder.getShortestShard(shards);
+
+        // then
+        assertEquals(2, shortestShard);
+        assertEquals(0, sharder.getShortestShard(newList(newList(), newList())));
+    }
+}
@@ -2,6 +2,7 @@ package edu.tum.sse.multirts.rts;
 
 import edu.tum.sse.jtec.reporting.TestReport;
 import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.index.TestSelectionIndex;
 import edu.tum.sse.multirts.vcs.GitClient;
 import edu.tum.sse.multirts.vcs.GitTestUtils;
 import org.eclipse.jgit.api.Git;
@@ -14,8 +15,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
 import static edu.tum.sse.multirts.util.CollectionUtils.*;
@@ -73,13 +77,29 @@ class FileLevelTestSelectionTest {
         tmpDir.toFile().delete();
     }
 
+    @Test
+    void shouldKeepSelectionReasonPerTestSuite() throws GitAPIException, IOException {
+        // given
+        writeToFile(tmpDir.resolve("Foo.java"), "package foo; public class Foo { void bar(){} }", false);
+        writeToFile(tmpDir.resolve("Bar.java"), "package foo; public class Bar { void foo(){} }", false);
+        GitTestUtils.commitEverything(repo);
+
+        // when
+        FileLevelTestSelection rts = new FileLevelTestSelection(testReport, gitClient, targetBranch, Collections.emptyMap());
+        TestSelectionResult actual = rts.execute(gitClient.getDiff(targetBranch, sourceBranch), Collections.emptySet());
+
+        // then
+        assertEquals(newList("foo.Foo", "foo.Bar"),
+                actual.getSelectedTestSuites().stream().map(SelectedTestSuite::getReason).collect(Collectors.toList()));
+    }
+
     @Test
     void shouldSelectTestsForModifiedJavaClass() throws GitAPIException, IOException {
         // given
         writeToFile(tmpDir.resolve("Foo.java"), "package foo; public class Foo { void bar(){} }", false);
         GitTestUtils.commitEverything(repo);
         TestSelectionResult expectedResult = new TestSelectionResult(
-                newList(new SelectedTestSuite(SelectionCause.AFFECTED.setReason("foo.Foo"), testSuite1)),
+                newList(new SelectedTestSuite(SelectionCause.AFFECTED, "foo.Foo", testSuite1)),
                 newList(testSuite2)
         );
 
@@ -119,7 +139,7 @@ class FileLevelTestSelectionTest {
         repo.add().setUpdate(true).addFilepattern(".").call();
         GitTestUtils.commit(repo);
         TestSelectionResult expectedResult = new TestSelectionResult(
-                newList(new SelectedTestSuite(SelectionCause.AFFECTED.setReason("foo.Foo"), testSuite1)),
+                newList(new SelectedTestSuite(SelectionCause.AFFECTED, "foo.Foo", testSuite1)),
                 newList(testSuite2)
         );
 
@@ -137,7 +157,7 @@ class FileLevelTestSelectionTest {
         writeToFile(tmpDir.resolve("foo.txt"), "bar", false);
         GitTestUtils.commitEverything(repo);
         TestSelectionResult expectedResult = new TestSelectionResult(
-                newList(new SelectedTestSuite(SelectionCause.AFFECTED.setReason("foo.txt"), testSuite1)),
+                newList(new SelectedTestSuite(SelectionCause.AFFECTED, "foo.txt", testSuite1)),
                 newList(testSuite2)
         );
 
@@ -157,7 +177,7 @@ class FileLevelTestSelectionTest {
         repo.add().setUpdate(true).addFilepattern(".").call();
         GitTestUtils.commit(repo);
         TestSelectionResult expectedResult = new TestSelectionResult(
-                newList(new SelectedTestSuite(SelectionCause.AFFECTED.setReason("foo.txt"), testSuite1)),
+                newList(new SelectedTestSuite(SelectionCause.AFFECTED, "foo.txt", testSuite1)),
                 newList(testSuite2)
         );
 
@@ -175,7 +195,7 @@ class FileLevelTestSelectionTest {
         writeToFile(tmpDir.resolve("Bar.cpp"), "struct Bar {};", false);
         GitTestUtils.commitEverything(repo);
         TestSelectionResult expectedResult = new TestSelectionResult(
-                newList(new SelectedTestSuite(SelectionCause.AFFECTED.setReason("lib_bar.dll"), testSuite2)),
+                newList(new SelectedTestSuite(SelectionCause.AFFECTED, "lib_bar.dll", testSuite2)),
                 newList(testSuite1)
         );
 
@@ -202,4 +222,60 @@ class FileLevelTestSelectionTest {
         // then
         assertEquals(expectedResult, actual);
     }
+
+    @Test
+    void shouldSelectTestsOpeningChangedExternalFileFromAnyDirectory() throws GitAPIException, IOException {
+        // given
+        Files.createDirectories(tmpDir.resolve("src/main/resources"));
+        writeToFile(tmpDir.resolve("src/main/resources/x.properties"), "x=1", false);
+        GitTestUtils.commitEverything(repo);
+        String sourceBranchWithResources = sourceBranch + "-resources";
+        GitTestUtils.checkout(repo, sourceBranchWithResources, true);
+        writeToFile(tmpDir.resolve("src/main/resources/x.properties"), "x=2", false);
+        GitTestUtils.commitEverything(repo);
+        TestSuite resourceTest = createTestSuite("ResourceTest", newSet(tmpDir.resolve("src/main/resources/x.properties").toString()), newSet());
+        TestSuite classpathTest = createTestSuite("ClasspathTest", newSet(tmpDir.resolve("target/classes/x.properties").toString()), newSet());
+        TestSuite otherTest = createTestSuite("OtherTest", newSet(tmpDir.resolve("src/main/resources/y.properties").toString()), newSet());
+        TestReport report = new TestReport("report-2", 0x42, 0x42, newList(resourceTest, classpathTest, otherTest));
+        TestSelectionResult expectedResult = new TestSelectionResult(
+                newList(new SelectedTestSuite(SelectionCause.AFFECTED, resourceTest), new SelectedTestSuite(SelectionCause.AFFECTED, classpathTest)),
+                newList(otherTest)
+        );
+
+        // when
+        FileLevelTestSelection rts = new FileLevelTestSelection(report, gitClient, sourceBranch, Collections.emptyMap());
+        TestSelectionResult actual = rts.execute(gitClient.getDiff(sourceBranch, sourceBranchWithResources), Collections.emptySet());
+
+        // then
+        assertEquals(expectedResult, actual);
+    }
+
+    @Test
+    void shouldSelectSameTestsInReportOrderWithMultipleThreads() throws GitAPIException, IOException {
+        // given
+        writeToFile(tmpDir.resolve("Foo.java"), "package foo; public class Foo { void bar(){} }", false);
+        writeToFile(tmpDir.resolve("foo.txt"), "changed", false);
+        GitTestUtils.commitEverything(repo);
+        List<TestSuite> testSuites = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 3 == 0) {
+                testSuites.add(createTestSuite("FooTest" + i, newSet(), newSet("foo.Foo$" + i)));
+            } else if (i % 7 == 0) {
+                testSuites.add(createTestSuite("FooFileTest" + i, newSet("/ci/foo.txt"), newSet()));
+            } else {
+                testSuites.add(createTestSuite("BarTest" + i, newSet("bar.txt"), newSet("foo.Bar")));
+            }
+        }
+        TestSelectionIndex index = TestSelectionIndex.fromReport(new TestReport("report-3", 0x42, 0x42, testSuites));
+
+        // when
+        TestSelectionResult sequential = new FileLevelTestSelection(index, gitClient, targetBranch, Collections.emptyMap(), 1, 1)
+                .execute(gitClient.getDiff(targetBranch, sourceBranch), Collections.emptySet());
+        TestSelectionResult parallel = new FileLevelTestSelection(index, gitClient, targetBranch, Collections.emptyMap(), 4, 4)
+                .execute(gitClient.getDiff(targetBranch, sourceBranch), Collections.emptySet());
+
+        // then
+        assertEquals(3334 + 952, sequential.getSelectedTestSuites().size());
+        assertEquals(sequential, parallel);
+    }
 }
@@ -0,0 +1,154 @@
+package edu.tum.sse.multirts.rts;
+
+import edu.tum.sse.jtec.reporting.TestSuite;
+import edu.tum.sse.multirts.vcs.GitClient;
+import edu.tum.sse.multirts.vcs.GitTestUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static edu.tum.sse.multirts.util.CollectionUtils.newList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSelectionTest {
+
+    @TempDir
+    Path tempDir;
+    Path stateFile;
+    Git repo;
+    GitClient gitClient;
+
+    private static TestSuite createTestSuite(final String testId) {
+        TestSuite testSuite = new TestSuite();
+        testSuite.setTestId(testId);
+        return testSuite;
+    }
+
+    private static TestSelectionResult createResult(final List<String> selected, final List<String> excluded) {
+        return new TestSelectionResult(
+                selected.stream().map(testId -> new SelectedTestSuite(SelectionCause.ADDED_CHANGED, createTestSuite(testId))).collect(Collectors.toList()),
+                excluded.stream().map(IncrementalSelectionTest::createTestSuite).collect(Collectors.toList())
+        );
+    }
+
+    private static List<String> getSelectedTestIds(final TestSelectionResult result) {
+        return result.getSelectedTestSuites().stream().map(selected -> selected.getTestSuite().getTestId()).collect(Collectors.toList());
+    }
+
+    private RevCommit commitFile(final String file, final String content) throws IOException, GitAPIException {
+        writeToFile(tempDir.resolve("repo").resolve(file), content, false);
+        return GitTestUtils.commitEverything(repo);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException, GitAPIException {
+        stateFile = tempDir.resolve("selection.state");
+        repo = Git.init().setDirectory(tempDir.resolve("repo").toFile()).setInitialBranch("main").call();
+        commitFile("foo.txt", "foo");
+        GitTestUtils.checkout(repo, "feature", true);
+        gitClient = new GitClient(repo);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gitClient.close();
+        repo.getRepository().close();
+    }
+
+    @Test
+    void shouldContinueSelectionForNewCommits() throws IOException, GitAPIException {
+        // given
+        RevCommit firstPush = commitFile("foo.txt", "bar");
+        IncrementalSelection first = new IncrementalSelection(gitClient, stateFile, "config", "main", "HEAD");
+        first.save(first.merge(createResult(newList("FooTest"), newList("BarTest", "BazTest"))));
+        commitFile("bar.txt", "bar");
+
+        // when
+        IncrementalSelection second = new IncrementalSelection(gitClient, stateFile, "config", "main", "HEAD");
+        TestSelectionResult delta = createResult(newList("BarTest", "FooTest"), newList("BazTest"));
+        TestSelectionResult merged = second.merge(delta);
+
+        // then
+        assertFalse(first.isIncremental());
+        assertEquals("main", first.getBaseRevision());
+        assertTrue(second.isIncremental());
+        assertEquals(firstPush.getName(), second.getBaseRevision());
+        assertEquals(newList("FooTest", "BarTest"), getSelectedTestIds(merged));
+        assertEquals(newList("BazTest"), merged.getExcludedTestSuites().stream().map(TestSuite::getTestId).collect(Collectors.toList()));
+        assertEquals(newList("BarTest"), getSelectedTestIds(second.getNewlySelected(delta)));
+    }
+
+    @Test
+    void shouldKeepTimestampsOfPreviouslySelectedTestSuites() throws IOException, GitAPIException {
+        // given
+        commitFile("foo.txt", "bar");
+        TestSuite fooTest = createTestSuite("FooTest");
+        fooTest.setStartTimestamp(1000);
+        fooTest.setEndTimestamp(3000);
+        TestSuite barTest = createTestSuite("BarTest");
+        barTest.setStartTimestamp(1000);
+        barTest.setEndTimestamp(2000);
+        IncrementalSelection first = new IncrementalSelection(gitClient, stateFile, "config", "main", "HEAD");
+        first.save(first.merge(new TestSelectionResult(newList(
+                new SelectedTestSuite(SelectionCause.AFFECTED, fooTest),
+                new SelectedTestSuite(SelectionCause.AFFECTED, barTest)), newList())));
+        commitFile("bar.txt", "bar");
+        TestSuite reportedFooTest = createTestSuite("FooTest");
+        reportedFooTest.setStartTimestamp(5000);
+        reportedFooTest.setEndTimestamp(5500);
+
+        // when
+        IncrementalSelection second = new IncrementalSelection(gitClient, stateFile, "config", "main", "HEAD");
+        TestSelectionResult merged = second.merge(new TestSelectionResult(newList(), newList(reportedFooTest)));
+
+        // then
+        assertEquals(newList("FooTest", "BarTest"), getSelectedTestIds(merged));
+        // FooTest is taken from the current report, BarTest (which is not part of it) from the state.
+        assertSame(reportedFooTest, merged.getSelectedTestSuites().get(0).getTestSuite());
+        assertEquals(1000, merged.getSelectedTestSuites().get(1).getTestSuite().getStartTimestamp());
+        assertEquals(2000, merged.getSelectedTestSuites().get(1).getTestSuite().getEndTimestamp());
+    }
+
+    @Test
+    void shouldSelectFromScratchForRewrittenHistory() throws IOException, GitAPIException {
+        // given
+        commitFile("foo.txt", "bar");
+        IncrementalSelection first = new IncrementalSelection(gitClient, stateFile, "config", "main", "HEAD");
+        first.save(first.merge(createResult(newList("FooTest"), newList())));
+        repo.reset().setMode(ResetCommand.ResetType.HARD).setRef("main").call();
+        commitFile("bar.txt", "bar");
+
+        // when
+        IncrementalSelection second = new IncrementalSelection(gitClient, stateFile, "config", "main", "HEAD");
+
+        // then
+        assertFalse(second.isIncremental());
+        assertEquals("main", second.getBaseRevision());
+    }
+
+    @Test
+    void shouldSelectFromScratchForChangedConfiguration() throws IOException, GitAPIException {
+        // given
+        commitFile("foo.txt", "bar");
+        IncrementalSelection first = new IncrementalSelection(gitClient, stateFile, "config", "main", "HEAD");
+        first.save(first.merge(createResult(newList("FooTest"), newList())));
+        commitFile("bar.txt", "bar");
+
+        // when
+        IncrementalSelection second = new IncrementalSelection(gitClient, stateFile, "changed-config", "main", "HEAD");
+
+        // then
+        assertFalse(second.isIncremental());
+    }
+}
@@ -0,0 +1,126 @@
+package edu.tum.sse.multirts.rts;
+
+import edu.tum.sse.multirts.parser.JavaTypeNameCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static edu.tum.sse.jtec.util.IOUtils.writeToFile;
+import static edu.tum.sse.multirts.util.CollectionUtils.newSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalTestFileScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    Path root;
+    Path stateFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = tempDir.resolve("src/test/java").toAbsolutePath().normalize();
+        stateFile = tempDir.resolve("state/test-files.state");
+        Files.createDirectories(root.resolve("a/target"));
+        Files.createDirectories(root.resolve("b"));
+        writeToFile(root.resolve("a/ATest.java"), "package a; public class ATest {}", false);
+        writeToFile(root.resolve("a/A.java"), "package a; public class A {}", false);
+        writeToFile(root.resolve("a/target/GeneratedTest.java"), "package a; public class GeneratedTest {}", false);
+        writeToFile(root.resolve("b/BTest.java"), "package b; public class BTest {}", false);
+    }
+
+    private Map<Path, String> scan(Path... changedFiles) throws IOException {
+        return scan(newSet("target"), changedFiles);
+    }
+
+    private Map<Path, String> scan(Set<String> skippedDirectories, Path... changedFiles) throws IOException {
+        IncrementalTestFileScanner scanner = new IncrementalTestFileScanner(stateFile, skippedDirectories, new JavaTypeNameCache(null));
+        Map<Path, String> testFiles = scanner.scan(Collections.singletonList(root), newSet(changedFiles));
+        scanner.save();
+        return testFiles;
+    }
+
+    /**
+     * Moves the modification time of all directories to the past, as directories modified right before a scan are always listed again.
+     */
+    private void backdateDirectories() throws IOException {
+        FileTime past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path directory : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                Files.setLastModifiedTime(directory, past);
+            }
+        }
+    }
+
+    @Test
+    void shouldFindAllTestFilesWithoutState() throws IOException {
+        // when
+        Map<Path, String> testFiles = scan();
+
+        // then
+        assertEquals(2, testFiles.size());
+        assertEquals("a.ATest", testFiles.get(root.resolve("a/ATest.java")));
+        assertEquals("b.BTest", testFiles.get(root.resolve("b/BTest.java")));
+    }
+
+    @Test
+    void shouldOnlyParseChangedFilesFromUnchangedDirectories() throws IOException {
+        // given
+        backdateDirectories();
+        scan();
+        writeToFile(root.resolve("a/ATest.java"), "package c; public class ATest {}", false);
+        writeToFile(root.resolve("b/BTest.java"), "package c; public class BTest {}", false);
+
+        // when
+        Map<Path, String> testFiles = scan(root.resolve("b/BTest.java"));
+
+        // then
+        // The modification of ATest.java is neither visible in its directory nor in the changed files.
+        assertEquals("a.ATest", testFiles.get(root.resolve("a/ATest.java")));
+        assertEquals("c.BTest", testFiles.get(root.resolve("b/BTest.java")));
+    }
+
+    @Test
+    void shouldRescanChangedDirectories() throws IOException {
+        // given
+        backdateDirectories();
+        scan();
+        Files.delete(root.resolve("b/BTest.java"));
+        Files.createDirectories(root.resolve("a/c"));
+        writeToFile(root.resolve("a/c/CTest.java"), "package a.c; public class CTest {}", false);
+
+        // when
+        Map<Path, String> testFiles = scan();
+
+        // then
+        assertEquals(2, testFiles.size());
+        assertEquals("a.ATest", testFiles.get(root.resolve("a/ATest.java")));
+        assertEquals("a.c.CTest", testFiles.get(root.resolve("a/c/CTest.java")));
+    }
+
+    @Test
+    void shouldApplyChangedSkippedDirectoriesToUnchangedDirectories() throws IOException {
+        // given
+        backdateDirectories();
+        scan();
+
+        // when
+        Map<Path, String> withoutSkippedDirectories = scan(newSet());
+        Map<Path, String> withSkippedDirectories = scan(newSet("target", "b"));
+
+        // then
+        assertEquals(3, withoutSkippedDirectories.size());
+        assertEquals("a.GeneratedTest", withoutSkippedDirectories.get(root.resolve("a/target/GeneratedTest.java")));
+        assertEquals(1, withSkippedDirectories.size());
+        assertEquals("a.ATest", withSkippedDirectories.get(root.resolve("a/ATest.java")));
+    }
+}
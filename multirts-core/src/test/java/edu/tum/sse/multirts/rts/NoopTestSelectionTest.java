@@ -20,7 +20,7 @@ class NoopTestSelectionTest {
         TestSuite ts2 = new TestSuite();
         ts2.setTestId("ts2");
         List<SelectedTestSuite> selectedTestSuites = Arrays.asList(
-                new SelectedTestSuite(SelectionCause.RETEST_ALL.setReason("noop"), ts1), new SelectedTestSuite(SelectionCause.RETEST_ALL.setReason("noop"), ts2)
+                new SelectedTestSuite(SelectionCause.RETEST_ALL, "noop", ts1), new SelectedTestSuite(SelectionCause.RETEST_ALL, "noop", ts2)
         );
         TestSelectionResult expectedResult = new TestSelectionResult(selectedTestSuites, Collections.emptyList());
         TestReport testReport = new TestReport("report-1", 0x42, 0x42, Arrays.asList(ts1, ts2));
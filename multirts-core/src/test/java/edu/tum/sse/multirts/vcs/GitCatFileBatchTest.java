@@ -0,0 +1,59 @@
+package edu.tum.sse.multirts.vcs;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GitCatFileBatchTest {
+
+    Path tmpDir;
+    Git repo;
+    GitCatFileBatch catFileBatch;
+
+    @BeforeEach
+    void setUp() throws IOException, GitAPIException {
+        tmpDir = Files.createTempDirectory("tmpDirPrefix").toAbsolutePath();
+        repo = Git.init().setDirectory(tmpDir.toFile()).call();
+        catFileBatch = new GitCatFileBatch(tmpDir);
+    }
+
+    @AfterEach
+    void tearDown() {
+        catFileBatch.close();
+        repo.getRepository().close();
+        tmpDir.toFile().delete();
+    }
+
+    @Test
+    void shouldReadRawContentOfMultipleObjects() throws GitAPIException, IOException {
+        // given
+        final byte[] fooContent = "line 1\r\nline 2\n".getBytes();
+        final byte[] barContent = new byte[]{0, 1, '\n', (byte) 0xFF};
+        Files.write(tmpDir.resolve("foo.txt"), fooContent);
+        Files.createDirectories(tmpDir.resolve("bar"));
+        Files.write(tmpDir.resolve("bar/bar.bin"), barContent);
+        RevCommit commit = GitTestUtils.commitEverything(repo);
+
+        // when
+        byte[] actualFooContent = catFileBatch.read(commit.getName() + ":foo.txt");
+        byte[] actualBarContent = catFileBatch.read(commit.getName() + ":bar/bar.bin");
+        byte[] actualMissingContent = catFileBatch.read(commit.getName() + ":missing.txt");
+        byte[] actualFooContentAgain = catFileBatch.read(commit.getName() + ":foo.txt");
+
+        // then
+        assertArrayEquals(fooContent, actualFooContent);
+        assertArrayEquals(barContent, actualBarContent);
+        assertNull(actualMissingContent);
+        assertArrayEquals(fooContent, actualFooContentAgain);
+    }
+}
@@ -149,6 +149,44 @@ class GitClientTest {
         assertEquals(expectedChangeSet, actualChangeSet);
     }
 
+    @Test
+    void shouldComputeSameDiffInProcessAsGitDiff() throws GitAPIException, IOException {
+        // given
+        createFileAndEnclosingDir(tmpDir.resolve("whitespace.txt"));
+        writeToFile(tmpDir.resolve("whitespace.txt"), "a b\nc\n", false);
+        createFileAndEnclosingDir(tmpDir.resolve("blank.txt"));
+        writeToFile(tmpDir.resolve("blank.txt"), "a\nb\n", false);
+        createFileAndEnclosingDir(tmpDir.resolve("foo/modified.txt"));
+        writeToFile(tmpDir.resolve("foo/modified.txt"), "foo\n", false);
+        createFileAndEnclosingDir(tmpDir.resolve("foo/deleted.txt"));
+        writeToFile(tmpDir.resolve("foo/deleted.txt"), "bar\n", false);
+        createFileAndEnclosingDir(tmpDir.resolve("unchanged.txt"));
+        writeToFile(tmpDir.resolve("unchanged.txt"), "baz\n", false);
+        RevCommit sourceRev = GitTestUtils.commitEverything(repo);
+        writeToFile(tmpDir.resolve("whitespace.txt"), "a  b\r\nc", false);
+        writeToFile(tmpDir.resolve("blank.txt"), "a\n\nb\n", false);
+        writeToFile(tmpDir.resolve("foo/modified.txt"), "foo2\n", false);
+        Files.delete(tmpDir.resolve("foo/deleted.txt"));
+        createFileAndEnclosingDir(tmpDir.resolve("foo/empty.txt"));
+        repo.add().addFilepattern(".").call();
+        repo.add().setUpdate(true).addFilepattern(".").call();
+        RevCommit targetRev = GitTestUtils.commit(repo);
+        Set<ChangeSetItem> expectedChangeSet = Stream.of(
+                new ChangeSetItem(ChangeType.MODIFIED, tmpDir.relativize(tmpDir.resolve("blank.txt"))),
+                new ChangeSetItem(ChangeType.MODIFIED, tmpDir.relativize(tmpDir.resolve("foo/modified.txt"))),
+                new ChangeSetItem(ChangeType.DELETED, tmpDir.relativize(tmpDir.resolve("foo/deleted.txt"))),
+                new ChangeSetItem(ChangeType.ADDED, tmpDir.relativize(tmpDir.resolve("foo/empty.txt")))
+        ).collect(Collectors.toCollection(HashSet::new));
+
+        // when
+        Set<ChangeSetItem> actualChangeSet = gitClient.getDiff(sourceRev.getName(), targetRev.getName());
+        Set<ChangeSetItem> commandLineChangeSet = gitClient.getDiffFromCommandLine(sourceRev.getName() + "..." + targetRev.getName());
+
+        // then
+        assertEquals(expectedChangeSet, actualChangeSet);
+        assertEquals(commandLineChangeSet, actualChangeSet);
+    }
+
     @Test
     void shouldReturnModifiedFileForGitStatus() throws GitAPIException, IOException {
         // given
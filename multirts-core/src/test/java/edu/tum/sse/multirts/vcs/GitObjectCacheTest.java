@@ -0,0 +1,97 @@
+package edu.tum.sse.multirts.vcs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GitObjectCacheTest {
+
+    private static final String BLOB_ID_1 = "1111111111111111111111111111111111111111";
+    private static final String BLOB_ID_2 = "2222222222222222222222222222222222222222";
+    private static final String BLOB_ID_3 = "3333333333333333333333333333333333333333";
+
+    Path tmpDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("tmpDirPrefix").toAbsolutePath();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tmpDir.toFile().delete();
+    }
+
+    @Test
+    void shouldPersistBlobsAndDiffsAcrossInstances() {
+        // given
+        Set<ChangeSetItem> changeSet = Stream.of(
+                new ChangeSetItem(ChangeType.ADDED, Paths.get("foo/Foo.java")),
+                new ChangeSetItem(ChangeType.DELETED, Paths.get("bar baz.txt"))
+        ).collect(Collectors.toCollection(HashSet::new));
+        GitObjectCache cache = new GitObjectCache(tmpDir, 1024);
+        cache.putBlob(BLOB_ID_1, new byte[]{1, 2, 3});
+        cache.putDiff(BLOB_ID_1, BLOB_ID_2, changeSet);
+        cache.putDiff(BLOB_ID_2, BLOB_ID_3, new HashSet<>());
+
+        // when
+        GitObjectCache otherCache = new GitObjectCache(tmpDir, 1024);
+
+        // then
+        assertArrayEquals(new byte[]{1, 2, 3}, otherCache.getBlob(BLOB_ID_1));
+        assertNull(otherCache.getBlob(BLOB_ID_2));
+        assertEquals(changeSet, otherCache.getDiff(BLOB_ID_1, BLOB_ID_2));
+        assertEquals(new HashSet<>(), otherCache.getDiff(BLOB_ID_2, BLOB_ID_3));
+        assertNull(otherCache.getDiff(BLOB_ID_1, BLOB_ID_3));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries() throws IOException {
+        // given
+        GitObjectCache cache = new GitObjectCache(tmpDir, 250);
+        cache.putBlob(BLOB_ID_1, new byte[100]);
+        cache.putBlob(BLOB_ID_2, new byte[100]);
+        Path blob1 = tmpDir.resolve(GitObjectCache.BLOBS_DIRECTORY).resolve("11").resolve(BLOB_ID_1.substring(2));
+        Path blob2 = tmpDir.resolve(GitObjectCache.BLOBS_DIRECTORY).resolve("22").resolve(BLOB_ID_2.substring(2));
+        Files.setLastModifiedTime(blob1, FileTime.fromMillis(2_000));
+        Files.setLastModifiedTime(blob2, FileTime.fromMillis(1_000));
+
+        // when
+        cache.putBlob(BLOB_ID_3, new byte[100]);
+
+        // then
+        assertEquals(100, cache.getBlob(BLOB_ID_3).length);
+        assertEquals(100, cache.getBlob(BLOB_ID_1).length);
+        assertNull(cache.getBlob(BLOB_ID_2));
+    }
+
+    @Test
+    void shouldNotCountReplacedEntriesTwice() {
+        // given
+        GitObjectCache cache = new GitObjectCache(tmpDir, 100);
+        cache.putBlob(BLOB_ID_1, new byte[45]);
+        cache.putBlob(BLOB_ID_2, new byte[40]);
+
+        // when
+        // The cache holds 85 bytes, which is more than the eviction target (80 bytes) but less than its maximum size.
+        cache.putBlob(BLOB_ID_1, new byte[45]);
+
+        // then
+        assertArrayEquals(new byte[45], cache.getBlob(BLOB_ID_1));
+        assertArrayEquals(new byte[40], cache.getBlob(BLOB_ID_2));
+    }
+}
@@ -11,5 +11,7 @@ public final class ExtensionConfiguration {
     public static final String PARAMETER_DOWNSTREAM_MODULES = "multirts.downstreamModules";
     public static final String PARAMETER_FILTER_EXECUTION = "multirts.filterExecution";
     public static final String PARAMETER_OUTPUT_FILE = "multirts.moduleOutput";
+    public static final String PARAMETER_WAVE_PLAN_FILE = "multirts.wavePlanOutput";
+    public static final String PARAMETER_MODULE_DURATIONS_FILE = "multirts.moduleDurations";
     public static final String FILE_PATH_DELIMITER = ",";
 }
@@ -1,14 +1,14 @@
 package edu.tum.sse.multirts.ext;
 
+import edu.tum.sse.multirts.reactor.ReactorDependencyIndex;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
 
 import java.nio.file.Path;
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Enables computing sets of transitively or directly dependent down- and upstream projects in a Maven reactor.
@@ -16,22 +16,18 @@ import java.util.stream.Collectors;
 public class ModuleSelector {
     private final MavenSession session;
     private final Set<MavenProject> selectedProjects;
+    private final ReactorDependencyIndex dependencyIndex;
 
     public ModuleSelector(MavenSession session) {
         this.session = session;
         this.selectedProjects = new HashSet<>();
+        this.dependencyIndex = ReactorDependencyIndex.of(session);
     }
 
     public Set<MavenProject> getSelectedProjects() {
         return selectedProjects;
     }
 
-    private List<MavenProject> getProjectsAtPaths(Set<Path> paths) {
-        return session.getAllProjects().stream()
-                .filter(project -> paths.contains(project.getBasedir().toPath().normalize().toAbsolutePath()))
-                .collect(Collectors.toList());
-    }
-
     /**
      * Select all Maven modules that are transitively dependent from given (changed) projects.
      * This includes (transitive) upstream projects, direct downstream projects, and (transitive) upstream of downstream projects.
@@ -44,21 +40,20 @@ public class ModuleSelector {
      * @param projectPaths Project paths that have been changed
      */
     public void selectTransitiveProjects(List<Path> projectPaths) {
-        List<MavenProject> mavenProjects = getProjectsAtPaths(new HashSet<>(projectPaths));
+        BitSet mavenProjects = dependencyIndex.getProjectsAtPaths(new HashSet<>(projectPaths));
         // Always add modules themselves first.
-        selectedProjects.addAll(mavenProjects);
+        BitSet selected = (BitSet) mavenProjects.clone();
 
         // Transitively select all upstream modules.
-        List<MavenProject> upstreamProjects = getUpstreamProjects(mavenProjects, true);
-        selectedProjects.addAll(upstreamProjects);
+        selected.or(dependencyIndex.getUpstreamProjects(mavenProjects, true));
 
         // Select direct downstream modules.
-        List<MavenProject> downstreamProjects = getDownstreamProjects(mavenProjects, false);
-        selectedProjects.addAll(downstreamProjects);
+        BitSet downstreamProjects = dependencyIndex.getDownstreamProjects(mavenProjects, false);
+        selected.or(downstreamProjects);
 
         // Transitively select upstream modules of downstream modules.
-        List<MavenProject> upOfDownstreamModules = getUpstreamProjects(downstreamProjects, true);
-        selectedProjects.addAll(upOfDownstreamModules);
+        selected.or(dependencyIndex.getUpstreamProjects(downstreamProjects, true));
+        selectedProjects.addAll(dependencyIndex.toProjects(selected));
     }
 
     /**
@@ -67,13 +62,13 @@ public class ModuleSelector {
      * @param projectPaths Project paths that have been changed
      */
     public void selectUpstreamProjects(List<Path> projectPaths) {
-        List<MavenProject> mavenProjects = getProjectsAtPaths(new HashSet<>(projectPaths));
+        BitSet mavenProjects = dependencyIndex.getProjectsAtPaths(new HashSet<>(projectPaths));
         // Always add modules themselves first.
-        selectedProjects.addAll(mavenProjects);
+        BitSet selected = (BitSet) mavenProjects.clone();
 
         // Transitively select all upstream modules.
-        List<MavenProject> upstreamProjects = getUpstreamProjects(mavenProjects, true);
-        selectedProjects.addAll(upstreamProjects);
+        selected.or(dependencyIndex.getUpstreamProjects(mavenProjects, true));
+        selectedProjects.addAll(dependencyIndex.toProjects(selected));
     }
 
     /**
@@ -82,27 +77,21 @@ public class ModuleSelector {
      * @param projectPaths Project paths that have been changed
      */
     public void selectDownstreamModules(List<Path> projectPaths) {
-        List<MavenProject> mavenProjects = getProjectsAtPaths(new HashSet<>(projectPaths));
+        BitSet mavenProjects = dependencyIndex.getProjectsAtPaths(new HashSet<>(projectPaths));
         // Always add modules themselves first.
-        selectedProjects.addAll(mavenProjects);
+        BitSet selected = (BitSet) mavenProjects.clone();
 
         // Transitively select all downstream modules.
-        List<MavenProject> downstreamModules = getDownstreamProjects(mavenProjects, true);
-        selectedProjects.addAll(downstreamModules);
+        selected.or(dependencyIndex.getDownstreamProjects(mavenProjects, true));
+        selectedProjects.addAll(dependencyIndex.toProjects(selected));
     }
 
     public List<MavenProject> getUpstreamProjects(List<MavenProject> mavenProjects, boolean transitive) {
-        return mavenProjects.stream()
-                .map(project -> session.getProjectDependencyGraph().getUpstreamProjects(project, transitive))
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
+        return dependencyIndex.toProjects(dependencyIndex.getUpstreamProjects(dependencyIndex.toBitSet(mavenProjects), transitive));
     }
 
     public List<MavenProject> getDownstreamProjects(List<MavenProject> mavenProjects, boolean transitive) {
-        return mavenProjects.stream()
-                .map(project -> session.getProjectDependencyGraph().getDownstreamProjects(project, transitive))
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
+        return dependencyIndex.toProjects(dependencyIndex.getDownstreamProjects(dependencyIndex.toBitSet(mavenProjects), transitive));
     }
 }
 
@@ -1,13 +1,19 @@
 package edu.tum.sse.multirts.ext;
 
+import edu.tum.sse.multirts.reactor.BuildWavePlan;
+import edu.tum.sse.multirts.reactor.ModuleDurations;
+import edu.tum.sse.multirts.reactor.ReactorDependencyIndex;
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.BuildSuccess;
+import org.apache.maven.execution.BuildSummary;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.component.annotations.Component;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -54,6 +60,10 @@ public class MultiRTSLifecycleParticipant extends AbstractMavenLifecycleParticip
                 Path outputFile = Paths.get(userProperties.getProperty(PARAMETER_OUTPUT_FILE)).toAbsolutePath();
                 writeSelectedModulesToOutput(moduleSelector.getSelectedProjects(), outputFile);
             }
+            if (userProperties.containsKey(PARAMETER_WAVE_PLAN_FILE)) {
+                Path waveFile = Paths.get(userProperties.getProperty(PARAMETER_WAVE_PLAN_FILE)).toAbsolutePath();
+                writeWavePlan(session, moduleSelector.getSelectedProjects(), waveFile, getModuleDurationsFile(userProperties));
+            }
             if (userProperties.containsKey(PARAMETER_FILTER_EXECUTION)) {
                 session.setProjects(new ArrayList<>(moduleSelector.getSelectedProjects()));
             }
@@ -62,6 +72,50 @@ public class MultiRTSLifecycleParticipant extends AbstractMavenLifecycleParticip
         }
     }
 
+    /**
+     * Records the build durations of all successfully built projects, if a module durations file is configured.
+     */
+    @Override
+    public void afterSessionEnd(MavenSession session) throws MavenExecutionException {
+        Path durationsFile = getModuleDurationsFile(session.getRequest().getUserProperties());
+        if (durationsFile == null || session.getResult() == null) {
+            return;
+        }
+        ModuleDurations durations = ModuleDurations.load(durationsFile);
+        for (MavenProject project : session.getProjects()) {
+            BuildSummary buildSummary = session.getResult().getBuildSummary(project);
+            if (buildSummary instanceof BuildSuccess) {
+                durations.record(project, buildSummary.getTime());
+            }
+        }
+        try {
+            durations.save(durationsFile);
+        } catch (IOException exception) {
+            logger.warning("Failed to record module durations in " + durationsFile + ": " + exception.getMessage());
+        }
+    }
+
+    private static Path getModuleDurationsFile(Properties userProperties) {
+        return userProperties.containsKey(PARAMETER_MODULE_DURATIONS_FILE)
+                ? Paths.get(userProperties.getProperty(PARAMETER_MODULE_DURATIONS_FILE)).toAbsolutePath()
+                : null;
+    }
+
+    private void writeWavePlan(MavenSession session, Set<MavenProject> selectedProjects, Path waveFile, Path durationsFile) {
+        ReactorDependencyIndex index = ReactorDependencyIndex.of(session);
+        BuildWavePlan plan = BuildWavePlan.compute(index, index.toBitSet(selectedProjects), ModuleDurations.load(durationsFile));
+        try {
+            Files.write(waveFile,
+                    plan.toJson(session.getTopLevelProject().getBasedir().toPath()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            logger.info(String.format("Planned %d build wave(s) with critical path of %dms.", plan.getWaves().size(), plan.getCriticalPathMillis()));
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
     private void writeSelectedModulesToOutput(Set<MavenProject> selectedProjects, Path outputFile) {
         try {
             String projectList = selectedProjects.stream()
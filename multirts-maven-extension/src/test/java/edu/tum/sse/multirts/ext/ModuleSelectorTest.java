@@ -0,0 +1,97 @@
+package edu.tum.sse.multirts.ext;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ModuleSelectorTest {
+
+    final Path root = Paths.get("/reactor").toAbsolutePath();
+    MavenProject a, b, c, d;
+    MavenSession session;
+
+    private MavenProject createProject(String name, MavenProject... dependencies) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("g");
+        project.setArtifactId(name);
+        project.setVersion("1.0");
+        project.setFile(new File(root.resolve(name).toFile(), "pom.xml"));
+        for (MavenProject dependency : dependencies) {
+            Dependency declaredDependency = new Dependency();
+            declaredDependency.setGroupId(dependency.getGroupId());
+            declaredDependency.setArtifactId(dependency.getArtifactId());
+            declaredDependency.setVersion(dependency.getVersion());
+            project.getDependencies().add(declaredDependency);
+        }
+        return project;
+    }
+
+    @BeforeEach
+    void setUp() {
+        // c -> b -> a, d -> a, but only a and c are selected (e.g., "-pl a,c"),
+        // so the filtered dependency graph omits all relations to b and d.
+        a = createProject("a");
+        b = createProject("b", a);
+        c = createProject("c", b);
+        d = createProject("d", a);
+        ProjectDependencyGraph filteredGraph = mock(ProjectDependencyGraph.class);
+        when(filteredGraph.getDownstreamProjects(any(), anyBoolean())).thenReturn(Collections.emptyList());
+        session = mock(MavenSession.class);
+        when(session.getAllProjects()).thenReturn(Arrays.asList(a, b, c, d));
+        when(session.getProjectDependencyGraph()).thenReturn(filteredGraph);
+    }
+
+    @Test
+    void shouldSelectDownstreamModulesThroughFilteredModules() {
+        // given
+        ModuleSelector moduleSelector = new ModuleSelector(session);
+
+        // when
+        moduleSelector.selectDownstreamModules(Collections.singletonList(root.resolve("a")));
+
+        // then
+        assertEquals(new HashSet<>(Arrays.asList(a, b, c, d)), moduleSelector.getSelectedProjects());
+    }
+
+    @Test
+    void shouldSelectTransitiveProjectsThroughFilteredModules() {
+        // given
+        ModuleSelector moduleSelector = new ModuleSelector(session);
+
+        // when
+        moduleSelector.selectTransitiveProjects(Collections.singletonList(root.resolve("b")));
+
+        // then
+        // b itself, its upstream a, its direct downstream c, and the upstream of c.
+        assertEquals(new HashSet<>(Arrays.asList(a, b, c)), moduleSelector.getSelectedProjects());
+    }
+
+    @Test
+    void shouldSelectUpstreamProjectsThroughFilteredModules() {
+        // given
+        ModuleSelector moduleSelector = new ModuleSelector(session);
+
+        // when
+        moduleSelector.selectUpstreamProjects(Collections.singletonList(root.resolve("c")));
+
+        // then
+        assertEquals(new HashSet<>(Arrays.asList(a, b, c)), moduleSelector.getSelectedProjects());
+        assertEquals(Arrays.asList(b, c, d), moduleSelector.getDownstreamProjects(Collections.singletonList(a), true));
+    }
+}
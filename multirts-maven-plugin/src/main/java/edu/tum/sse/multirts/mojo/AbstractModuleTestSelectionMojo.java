@@ -2,6 +2,7 @@ package edu.tum.sse.multirts.mojo;
 
 import edu.tum.sse.multirts.vcs.ChangeSetItem;
 import edu.tum.sse.multirts.vcs.GitClient;
+import edu.tum.sse.multirts.vcs.GitObjectCache;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
@@ -41,13 +42,43 @@ public abstract class AbstractModuleTestSelectionMojo extends AbstractMultiRTSMo
     @Parameter(property = "multirts.sourceRevision", defaultValue = "HEAD")
     String sourceRevision;
 
+    /**
+     * Maximum number of concurrently running git processes.
+     */
+    @Parameter(property = "multirts.gitProcesses", defaultValue = "4")
+    int gitProcesses;
+
+    /**
+     * Directory of the persistent cache for file contents and diffs, which can be shared across builds.
+     * The cache is disabled if no directory is set.
+     */
+    @Parameter(property = "multirts.gitCache")
+    File gitCacheDirectory;
+
+    /**
+     * Maximum size of the persistent git cache in MiB.
+     */
+    @Parameter(property = "multirts.gitCacheSize", defaultValue = "256")
+    long gitCacheSize;
+
     GitClient getGitClient() {
-        return new GitClient(gitRepositoryRoot.toPath().normalize().toAbsolutePath());
+        GitClient gitClient = new GitClient(gitRepositoryRoot.toPath().normalize().toAbsolutePath(), gitProcesses);
+        if (gitCacheDirectory != null) {
+            gitClient.setObjectCache(new GitObjectCache(gitCacheDirectory.toPath(), gitCacheSize * 1024 * 1024));
+        }
+        return gitClient;
     }
 
     Set<ChangeSetItem> getChangeset(GitClient gitClient) {
+        return getChangeset(gitClient, targetRevision);
+    }
+
+    /**
+     * @param baseRevision revision to compare the source revision with (e.g., the target revision)
+     */
+    Set<ChangeSetItem> getChangeset(GitClient gitClient, String baseRevision) {
         return gitClient
-                .getDiff(targetRevision, sourceRevision)  // results in: target...source; e.g., main...HEAD
+                .getDiff(baseRevision, sourceRevision)  // results in: base...source; e.g., main...HEAD
                 .stream()
                 .filter(item -> item.getPath().toString().matches(fileFilter))
                 .collect(Collectors.toSet());
@@ -7,12 +7,16 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
 import java.io.File;
+import java.nio.file.Path;
 
 /**
  * Base class for MultiRTS Mojos.
  */
 public abstract class AbstractMultiRTSMojo extends AbstractMojo {
 
+    static final String INDEX_CACHE_DIRECTORY = "index-cache";
+    static final String HISTORY_FILE = "test-history.tsv";
+
     /**
      * Enable debug output.
      */
@@ -31,8 +35,35 @@ public abstract class AbstractMultiRTSMojo extends AbstractMojo {
     @Parameter(defaultValue = "${session}")
     MavenSession session;
 
+    /**
+     * File in which a running selection daemon (see goal "daemon") announces its port.
+     */
+    @Parameter(property = "multirts.daemonFile", defaultValue = "${user.home}/.multirts/daemon.properties")
+    File daemonFile;
+
+    /**
+     * Test execution history (failures and durations) used for prioritizing selected tests, shared across labels.
+     * By default, the history is stored in the output directory; it should be kept across builds (e.g., in a CI cache).
+     */
+    @Parameter(property = "multirts.history")
+    File historyFile;
+
     abstract String getLabel();
 
+    /**
+     * @return test execution history file, which is stored in the output directory by default
+     */
+    Path getHistoryFile() {
+        return historyFile != null ? historyFile.toPath() : outputDirectory.toPath().resolve(HISTORY_FILE);
+    }
+
+    /**
+     * @return directory for persistent selection indices, which are shared across labels
+     */
+    Path getIndexCacheDirectory() {
+        return outputDirectory.toPath().resolve(INDEX_CACHE_DIRECTORY);
+    }
+
     void log(String message) {
         if (debug) {
             getLog().warn(message);
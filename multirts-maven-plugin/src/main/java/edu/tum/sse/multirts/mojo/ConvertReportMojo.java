@@ -0,0 +1,70 @@
+package edu.tum.sse.multirts.mojo;
+
+import edu.tum.sse.multirts.index.BinaryReportWriter;
+import edu.tum.sse.multirts.index.StreamingReportReader;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * This Mojo converts a JTeC test report into the binary report format,
+ * which can be memory-mapped by the test selection without deserializing the whole report.
+ */
+@Mojo(name = "convert-report", defaultPhase = LifecyclePhase.VALIDATE, threadSafe = true, aggregator = true)
+public class ConvertReportMojo extends AbstractMultiRTSMojo {
+
+    static final String BINARY_REPORT_FILE = "test-report.mrts";
+
+    /**
+     * Label which is used for naming generated file artifacts.
+     */
+    @Parameter(property = "multirts.label", defaultValue = "report", required = true, readonly = true)
+    String label;
+
+    /**
+     * Test report in JTeC format (optionally gzip-compressed).
+     */
+    @Parameter(property = "multirts.testReport", required = true)
+    File testReportFile;
+
+    /**
+     * Output file for the binary test report (default: {@code <multirts.output>/<multirts.label>/test-report.mrts}).
+     */
+    @Parameter(property = "multirts.binaryReport")
+    File binaryReportFile;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            if (session.getCurrentProject().isExecutionRoot()) {
+                long start = System.nanoTime();
+                BinaryReportWriter writer = new BinaryReportWriter();
+                int testSuiteCount = StreamingReportReader.read(testReportFile.toPath(), writer);
+                Path binaryReport = getBinaryReportPath();
+                writer.write(binaryReport);
+                long timeElapsed = (System.nanoTime() - start) / 1_000_000;
+                log("Converted test report with " + testSuiteCount + " test suites to " + binaryReport + " in " + timeElapsed + "ms.");
+            }
+        } catch (Exception exception) {
+            exception.printStackTrace();
+            throw new MojoFailureException("Failed to convert test report " + testReportFile + " with error message: " + exception.getMessage());
+        }
+    }
+
+    Path getBinaryReportPath() {
+        if (binaryReportFile != null) {
+            return binaryReportFile.toPath();
+        }
+        return outputDirectory.toPath().resolve(getLabel()).resolve(BINARY_REPORT_FILE);
+    }
+
+    @Override
+    String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,48 @@
+package edu.tum.sse.multirts.mojo;
+
+import edu.tum.sse.multirts.daemon.SelectionDaemon;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * This Mojo runs a local selection daemon until it is interrupted (e.g., with Ctrl+C).
+ * The daemon keeps test reports and git clients in memory, so subsequent "test-selection" runs
+ * (which delegate to the daemon announced in "multirts.daemonFile") neither need to load the report nor to start git processes.
+ */
+@Mojo(name = "daemon", threadSafe = true, aggregator = true, requiresProject = false)
+public class DaemonMojo extends AbstractMultiRTSMojo {
+
+    /**
+     * Port to listen on (on the loopback interface only), 0 picks any free port.
+     */
+    @Parameter(property = "multirts.daemonPort", defaultValue = "0")
+    int port;
+
+    /**
+     * Number of concurrently served selection requests.
+     */
+    @Parameter(property = "multirts.daemonThreads", defaultValue = "4")
+    int threads;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            SelectionDaemon daemon = SelectionDaemon.start(daemonFile.toPath(), port, threads);
+            Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+            getLog().info("MultiRTS selection daemon listening on port " + daemon.getPort() + ", announced in " + daemonFile);
+            daemon.awaitTermination();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (Exception exception) {
+            exception.printStackTrace();
+            throw new MojoFailureException("Failed to run MultiRTS selection daemon with error message: " + exception.getMessage());
+        }
+    }
+
+    @Override
+    String getLabel() {
+        return "daemon";
+    }
+}
@@ -1,6 +1,10 @@
 package edu.tum.sse.multirts.mojo;
 
 import edu.tum.sse.multirts.modules.ChangeBasedModuleSelection;
+import edu.tum.sse.multirts.modules.ModuleLocationIndex;
+import edu.tum.sse.multirts.reactor.BuildWavePlan;
+import edu.tum.sse.multirts.reactor.ModuleDurations;
+import edu.tum.sse.multirts.reactor.ReactorDependencyIndex;
 import edu.tum.sse.multirts.vcs.ChangeSetItem;
 import edu.tum.sse.multirts.vcs.GitClient;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -10,9 +14,11 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -25,6 +31,10 @@ import static edu.tum.sse.multirts.modules.MavenProjectLocationCache.POM_XML;
 @Mojo(name = "module-selection", defaultPhase = LifecyclePhase.VALIDATE, threadSafe = true, aggregator = true)
 public class ModuleSelectionMojo extends AbstractModuleTestSelectionMojo {
 
+    private static final String FULL_BUILD_MARKER = "*";
+    private static final String WAVE_PLAN_FILE = "waves.json";
+    private static final String MODULE_DURATIONS_FILE = "module-durations.tsv";
+
     /**
      * Label which is used for naming generated file artifacts.
      */
@@ -41,6 +51,17 @@ public class ModuleSelectionMojo extends AbstractModuleTestSelectionMojo {
      */
     @Parameter(property = "multirts.fullBuild", defaultValue = "/base/,\\base\\", readonly = true)
     List<String> fullBuildPaths;
+    /**
+     * Additionally write a topologically layered build schedule of the selected modules to "waves.json",
+     * in which modules of the same wave can be built concurrently, annotated with the critical path from recorded module build durations.
+     */
+    @Parameter(property = "multirts.wavePlan", defaultValue = "false")
+    boolean wavePlan;
+    /**
+     * Recorded module build durations (as recorded by the MultiRTS Maven extension), default: "module-durations.tsv" in the output directory.
+     */
+    @Parameter(property = "multirts.moduleDurations")
+    File moduleDurationsFile;
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -48,13 +69,16 @@ public class ModuleSelectionMojo extends AbstractModuleTestSelectionMojo {
             if (session.getCurrentProject().isExecutionRoot()) {
                 GitClient gitClient = getGitClient();
                 Set<ChangeSetItem> changeSet = getChangeset(gitClient);
-                ChangeBasedModuleSelection moduleSelection = new ChangeBasedModuleSelection(gitClient, project, fullBuildPaths);
+                ChangeBasedModuleSelection moduleSelection = new ChangeBasedModuleSelection(gitClient, project, fullBuildPaths, ModuleLocationIndex.of(session));
                 Set<String> selectedModules = moduleSelection.execute(changeSet);
                 Path includedModules = outputDirectory.toPath().resolve(getLabel()).resolve(MODULE_FILE);
                 createFileAndEnclosingDir(includedModules);
                 String selectedModulesString = buildModulesString(new ArrayList<>(selectedModules));
                 log("Selected modules: " + selectedModulesString);
                 writeToFile(includedModules, selectedModulesString, false, StandardOpenOption.TRUNCATE_EXISTING);
+                if (wavePlan) {
+                    writeWavePlan(selectedModules);
+                }
             }
         } catch (final Exception exception) {
             getLog().error("Failed to run MultiRTS module selection in project " + project.getName());
@@ -63,6 +87,30 @@ public class ModuleSelectionMojo extends AbstractModuleTestSelectionMojo {
         }
     }
 
+    /**
+     * Writes the build schedule of the selected modules (or all modules in case of a full build).
+     */
+    void writeWavePlan(Set<String> selectedModules) throws IOException {
+        ReactorDependencyIndex index = ReactorDependencyIndex.of(session);
+        Path rootDirectory = project.getBasedir().toPath().toAbsolutePath().normalize();
+        BitSet selectedProjects;
+        if (selectedModules.contains(FULL_BUILD_MARKER)) {
+            selectedProjects = new BitSet(index.size());
+            selectedProjects.set(0, index.size());
+        } else {
+            List<Path> modulePaths = selectedModules.stream()
+                    .map(module -> rootDirectory.resolve(module).getParent().normalize())
+                    .collect(Collectors.toList());
+            selectedProjects = index.getProjectsAtPaths(modulePaths);
+        }
+        Path durationsFile = moduleDurationsFile != null ? moduleDurationsFile.toPath() : outputDirectory.toPath().resolve(MODULE_DURATIONS_FILE);
+        BuildWavePlan plan = BuildWavePlan.compute(index, selectedProjects, ModuleDurations.load(durationsFile));
+        Path waveFile = outputDirectory.toPath().resolve(getLabel()).resolve(WAVE_PLAN_FILE);
+        createFileAndEnclosingDir(waveFile);
+        writeToFile(waveFile, plan.toJson(rootDirectory), false, StandardOpenOption.TRUNCATE_EXISTING);
+        log("Planned " + plan.getWaves().size() + " build waves with critical path of " + plan.getCriticalPathMillis() + "ms.");
+    }
+
     String buildModulesString(List<String> selectedModules) {
         for (int i = 0; i < selectedModules.size(); i++) {
             String module = selectedModules.get(i);
@@ -0,0 +1,64 @@
+package edu.tum.sse.multirts.mojo;
+
+import edu.tum.sse.multirts.prioritization.SurefireReportReader;
+import edu.tum.sse.multirts.prioritization.SurefireReportReader.TestSuiteResult;
+import edu.tum.sse.multirts.prioritization.TestHistory;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * This Mojo records the results of a test run (i.e., failures and durations of all test suites) from Surefire/Failsafe XML reports
+ * of all projects in the reactor in the test execution history, which is used for prioritizing selected tests.
+ * It is meant to run after the tests (e.g., "mvn verify multirts:record-history" with "-Dmaven.test.failure.ignore=true").
+ */
+@Mojo(name = "record-history", threadSafe = true, aggregator = true)
+public class RecordHistoryMojo extends AbstractMultiRTSMojo {
+
+    /**
+     * Label which is used for naming generated file artifacts.
+     */
+    @Parameter(property = "multirts.label", defaultValue = "history", required = true, readonly = true)
+    String label;
+
+    /**
+     * Directories containing XML test reports, relative to each project's build directory.
+     */
+    @Parameter(property = "multirts.testResultDirs", defaultValue = "surefire-reports,failsafe-reports")
+    List<String> testResultDirectories;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            if (session.getCurrentProject().isExecutionRoot()) {
+                TestHistory history = TestHistory.load(getHistoryFile());
+                int recorded = 0;
+                for (MavenProject mavenProject : session.getAllProjects()) {
+                    for (String testResultDirectory : testResultDirectories) {
+                        Path reportDirectory = Paths.get(mavenProject.getBuild().getDirectory()).resolve(testResultDirectory);
+                        for (TestSuiteResult result : SurefireReportReader.readDirectory(reportDirectory)) {
+                            history.record(result.getTestId(), result.isFailed(), result.getDurationMillis());
+                            recorded++;
+                        }
+                    }
+                }
+                history.save(getHistoryFile());
+                log("Recorded " + recorded + " test suite results in " + getHistoryFile());
+            }
+        } catch (Exception exception) {
+            exception.printStackTrace();
+            throw new MojoFailureException("Failed to record test history with error message: " + exception.getMessage());
+        }
+    }
+
+    @Override
+    String getLabel() {
+        return label;
+    }
+}
@@ -1,10 +1,22 @@
 package edu.tum.sse.multirts.mojo;
 
-import edu.tum.sse.jtec.reporting.TestReport;
 import edu.tum.sse.jtec.reporting.TestSuite;
-import edu.tum.sse.jtec.util.JSONUtils;
+import edu.tum.sse.multirts.daemon.DaemonClient;
+import edu.tum.sse.multirts.daemon.RemoteTestSelection;
+import edu.tum.sse.multirts.daemon.SelectionRequest;
+import edu.tum.sse.multirts.index.MappedSelectionIndex;
+import edu.tum.sse.multirts.index.SelectionIndex;
+import edu.tum.sse.multirts.index.SelectionIndexCache;
+import edu.tum.sse.multirts.index.StreamingReportReader;
+import edu.tum.sse.multirts.parser.JavaTypeNameCache;
+import edu.tum.sse.multirts.prioritization.TestHistory;
+import edu.tum.sse.multirts.prioritization.TestPrioritizer;
+import edu.tum.sse.multirts.prioritization.TestSharder;
 import edu.tum.sse.multirts.rts.BuildSystemAwareTestSelectionMediator;
 import edu.tum.sse.multirts.rts.FileLevelTestSelection;
+import edu.tum.sse.multirts.rts.IncrementalSelection;
+import edu.tum.sse.multirts.rts.SelectedTestSuite;
+import edu.tum.sse.multirts.rts.TestSelectionException;
 import edu.tum.sse.multirts.rts.TestSelectionResult;
 import edu.tum.sse.multirts.rts.TestSelectionStrategy;
 import edu.tum.sse.multirts.vcs.GitClient;
@@ -20,9 +32,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +55,11 @@ public class TestSelectionMojo extends AbstractModuleTestSelectionMojo {
 
     private static final String CSV_SEPARATOR = ";";
     private static final String TESTS_INCLUDED_FILE = "included.txt";
+    private static final String SHARD_TESTS_INCLUDED_FILE = "included-%d.txt";
+    private static final String SHARD_MODULE_FILE = "modules-%d.txt";
+    private static final Pattern SHARD_FILE_PATTERN = Pattern.compile("(?:included|modules)-(\\d+)\\.txt");
+    private static final String TEST_FILE_STATE_FILE = "test-files.state";
+    private static final String SELECTION_STATE_FILE = "selection.state";
 
     /**
      * Label which is used for naming generated file artifacts.
@@ -47,11 +68,87 @@ public class TestSelectionMojo extends AbstractModuleTestSelectionMojo {
     String label;
 
     /**
-     * Test report in JTeC format.
+     * Test report in JTeC format (optionally gzip-compressed) or in binary format as created by the "convert-report" goal.
      */
     @Parameter(property = "multirts.testReport")
     File testReportFile;
 
+    /**
+     * Cache the selection index built from a JSON test report in the output directory, keyed by the report's content digest.
+     * Subsequent runs with the same report map the cached index instead of reading the report again.
+     */
+    @Parameter(property = "multirts.indexCache", defaultValue = "true")
+    boolean useIndexCache;
+
+    /**
+     * Number of threads used for checking test suites against the changes, 1 checks them sequentially.
+     * The selected tests are identical (and in the same order) for any number of threads.
+     */
+    @Parameter(property = "multirts.selectionThreads", defaultValue = "1")
+    int selectionThreads;
+
+    /**
+     * Number of threads used for analyzing changed files, 1 analyzes them sequentially.
+     * The number of concurrently running git processes is capped separately by "multirts.gitProcesses".
+     */
+    @Parameter(property = "multirts.analysisThreads", defaultValue = "1")
+    int analysisThreads;
+
+    /**
+     * Delegate the test selection to a running selection daemon (see goal "daemon"), which keeps test reports and git clients in memory.
+     * If no daemon is running, tests are selected in-process.
+     */
+    @Parameter(property = "multirts.daemon", defaultValue = "true")
+    boolean useDaemon;
+
+    /**
+     * Continue the selection of the previous run with the same label if the source revision only received new commits since
+     * (e.g., a new push to the same pull request), i.e., only analyze the changes since the previously analyzed commit
+     * and merge the selected tests into the previous selection.
+     * Falls back to a full selection if the history was rewritten, the merge base with the target revision changed, or the test report changed.
+     */
+    @Parameter(property = "multirts.incremental", defaultValue = "false")
+    boolean incremental;
+
+    /**
+     * For incremental selections (see "multirts.incremental"), only output tests which have not been selected by previous runs.
+     */
+    @Parameter(property = "multirts.onlyNewTests", defaultValue = "false")
+    boolean onlyNewTests;
+
+    /**
+     * Order the selected tests in the output by priority, i.e., by recorded failure rate, by how directly they are affected, and by duration
+     * (see goal "record-history" for recording failures and durations).
+     * Surefire/Failsafe only filter tests by the included file and do not follow its order,
+     * so running likely failing tests first requires running a prefix of the file in a separate, first test run.
+     * Disabled by default, in which case the selected tests keep the order of the test report.
+     */
+    @Parameter(property = "multirts.prioritize", defaultValue = "false")
+    boolean prioritize;
+
+    /**
+     * Number of shards to partition the selected tests into (e.g., for running them on multiple CI nodes), balanced by their durations.
+     * For more than one shard, each shard's tests and modules are additionally written to "included-i.txt" and "modules-i.txt" (for i = 0 to shards - 1),
+     * the additionally included tests are only added to the shard with the least total duration.
+     * Shard files of previous runs with more shards are deleted.
+     */
+    @Parameter(property = "multirts.shards", defaultValue = "1")
+    int shards;
+
+    /**
+     * Names of directories which are not searched for test files.
+     * Test files are searched in the test source roots of all projects (or the whole project directory if there are none).
+     */
+    @Parameter(property = "multirts.skipDirs", defaultValue = "target,.git,.svn,.idea,node_modules,generated-sources,generated-test-sources")
+    List<String> skippedDirectories;
+
+    /**
+     * Persist the test suite to file mapping in the output directory and refresh it incrementally on subsequent runs,
+     * i.e., only changed directories are listed and only new or changed test files are parsed again.
+     */
+    @Parameter(property = "multirts.testFileCache", defaultValue = "true")
+    boolean useTestFileCache;
+
     /**
      * Additional file mappings in CSV format (e.g. source-DLL-mapping).
      * Expects ';' delimiter and format "DLL;Source-file".
@@ -65,6 +162,8 @@ public class TestSelectionMojo extends AbstractModuleTestSelectionMojo {
     @Parameter(property = "multirts.includedTests", defaultValue = "**/PackageDependencyTest*")
     List<String> additionalIncludedTests;
 
+    private String reportDigest;
+
     Map<String, Set<String>> readFileMapping() throws MojoFailureException {
         Map<String, Set<String>> fileMapping = new HashMap<>();
         if (additionalFileMappings != null && !additionalFileMappings.isEmpty()) {
@@ -94,53 +193,183 @@ public class TestSelectionMojo extends AbstractModuleTestSelectionMojo {
         return fileMapping;
     }
 
-    TestReport readReport() throws MojoFailureException {
-        TestReport testReport;
+    /**
+     * Reads the test report either from JTeC JSON format or from the binary report format (see goal "convert-report").
+     * Binary reports are memory-mapped and queried directly instead of being deserialized.
+     * JSON reports (optionally gzip-compressed) are streamed directly into the selection index,
+     * which is persisted in the index cache (if enabled) to be reused as long as the report does not change.
+     */
+    SelectionIndex readReport() throws MojoFailureException {
+        SelectionIndex selectionIndex;
         long start = System.nanoTime();
         try {
-            testReport = JSONUtils.fromJson(testReportFile.toPath(), TestReport.class);
+            if (useIndexCache) {
+                selectionIndex = new SelectionIndexCache(getIndexCacheDirectory()).load(testReportFile.toPath(), getReportDigest());
+            } else if (MappedSelectionIndex.isBinaryReport(testReportFile.toPath())) {
+                selectionIndex = MappedSelectionIndex.open(testReportFile.toPath());
+            } else {
+                selectionIndex = StreamingReportReader.readIndex(testReportFile.toPath());
+            }
         } catch (Exception e) {
             e.printStackTrace();
             throw new MojoFailureException("Failed to read test report: " + e.getMessage());
         }
         long finish = System.nanoTime();
         long timeElapsed = (finish - start) / 1_000_000;
-        log("Finished reading test report in " + timeElapsed + "ms for report with " + testReport.getTestSuites().size() + " test suites.");
-        return testReport;
+        log("Finished reading test report in " + timeElapsed + "ms for report with " + selectionIndex.size() + " test suites.");
+        return selectionIndex;
+    }
+
+    /**
+     * @return strategy delegating to the selection daemon if one is running, otherwise the in-process strategy
+     */
+    TestSelectionStrategy getTestSelectionStrategy(GitClient gitClient, Map<String, Set<String>> fileMapping, String baseRevision) throws MojoFailureException {
+        Optional<DaemonClient> daemonClient = useDaemon ? DaemonClient.find(daemonFile.toPath()) : Optional.empty();
+        if (!daemonClient.isPresent()) {
+            return new FileLevelTestSelection(readReport(), gitClient, baseRevision, fileMapping, selectionThreads, analysisThreads);
+        }
+        log("Selecting tests with daemon announced in " + daemonFile);
+        SelectionRequest request = new SelectionRequest.Builder(testReportFile.toPath(), gitClient.getRoot(), baseRevision)
+                .indexCache(useIndexCache ? getIndexCacheDirectory() : null)
+                .gitCache(gitCacheDirectory == null ? null : gitCacheDirectory.toPath(), gitCacheSize * 1024 * 1024)
+                .gitProcesses(gitProcesses)
+                .additionalFileMapping(fileMapping)
+                .threads(selectionThreads, analysisThreads)
+                .build();
+        return new RemoteTestSelection(daemonClient.get(), request, () -> {
+            try {
+                return new FileLevelTestSelection(readReport(), gitClient, baseRevision, fileMapping, selectionThreads, analysisThreads);
+            } catch (MojoFailureException e) {
+                throw new TestSelectionException(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @return digest of the test report content, which is computed at most once per execution
+     */
+    String getReportDigest() throws IOException {
+        if (reportDigest == null) {
+            reportDigest = SelectionIndexCache.getDigest(testReportFile.toPath());
+        }
+        return reportDigest;
+    }
+
+    /**
+     * Describes the test report and the additional file mappings by their content digests,
+     * as paths and modification times change whenever they are downloaded again (e.g., in CI) and do not identify their content.
+     *
+     * @return description of all selection inputs apart from the change set, an incremental selection is only continued if it is unchanged
+     */
+    String getSelectionConfiguration() throws IOException {
+        StringBuilder configuration = new StringBuilder();
+        configuration.append(getReportDigest()).append('|')
+                .append(targetRevision).append('|')
+                .append(fileFilter);
+        if (additionalFileMappings != null) {
+            for (File mappingFile : additionalFileMappings) {
+                configuration.append('|').append(mappingFile.isFile() ? SelectionIndexCache.getDigest(mappingFile.toPath()) : "-");
+            }
+        }
+        return configuration.toString();
+    }
+
+    /**
+     * Writes the selected tests (and the additionally included tests, if requested and any test has been selected) and the modules containing them.
+     */
+    void writeSelection(BuildSystemAwareTestSelectionMediator mediator, List<SelectedTestSuite> selectedTestSuites,
+                        String testsFileName, String modulesFileName, boolean includeAdditionalTests) throws IOException {
+        String selectedTests = toTestSuites(selectedTestSuites).stream().map(TestSuite::getTestId).collect(Collectors.joining(System.lineSeparator()));
+        // In case any tests have been selected, we add the additionally included tests.
+        if (includeAdditionalTests && !selectedTestSuites.isEmpty()) {
+            selectedTests = selectedTests + System.lineSeparator() + String.join(System.lineSeparator(), additionalIncludedTests);
+        }
+        Path includedTests = outputDirectory.toPath().resolve(getLabel()).resolve(testsFileName);
+        createFileAndEnclosingDir(includedTests);
+        writeToFile(includedTests, selectedTests, false, StandardOpenOption.TRUNCATE_EXISTING);
+        log("Selected tests in " + testsFileName + ": " + selectedTests);
+        // Select modules for tests.
+        Set<String> selectedModules = mediator.getModulesForTests(selectedTestSuites);
+        Path includedModules = outputDirectory.toPath().resolve(getLabel()).resolve(modulesFileName);
+        createFileAndEnclosingDir(includedModules);
+        String selectedTestModules = String.join(System.lineSeparator(), selectedModules);
+        log("Selected modules for tests in " + modulesFileName + ": " + selectedTestModules);
+        writeToFile(includedModules, selectedTestModules, false, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Deletes the shard files of previous runs for shards beyond the given number of shards,
+     * so that no stale selection is picked up for a shard that no longer exists.
+     */
+    void deleteStaleShardFiles(int shardCount) throws IOException {
+        Path selectionDirectory = outputDirectory.toPath().resolve(getLabel());
+        if (!Files.isDirectory(selectionDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(selectionDirectory)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Matcher matcher = SHARD_FILE_PATTERN.matcher(file.getFileName().toString());
+                if (matcher.matches() && Integer.parseInt(matcher.group(1)) >= shardCount) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
     }
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         try {
             if (session.getCurrentProject().isExecutionRoot()) {
-                TestReport testReport = readReport();
-                GitClient gitClient = getGitClient();
-                Map<String, Set<String>> fileMapping = readFileMapping();
-                TestSelectionStrategy rtsStrategy = new FileLevelTestSelection(testReport, gitClient, targetRevision, fileMapping);
-                BuildSystemAwareTestSelectionMediator mediator = new BuildSystemAwareTestSelectionMediator(
-                        session.getCurrentProject().getBasedir().toPath().normalize().toAbsolutePath(),
-                        gitRepositoryRoot.toPath().normalize().toAbsolutePath(),
-                        rtsStrategy,
-                        session
-                );
-                // Select tests.
-                TestSelectionResult testSelectionResult = mediator.executeTestSelection(getChangeset(gitClient));
-                String selectedTestSuites = toTestSuites(testSelectionResult.getSelectedTestSuites()).stream().map(TestSuite::getTestId).collect(Collectors.joining(System.lineSeparator()));
-                // In case any tests have been selected, we add the additionally included tests.
-                if (!testSelectionResult.getSelectedTestSuites().isEmpty()) {
-                    selectedTestSuites = selectedTestSuites + System.lineSeparator() + String.join(System.lineSeparator(), additionalIncludedTests);
+                // The git client keeps a long-lived git process for reading file contents.
+                try (GitClient gitClient = getGitClient()) {
+                    Map<String, Set<String>> fileMapping = readFileMapping();
+                    IncrementalSelection incrementalSelection = incremental
+                            ? new IncrementalSelection(gitClient, outputDirectory.toPath().resolve(getLabel()).resolve(SELECTION_STATE_FILE),
+                            getSelectionConfiguration(), targetRevision, sourceRevision)
+                            : null;
+                    String baseRevision = incrementalSelection != null ? incrementalSelection.getBaseRevision() : targetRevision;
+                    if (incrementalSelection != null) {
+                        log(incrementalSelection.isIncremental() ? "Continuing previous selection from " + baseRevision : "Selecting tests from scratch");
+                    }
+                    TestSelectionStrategy rtsStrategy = getTestSelectionStrategy(gitClient, fileMapping, baseRevision);
+                    BuildSystemAwareTestSelectionMediator mediator = new BuildSystemAwareTestSelectionMediator(
+                            session.getCurrentProject().getBasedir().toPath().normalize().toAbsolutePath(),
+                            gitRepositoryRoot.toPath().normalize().toAbsolutePath(),
+                            rtsStrategy,
+                            session,
+                            new JavaTypeNameCache(gitClient.getObjectCache()),
+                            new HashSet<>(skippedDirectories),
+                            useTestFileCache ? outputDirectory.toPath().resolve(getLabel()).resolve(TEST_FILE_STATE_FILE) : null
+                    );
+                    // Select tests.
+                    TestSelectionResult testSelectionResult = mediator.executeTestSelection(getChangeset(gitClient, baseRevision));
+                    if (incrementalSelection != null) {
+                        TestSelectionResult mergedResult = incrementalSelection.merge(testSelectionResult);
+                        incrementalSelection.save(mergedResult);
+                        testSelectionResult = onlyNewTests ? incrementalSelection.getNewlySelected(testSelectionResult) : mergedResult;
+                    }
+                    TestHistory history = prioritize || shards > 1 ? TestHistory.load(getHistoryFile()) : new TestHistory();
+                    if (prioritize) {
+                        log("Prioritizing selected tests with history of " + history.size() + " test suites.");
+                        testSelectionResult = new TestSelectionResult(
+                                new TestPrioritizer(history).prioritize(testSelectionResult.getSelectedTestSuites()),
+                                testSelectionResult.getExcludedTestSuites()
+                        );
+                    }
+                    writeSelection(mediator, testSelectionResult.getSelectedTestSuites(), TESTS_INCLUDED_FILE, MODULE_FILE, true);
+                    if (shards > 1) {
+                        TestSharder sharder = new TestSharder(history);
+                        List<List<SelectedTestSuite>> partition = sharder.partition(testSelectionResult.getSelectedTestSuites(), shards);
+                        // The additionally included tests have no recorded durations, so they only run in the shortest shard.
+                        int additionalTestsShard = sharder.getShortestShard(partition);
+                        for (int shard = 0; shard < partition.size(); shard++) {
+                            writeSelection(mediator, partition.get(shard),
+                                    String.format(SHARD_TESTS_INCLUDED_FILE, shard), String.format(SHARD_MODULE_FILE, shard),
+                                    shard == additionalTestsShard);
+                        }
+                    }
+                    deleteStaleShardFiles(shards > 1 ? shards : 0);
                 }
-                Path includedTests = outputDirectory.toPath().resolve(getLabel()).resolve(TESTS_INCLUDED_FILE);
-                createFileAndEnclosingDir(includedTests);
-                writeToFile(includedTests, selectedTestSuites, false, StandardOpenOption.TRUNCATE_EXISTING);
-                log("Selected tests: " + selectedTestSuites);
-                // Select modules for tests.
-                Set<String> selectedModules = mediator.getModulesForTests(testSelectionResult.getSelectedTestSuites());
-                Path includedModules = outputDirectory.toPath().resolve(getLabel()).resolve(MODULE_FILE);
-                createFileAndEnclosingDir(includedModules);
-                String selectedTestModules = String.join( System.lineSeparator(), selectedModules);
-                log("Selected modules for tests: " + selectedTestModules);
-                writeToFile(includedModules, selectedTestModules, false, StandardOpenOption.TRUNCATE_EXISTING);
             }
         } catch (Exception exception) {
             exception.printStackTrace();
@@ -0,0 +1,51 @@
+package edu.tum.sse.multirts.mojo;
+
+import edu.tum.sse.multirts.index.SelectionIndexCache;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * This Mojo builds the persistent selection index for a test report ahead of time (e.g., in a nightly job),
+ * so that subsequent test selection runs only need to map the cached index.
+ */
+@Mojo(name = "warm-index", defaultPhase = LifecyclePhase.VALIDATE, threadSafe = true, aggregator = true)
+public class WarmIndexMojo extends AbstractMultiRTSMojo {
+
+    /**
+     * Label which is used for naming generated file artifacts.
+     */
+    @Parameter(property = "multirts.label", defaultValue = "index", required = true, readonly = true)
+    String label;
+
+    /**
+     * Test report in JTeC format (optionally gzip-compressed).
+     */
+    @Parameter(property = "multirts.testReport", required = true)
+    File testReportFile;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            if (session.getCurrentProject().isExecutionRoot()) {
+                long start = System.nanoTime();
+                Path cachedIndex = new SelectionIndexCache(getIndexCacheDirectory()).warm(testReportFile.toPath());
+                long timeElapsed = (System.nanoTime() - start) / 1_000_000;
+                log("Warmed selection index " + cachedIndex + " for test report " + testReportFile + " in " + timeElapsed + "ms.");
+            }
+        } catch (Exception exception) {
+            exception.printStackTrace();
+            throw new MojoFailureException("Failed to warm selection index for test report " + testReportFile + " with error message: " + exception.getMessage());
+        }
+    }
+
+    @Override
+    String getLabel() {
+        return label;
+    }
+}
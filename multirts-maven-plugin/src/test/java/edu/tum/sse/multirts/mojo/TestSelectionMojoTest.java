@@ -2,10 +2,14 @@ package edu.tum.sse.multirts.mojo;
 
 import org.apache.maven.plugin.MojoFailureException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -14,6 +18,9 @@ import java.util.Set;
 import static edu.tum.sse.multirts.util.CollectionUtils.newList;
 import static edu.tum.sse.multirts.util.CollectionUtils.newSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TestSelectionMojoTest {
     @Test
@@ -37,4 +44,63 @@ class TestSelectionMojoTest {
         // then
         assertEquals(expected, fileMapping);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldDeleteStaleShardFiles(@TempDir Path outputDirectory) throws IOException {
+        // given
+        TestSelectionMojo mojo = new TestSelectionMojo();
+        mojo.outputDirectory = outputDirectory.toFile();
+        mojo.label = "tests";
+        Path selectionDirectory = Files.createDirectories(outputDirectory.resolve("tests"));
+        for (String fileName : newList("included.txt", "modules.txt", "included-0.txt", "modules-0.txt",
+                "included-1.txt", "modules-1.txt", "included-2.txt", "modules-2.txt", "included-x.txt")) {
+            Files.createFile(selectionDirectory.resolve(fileName));
+        }
+
+        // when
+        mojo.deleteStaleShardFiles(2);
+
+        // then
+        for (String fileName : newList("included.txt", "modules.txt", "included-0.txt", "modules-0.txt",
+                "included-1.txt", "modules-1.txt", "included-x.txt")) {
+            assertTrue(Files.exists(selectionDirectory.resolve(fileName)), fileName);
+        }
+        assertFalse(Files.exists(selectionDirectory.resolve("included-2.txt")));
+        assertFalse(Files.exists(selectionDirectory.resolve("modules-2.txt")));
+
+        // when
+        mojo.deleteStaleShardFiles(0);
+
+        // then
+        assertFalse(Files.exists(selectionDirectory.resolve("included-0.txt")));
+        assertFalse(Files.exists(selectionDirectory.resolve("modules-1.txt")));
+        assertTrue(Files.exists(selectionDirectory.resolve("included.txt")));
+    }
+
+    private static TestSelectionMojo createMojo(Path testReport) {
+        TestSelectionMojo mojo = new TestSelectionMojo();
+        mojo.testReportFile = testReport.toFile();
+        mojo.targetRevision = "main";
+        mojo.fileFilter = ".*";
+        return mojo;
+    }
+
+    @Test
+    void shouldDescribeSelectionConfigurationByReportContent(@TempDir Path tempDir) throws IOException {
+        // given
+        Path report = Files.write(tempDir.resolve("report.json"), "{\"testSuites\":[0]}".getBytes());
+        // Same content downloaded again to another path, e.g., in CI.
+        Path downloadedReport = Files.write(Files.createDirectories(tempDir.resolve("download")).resolve("test-report.json"), "{\"testSuites\":[0]}".getBytes());
+        Files.setLastModifiedTime(downloadedReport, FileTime.fromMillis(Files.getLastModifiedTime(report).toMillis() + 60_000));
+        // Different content restored with the same size and modification time.
+        Path restoredReport = Files.write(tempDir.resolve("restored.json"), "{\"testSuites\":[1]}".getBytes());
+        Files.setLastModifiedTime(restoredReport, Files.getLastModifiedTime(report));
+
+        // when
+        String configuration = createMojo(report).getSelectionConfiguration();
+
+        // then
+        assertEquals(configuration, createMojo(downloadedReport).getSelectionConfiguration());
+        assertNotEquals(configuration, createMojo(restoredReport).getSelectionConfiguration());
+    }
+}
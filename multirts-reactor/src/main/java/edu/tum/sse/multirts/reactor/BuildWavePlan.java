@@ -0,0 +1,239 @@
+package edu.tum.sse.multirts.reactor;
+
+import org.apache.maven.project.MavenProject;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Topologically layered build schedule for a set of selected projects in a Maven reactor.
+ * A project is placed in the wave after the last wave containing any of its selected (transitive) upstream projects,
+ * so all projects in the same wave can be built concurrently (e.g., on different machines) once all previous waves are built.
+ * Dependencies via unselected projects are kept, as Maven orders selected projects by their transitive dependencies as well.
+ * With recorded build durations (see {@link ModuleDurations}), each wave is annotated with its earliest finish time
+ * assuming unlimited parallelism, and the critical path (i.e., the chain of dependent projects with the longest total duration)
+ * bounds the duration of any parallel build of the selected projects.
+ */
+public final class BuildWavePlan {
+
+    private final List<Wave> waves;
+    private final List<MavenProject> criticalPath;
+    private final long criticalPathMillis;
+
+    private BuildWavePlan(final List<Wave> waves, final List<MavenProject> criticalPath, final long criticalPathMillis) {
+        this.waves = waves;
+        this.criticalPath = criticalPath;
+        this.criticalPathMillis = criticalPathMillis;
+    }
+
+    /**
+     * @param index            dependency index of the reactor
+     * @param selectedProjects projects to schedule
+     * @param durations        recorded build durations
+     * @return schedule of the selected projects
+     */
+    public static BuildWavePlan compute(final ReactorDependencyIndex index, final BitSet selectedProjects, final ModuleDurations durations) {
+        return new Scheduler(index, selectedProjects, durations).schedule();
+    }
+
+    public List<Wave> getWaves() {
+        return waves;
+    }
+
+    /**
+     * @return projects on the critical path in build order
+     */
+    public List<MavenProject> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public long getCriticalPathMillis() {
+        return criticalPathMillis;
+    }
+
+    /**
+     * @param root directory which module paths are relative to (e.g., the top-level project directory)
+     * @return plan in JSON format, with modules identified by their paths relative to {@code root}
+     */
+    public String toJson(final Path root) {
+        StringBuilder json = new StringBuilder();
+        json.append("{").append(System.lineSeparator());
+        json.append("  \"criticalPathMillis\": ").append(criticalPathMillis).append(",").append(System.lineSeparator());
+        json.append("  \"criticalPath\": ");
+        appendModules(json, criticalPath, root);
+        json.append(",").append(System.lineSeparator());
+        json.append("  \"waves\": [");
+        for (int i = 0; i < waves.size(); i++) {
+            Wave wave = waves.get(i);
+            json.append(i == 0 ? "" : ",").append(System.lineSeparator());
+            json.append("    {\"wave\": ").append(wave.index)
+                    .append(", \"durationMillis\": ").append(wave.durationMillis)
+                    .append(", \"earliestFinishMillis\": ").append(wave.earliestFinishMillis)
+                    .append(", \"criticalModule\": ");
+            if (wave.criticalProject == null) {
+                json.append("null");
+            } else {
+                appendString(json, getModulePath(wave.criticalProject, root));
+            }
+            json.append(", \"modules\": ");
+            appendModules(json, wave.projects, root);
+            json.append("}");
+        }
+        json.append(System.lineSeparator()).append("  ]").append(System.lineSeparator());
+        json.append("}").append(System.lineSeparator());
+        return json.toString();
+    }
+
+    private static String getModulePath(final MavenProject project, final Path root) {
+        Path basedir = project.getBasedir().toPath().toAbsolutePath().normalize();
+        Path modulePath = root.toAbsolutePath().normalize().relativize(basedir);
+        return modulePath.toString().isEmpty() ? "." : modulePath.toString();
+    }
+
+    private static void appendModules(final StringBuilder json, final List<MavenProject> projects, final Path root) {
+        json.append("[");
+        for (int i = 0; i < projects.size(); i++) {
+            json.append(i == 0 ? "" : ", ");
+            appendString(json, getModulePath(projects.get(i), root));
+        }
+        json.append("]");
+    }
+
+    private static void appendString(final StringBuilder json, final String value) {
+        json.append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    public static final class Wave {
+        private final int index;
+        private final List<MavenProject> projects = new ArrayList<>();
+        private long durationMillis = 0;
+        private long earliestFinishMillis = 0;
+        private MavenProject criticalProject = null;
+
+        Wave(final int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return projects in this wave in the order of the reactor
+         */
+        public List<MavenProject> getProjects() {
+            return projects;
+        }
+
+        /**
+         * @return duration of the longest project in this wave
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * @return time at which all projects in this wave are built at the earliest (with unlimited parallelism)
+         */
+        public long getEarliestFinishMillis() {
+            return earliestFinishMillis;
+        }
+
+        /**
+         * @return project of this wave on the critical path, {@code null} if the critical path skips this wave
+         */
+        public MavenProject getCriticalProject() {
+            return criticalProject;
+        }
+    }
+
+    /**
+     * Computes waves and earliest finish times by memoized recursion over the selected upstream projects of each project.
+     */
+    private static final class Scheduler {
+        private final ReactorDependencyIndex index;
+        private final BitSet selectedProjects;
+        private final ModuleDurations durations;
+        private final int[] waveIds;
+        private final long[] finishTimes;
+        private final int[] criticalPredecessors;
+
+        Scheduler(final ReactorDependencyIndex index, final BitSet selectedProjects, final ModuleDurations durations) {
+            this.index = index;
+            this.selectedProjects = selectedProjects;
+            this.durations = durations;
+            this.waveIds = new int[index.size()];
+            this.finishTimes = new long[index.size()];
+            this.criticalPredecessors = new int[index.size()];
+            Arrays.fill(waveIds, -1);
+            Arrays.fill(criticalPredecessors, -1);
+        }
+
+        BuildWavePlan schedule() {
+            int last = -1;
+            for (int id = selectedProjects.nextSetBit(0); id >= 0; id = selectedProjects.nextSetBit(id + 1)) {
+                visit(id);
+                if (last < 0 || finishTimes[id] > finishTimes[last]) {
+                    last = id;
+                }
+            }
+            List<MavenProject> criticalPath = new ArrayList<>();
+            BitSet critical = new BitSet(index.size());
+            for (int id = last; id >= 0; id = criticalPredecessors[id]) {
+                criticalPath.add(index.getProject(id));
+                critical.set(id);
+            }
+            Collections.reverse(criticalPath);
+            List<Wave> waves = new ArrayList<>();
+            for (int id = selectedProjects.nextSetBit(0); id >= 0; id = selectedProjects.nextSetBit(id + 1)) {
+                while (waves.size() <= waveIds[id]) {
+                    waves.add(new Wave(waves.size()));
+                }
+                Wave wave = waves.get(waveIds[id]);
+                MavenProject project = index.getProject(id);
+                wave.projects.add(project);
+                wave.durationMillis = Math.max(wave.durationMillis, durations.getDurationMillis(project));
+                wave.earliestFinishMillis = Math.max(wave.earliestFinishMillis, finishTimes[id]);
+                if (critical.get(id)) {
+                    wave.criticalProject = project;
+                }
+            }
+            return new BuildWavePlan(waves, criticalPath, last < 0 ? 0 : finishTimes[last]);
+        }
+
+        private void visit(final int id) {
+            if (waveIds[id] >= 0) {
+                return;
+            }
+            // Maven rejects cyclic reactors, so the recursion always terminates.
+            BitSet upstream = index.getUpstreamProjects(id, true);
+            upstream.and(selectedProjects);
+            int waveId = 0;
+            long startTime = 0;
+            for (int upstreamId = upstream.nextSetBit(0); upstreamId >= 0; upstreamId = upstream.nextSetBit(upstreamId + 1)) {
+                visit(upstreamId);
+                waveId = Math.max(waveId, waveIds[upstreamId] + 1);
+                if (finishTimes[upstreamId] > startTime) {
+                    startTime = finishTimes[upstreamId];
+                    criticalPredecessors[id] = upstreamId;
+                }
+            }
+            waveIds[id] = waveId;
+            finishTimes[id] = startTime + durations.getDurationMillis(index.getProject(id));
+        }
+    }
+}
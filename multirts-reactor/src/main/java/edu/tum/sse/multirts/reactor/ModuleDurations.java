@@ -0,0 +1,130 @@
+package edu.tum.sse.multirts.reactor;
+
+import org.apache.maven.project.MavenProject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recorded build durations of Maven projects (keyed by "groupId:artifactId", so they can be shared across checkouts), persisted in a durations file.
+ * Durations are smoothed exponentially, so recent builds dominate.
+ * Projects without recorded duration are assumed to take as long as the median recorded project.
+ */
+public final class ModuleDurations {
+
+    /**
+     * Header of the durations file, which has to be versioned along with changes to the format.
+     */
+    static final String DURATIONS_VERSION = "multirts-module-durations-v1";
+
+    /**
+     * Duration assumed for all projects if no duration has been recorded at all.
+     */
+    static final long DEFAULT_DURATION_MILLIS = 1000;
+
+    /**
+     * Weight of the latest duration in the smoothed duration.
+     */
+    private static final double DURATION_WEIGHT = 0.5;
+
+    private final Map<String, Long> durations = new HashMap<>();
+    private long medianDuration = -1;
+
+    /**
+     * @param durationsFile durations file, which may not exist yet
+     * @return recorded durations, empty if there is no (valid) durations file
+     */
+    public static ModuleDurations load(final Path durationsFile) {
+        ModuleDurations moduleDurations = new ModuleDurations();
+        if (durationsFile == null || !Files.isRegularFile(durationsFile)) {
+            return moduleDurations;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(durationsFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(DURATIONS_VERSION)) {
+                return moduleDurations;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t");
+                if (columns.length == 2) {
+                    moduleDurations.durations.put(columns[0], Long.parseLong(columns[1]));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Durations only affect the annotated critical path, so we simply start from scratch.
+            System.err.println("Failed to load module durations from " + durationsFile + ": " + e.getMessage());
+            moduleDurations.durations.clear();
+        }
+        return moduleDurations;
+    }
+
+    /**
+     * Persists the durations atomically, so concurrent readers never see a partially written file.
+     */
+    public void save(final Path durationsFile) throws IOException {
+        Files.createDirectories(durationsFile.toAbsolutePath().getParent());
+        Path tmpFile = Files.createTempFile(durationsFile.toAbsolutePath().getParent(), durationsFile.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                writer.write(DURATIONS_VERSION);
+                writer.newLine();
+                for (Map.Entry<String, Long> entry : durations.entrySet()) {
+                    writer.write(entry.getKey() + "\t" + entry.getValue());
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(tmpFile, durationsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, durationsFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    static String getKey(final MavenProject project) {
+        return project.getGroupId() + ":" + project.getArtifactId();
+    }
+
+    /**
+     * Records a single build of a project.
+     */
+    public void record(final MavenProject project, final long durationMillis) {
+        durations.merge(getKey(project), durationMillis,
+                (previous, latest) -> Math.round(DURATION_WEIGHT * latest + (1 - DURATION_WEIGHT) * previous));
+        medianDuration = -1;
+    }
+
+    /**
+     * @return recorded (smoothed) duration, or the median recorded duration for projects without any recorded duration
+     */
+    public long getDurationMillis(final MavenProject project) {
+        Long duration = durations.get(getKey(project));
+        return duration != null ? duration : getMedianDuration();
+    }
+
+    private long getMedianDuration() {
+        if (medianDuration < 0) {
+            List<Long> recorded = new ArrayList<>(durations.values());
+            recorded.sort(null);
+            medianDuration = recorded.isEmpty() ? DEFAULT_DURATION_MILLIS : recorded.get(recorded.size() / 2);
+        }
+        return medianDuration;
+    }
+
+    public int size() {
+        return durations.size();
+    }
+}
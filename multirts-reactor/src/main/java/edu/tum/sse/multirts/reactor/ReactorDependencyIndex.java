@@ -0,0 +1,238 @@
+package edu.tum.sse.multirts.reactor;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Extension;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Precomputed up- and downstream relations of all projects in a Maven reactor.
+ * Projects are numbered densely, and the direct and transitive up- and downstream projects of each project are stored as bitsets,
+ * so selecting dependent projects for any set of projects is a union of bitsets (without any duplicates).
+ * <p>
+ * In a filtered reactor (e.g., with "-pl" or "-rf"), the session's dependency graph omits all relations to projects which are not selected,
+ * so the direct relations are additionally computed from the declared parent, dependencies, build plugins, and build extensions of all projects
+ * (as Maven does for the unfiltered graph), which keeps transitive relations through projects that are not selected.
+ * The index is computed once per dependency graph (i.e., once per session) and is immutable, hence safe for concurrent use.
+ */
+public final class ReactorDependencyIndex {
+
+    private static final Map<ProjectDependencyGraph, ReactorDependencyIndex> indexCache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final List<MavenProject> projects;
+    private final Map<MavenProject, Integer> projectIds = new IdentityHashMap<>();
+    private final Map<Path, Integer> projectIdsByPath = new HashMap<>();
+    private final BitSet[] directUpstream;
+    private final BitSet[] directDownstream;
+    private final BitSet[] transitiveUpstream;
+    private final BitSet[] transitiveDownstream;
+
+    ReactorDependencyIndex(final List<MavenProject> projects, final ProjectDependencyGraph graph) {
+        this.projects = new ArrayList<>(projects);
+        final int size = projects.size();
+        for (int id = 0; id < size; id++) {
+            projectIds.put(projects.get(id), id);
+            if (projects.get(id).getBasedir() != null) {
+                projectIdsByPath.putIfAbsent(projects.get(id).getBasedir().toPath().normalize().toAbsolutePath(), id);
+            }
+        }
+        directUpstream = new BitSet[size];
+        directDownstream = new BitSet[size];
+        for (int id = 0; id < size; id++) {
+            directUpstream[id] = new BitSet(size);
+            directDownstream[id] = new BitSet(size);
+        }
+        for (int id = 0; id < size; id++) {
+            for (MavenProject downstreamProject : graph.getDownstreamProjects(projects.get(id), false)) {
+                Integer downstreamId = projectIds.get(downstreamProject);
+                if (downstreamId != null) {
+                    addRelation(id, downstreamId);
+                }
+            }
+        }
+        addDeclaredRelations();
+        transitiveUpstream = computeClosures(directUpstream);
+        transitiveDownstream = computeClosures(directDownstream);
+    }
+
+    private void addRelation(final int upstreamId, final int downstreamId) {
+        if (upstreamId != downstreamId) {
+            directDownstream[upstreamId].set(downstreamId);
+            directUpstream[downstreamId].set(upstreamId);
+        }
+    }
+
+    /**
+     * Adds the relations declared in the models of all projects, matched by groupId and artifactId, and by version if declared.
+     */
+    private void addDeclaredRelations() {
+        final Map<String, List<Integer>> projectIdsByKey = new HashMap<>();
+        for (int id = 0; id < projects.size(); id++) {
+            projectIdsByKey.computeIfAbsent(getKey(projects.get(id).getGroupId(), projects.get(id).getArtifactId()), key -> new ArrayList<>()).add(id);
+        }
+        for (int id = 0; id < projects.size(); id++) {
+            final MavenProject project = projects.get(id);
+            final Parent parent = project.getModel() != null ? project.getModel().getParent() : null;
+            if (parent != null) {
+                addDeclaredRelation(projectIdsByKey, parent.getGroupId(), parent.getArtifactId(), parent.getVersion(), id);
+            }
+            for (Dependency dependency : project.getDependencies()) {
+                addDeclaredRelation(projectIdsByKey, dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), id);
+            }
+            for (Plugin plugin : project.getBuildPlugins()) {
+                addDeclaredRelation(projectIdsByKey, plugin.getGroupId(), plugin.getArtifactId(), plugin.getVersion(), id);
+                for (Dependency dependency : plugin.getDependencies()) {
+                    addDeclaredRelation(projectIdsByKey, dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), id);
+                }
+            }
+            for (Extension extension : project.getBuildExtensions()) {
+                addDeclaredRelation(projectIdsByKey, extension.getGroupId(), extension.getArtifactId(), extension.getVersion(), id);
+            }
+        }
+    }
+
+    private void addDeclaredRelation(final Map<String, List<Integer>> projectIdsByKey, final String groupId, final String artifactId,
+                                     final String version, final int downstreamId) {
+        for (int upstreamId : projectIdsByKey.getOrDefault(getKey(groupId, artifactId), Collections.emptyList())) {
+            if (version == null || version.equals(projects.get(upstreamId).getVersion())) {
+                addRelation(upstreamId, downstreamId);
+            }
+        }
+    }
+
+    private static String getKey(final String groupId, final String artifactId) {
+        return groupId + ":" + artifactId;
+    }
+
+    /**
+     * @param session Maven session
+     * @return index for the session's dependency graph, which is only computed once per graph
+     */
+    public static ReactorDependencyIndex of(final MavenSession session) {
+        return indexCache.computeIfAbsent(session.getProjectDependencyGraph(),
+                graph -> new ReactorDependencyIndex(session.getAllProjects(), graph));
+    }
+
+    /**
+     * Computes the transitive closure of each project in a DAG, where the closure of a project is the union of its direct neighbors and their closures.
+     */
+    private static BitSet[] computeClosures(final BitSet[] direct) {
+        final BitSet[] closures = new BitSet[direct.length];
+        for (int id = 0; id < direct.length; id++) {
+            computeClosure(id, direct, closures, new BitSet(direct.length));
+        }
+        return closures;
+    }
+
+    private static BitSet computeClosure(final int id, final BitSet[] direct, final BitSet[] closures, final BitSet inProgress) {
+        if (closures[id] != null) {
+            return closures[id];
+        }
+        // Maven rejects cyclic reactors, we only guard against endless recursion here.
+        inProgress.set(id);
+        BitSet closure = (BitSet) direct[id].clone();
+        for (int neighbor = direct[id].nextSetBit(0); neighbor >= 0; neighbor = direct[id].nextSetBit(neighbor + 1)) {
+            if (!inProgress.get(neighbor)) {
+                closure.or(computeClosure(neighbor, direct, closures, inProgress));
+            }
+        }
+        inProgress.clear(id);
+        closures[id] = closure;
+        return closure;
+    }
+
+    public int size() {
+        return projects.size();
+    }
+
+    /**
+     * @return project with the given id, ids are assigned in the order of the reactor
+     */
+    public MavenProject getProject(final int projectId) {
+        return projects.get(projectId);
+    }
+
+    /**
+     * @return upstream projects of a single project (a copy, which may be modified)
+     */
+    public BitSet getUpstreamProjects(final int projectId, final boolean transitive) {
+        return (BitSet) (transitive ? transitiveUpstream : directUpstream)[projectId].clone();
+    }
+
+    /**
+     * @param paths normalized absolute project base directories
+     * @return projects located at any of the paths
+     */
+    public BitSet getProjectsAtPaths(final Collection<Path> paths) {
+        BitSet result = new BitSet(size());
+        for (Path path : paths) {
+            Integer id = projectIdsByPath.get(path);
+            if (id != null) {
+                result.set(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param mavenProjects projects, projects which are not part of the reactor are ignored
+     * @return the given projects as bitset
+     */
+    public BitSet toBitSet(final Collection<MavenProject> mavenProjects) {
+        BitSet result = new BitSet(size());
+        for (MavenProject project : mavenProjects) {
+            Integer id = projectIds.get(project);
+            if (id != null) {
+                result.set(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return projects in the order of the reactor
+     */
+    public List<MavenProject> toProjects(final BitSet projectIds) {
+        List<MavenProject> result = new ArrayList<>(projectIds.cardinality());
+        for (int id = projectIds.nextSetBit(0); id >= 0; id = projectIds.nextSetBit(id + 1)) {
+            result.add(projects.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * @return union of the upstream projects of all given projects (excluding the projects themselves, unless one depends on another)
+     */
+    public BitSet getUpstreamProjects(final BitSet projectIds, final boolean transitive) {
+        return union(projectIds, transitive ? transitiveUpstream : directUpstream);
+    }
+
+    /**
+     * @return union of the downstream projects of all given projects (excluding the projects themselves, unless one depends on another)
+     */
+    public BitSet getDownstreamProjects(final BitSet projectIds, final boolean transitive) {
+        return union(projectIds, transitive ? transitiveDownstream : directDownstream);
+    }
+
+    private BitSet union(final BitSet projectIds, final BitSet[] relation) {
+        BitSet result = new BitSet(size());
+        for (int id = projectIds.nextSetBit(0); id >= 0; id = projectIds.nextSetBit(id + 1)) {
+            result.or(relation[id]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package edu.tum.sse.multirts.reactor;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BuildWavePlanTest {
+
+    final Path root = Paths.get("/reactor").toAbsolutePath();
+    MavenProject a, b, c, d, e;
+    ReactorDependencyIndex index;
+    ModuleDurations durations;
+
+    private MavenProject createProject(String name) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("group");
+        project.setArtifactId(name);
+        project.setFile(new File(root.resolve(name).toFile(), "pom.xml"));
+        return project;
+    }
+
+    @BeforeEach
+    void setUp() {
+        // c -> b -> a, d -> a, e is independent.
+        a = createProject("a");
+        b = createProject("b");
+        c = createProject("c");
+        d = createProject("d");
+        e = createProject("e");
+        ProjectDependencyGraph graph = mock(ProjectDependencyGraph.class);
+        when(graph.getDownstreamProjects(a, false)).thenReturn(Arrays.asList(b, d));
+        when(graph.getDownstreamProjects(b, false)).thenReturn(Arrays.asList(c));
+        when(graph.getDownstreamProjects(c, false)).thenReturn(Collections.emptyList());
+        when(graph.getDownstreamProjects(d, false)).thenReturn(Collections.emptyList());
+        when(graph.getDownstreamProjects(e, false)).thenReturn(Collections.emptyList());
+        index = new ReactorDependencyIndex(Arrays.asList(a, b, c, d, e), graph);
+        durations = new ModuleDurations();
+        durations.record(a, 10);
+        durations.record(b, 20);
+        durations.record(c, 5);
+        durations.record(d, 100);
+        durations.record(e, 1);
+    }
+
+    @Test
+    void shouldLayerProjectsAndFindCriticalPath() {
+        // when
+        BuildWavePlan plan = BuildWavePlan.compute(index, index.toBitSet(Arrays.asList(a, b, c, d, e)), durations);
+
+        // then
+        assertEquals(3, plan.getWaves().size());
+        assertEquals(Arrays.asList(a, e), plan.getWaves().get(0).getProjects());
+        assertEquals(Arrays.asList(b, d), plan.getWaves().get(1).getProjects());
+        assertEquals(Arrays.asList(c), plan.getWaves().get(2).getProjects());
+        assertEquals(Arrays.asList(a, d), plan.getCriticalPath());
+        assertEquals(110, plan.getCriticalPathMillis());
+        assertEquals(10, plan.getWaves().get(0).getEarliestFinishMillis());
+        assertEquals(100, plan.getWaves().get(1).getDurationMillis());
+        assertEquals(110, plan.getWaves().get(1).getEarliestFinishMillis());
+        assertEquals(d, plan.getWaves().get(1).getCriticalProject());
+        assertNull(plan.getWaves().get(2).getCriticalProject());
+    }
+
+    @Test
+    void shouldKeepDependenciesViaUnselectedProjects() {
+        // when
+        BuildWavePlan plan = BuildWavePlan.compute(index, index.toBitSet(Arrays.asList(a, c)), durations);
+
+        // then
+        assertEquals(2, plan.getWaves().size());
+        assertEquals(Arrays.asList(a), plan.getWaves().get(0).getProjects());
+        assertEquals(Arrays.asList(c), plan.getWaves().get(1).getProjects());
+        assertEquals(15, plan.getCriticalPathMillis());
+        assertTrue(plan.toJson(root).contains("{\"wave\": 1, \"durationMillis\": 5, \"earliestFinishMillis\": 15, \"criticalModule\": \"c\", \"modules\": [\"c\"]}"));
+    }
+
+    @Test
+    void shouldPersistSmoothedDurations(@TempDir Path tempDir) throws IOException {
+        // given
+        durations.record(a, 30);
+        durations.save(tempDir.resolve("durations.tsv"));
+
+        // when
+        ModuleDurations loadedDurations = ModuleDurations.load(tempDir.resolve("durations.tsv"));
+
+        // then
+        assertEquals(20, loadedDurations.getDurationMillis(a));
+        // Projects without recorded duration take as long as the median project.
+        assertEquals(20, loadedDurations.getDurationMillis(createProject("unknown")));
+    }
+}
@@ -0,0 +1,126 @@
+package edu.tum.sse.multirts.reactor;
+
+import org.apache.maven.execution.ProjectDependencyGraph;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactorDependencyIndexTest {
+
+    final Path root = Paths.get("/reactor").toAbsolutePath();
+    MavenProject a, b, c, d, e;
+    ReactorDependencyIndex index;
+
+    private MavenProject createProject(String name) {
+        MavenProject project = new MavenProject();
+        project.setGroupId("g");
+        project.setArtifactId(name);
+        project.setVersion("1.0");
+        project.setFile(new File(root.resolve(name).toFile(), "pom.xml"));
+        return project;
+    }
+
+    @BeforeEach
+    void setUp() {
+        // c -> b -> a, d -> a, e is independent.
+        a = createProject("a");
+        b = createProject("b");
+        c = createProject("c");
+        d = createProject("d");
+        e = createProject("e");
+        ProjectDependencyGraph graph = mock(ProjectDependencyGraph.class);
+        when(graph.getDownstreamProjects(a, false)).thenReturn(Arrays.asList(b, d));
+        when(graph.getDownstreamProjects(b, false)).thenReturn(Arrays.asList(c));
+        when(graph.getDownstreamProjects(c, false)).thenReturn(Collections.emptyList());
+        when(graph.getDownstreamProjects(d, false)).thenReturn(Collections.emptyList());
+        when(graph.getDownstreamProjects(e, false)).thenReturn(Collections.emptyList());
+        index = new ReactorDependencyIndex(Arrays.asList(a, b, c, d, e), graph);
+    }
+
+    @Test
+    void shouldComputeDirectAndTransitiveRelations() {
+        // given
+        BitSet projects = index.toBitSet(Arrays.asList(a));
+
+        // when / then
+        assertEquals(Arrays.asList(b, d), index.toProjects(index.getDownstreamProjects(projects, false)));
+        assertEquals(Arrays.asList(b, c, d), index.toProjects(index.getDownstreamProjects(projects, true)));
+        assertEquals(Arrays.asList(b), index.toProjects(index.getUpstreamProjects(index.toBitSet(Arrays.asList(c)), false)));
+        assertEquals(Arrays.asList(a, b), index.toProjects(index.getUpstreamProjects(index.toBitSet(Arrays.asList(c)), true)));
+    }
+
+    @Test
+    void shouldUniteRelationsWithoutDuplicates() {
+        // given
+        BitSet projects = index.getProjectsAtPaths(Arrays.asList(root.resolve("c"), root.resolve("d"), root.resolve("unknown")));
+
+        // when
+        BitSet upstream = index.getUpstreamProjects(projects, true);
+
+        // then
+        assertEquals(Arrays.asList(c, d), index.toProjects(projects));
+        assertEquals(Arrays.asList(a, b), index.toProjects(upstream));
+        assertEquals(Collections.emptyList(), index.toProjects(index.getDownstreamProjects(index.toBitSet(Arrays.asList(e)), true)));
+    }
+
+    @Test
+    void shouldKeepRelationsThroughProjectsFilteredFromGraph() {
+        // given
+        // c -> b -> a, but only a and c are selected (e.g., "-pl a,c"), so the filtered graph has no relations at all.
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b");
+        MavenProject c = createProject("c");
+        b.getDependencies().add(createDependency(a));
+        c.getDependencies().add(createDependency(b));
+        ProjectDependencyGraph filteredGraph = mock(ProjectDependencyGraph.class);
+        when(filteredGraph.getDownstreamProjects(any(), anyBoolean())).thenReturn(Collections.emptyList());
+
+        // when
+        ReactorDependencyIndex filteredIndex = new ReactorDependencyIndex(Arrays.asList(a, b, c), filteredGraph);
+
+        // then
+        assertEquals(Arrays.asList(b, c), filteredIndex.toProjects(filteredIndex.getDownstreamProjects(filteredIndex.toBitSet(Arrays.asList(a)), true)));
+        assertEquals(Arrays.asList(b), filteredIndex.toProjects(filteredIndex.getDownstreamProjects(filteredIndex.toBitSet(Arrays.asList(a)), false)));
+        assertEquals(Arrays.asList(a, b), filteredIndex.toProjects(filteredIndex.getUpstreamProjects(filteredIndex.toBitSet(Arrays.asList(c)), true)));
+    }
+
+    @Test
+    void shouldOnlyMatchDeclaredRelationsWithSameVersion() {
+        // given
+        MavenProject a = createProject("a");
+        MavenProject b = createProject("b");
+        Dependency dependency = createDependency(a);
+        dependency.setVersion("0.9");
+        b.getDependencies().add(dependency);
+        ProjectDependencyGraph graph = mock(ProjectDependencyGraph.class);
+        when(graph.getDownstreamProjects(any(), anyBoolean())).thenReturn(Collections.emptyList());
+
+        // when
+        ReactorDependencyIndex versionedIndex = new ReactorDependencyIndex(Arrays.asList(a, b), graph);
+
+        // then
+        assertEquals(Collections.emptyList(), versionedIndex.toProjects(versionedIndex.getDownstreamProjects(versionedIndex.toBitSet(Arrays.asList(a)), true)));
+    }
+
+    private static Dependency createDependency(MavenProject project) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(project.getGroupId());
+        dependency.setArtifactId(project.getArtifactId());
+        dependency.setVersion(project.getVersion());
+        return dependency;
+    }
+}